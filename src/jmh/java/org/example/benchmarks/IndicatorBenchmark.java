@@ -0,0 +1,58 @@
+package org.example.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.example.enums.LogLevel;
+import org.example.models.OHLCData;
+import org.example.models.OHLCSeries;
+import org.example.utils.CSVUtils;
+import org.example.utils.DataUtils;
+import org.example.utils.IndicatorUtils;
+import org.example.utils.LogUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class IndicatorBenchmark {
+  @Param({"250", "2500"})
+  private int days;
+
+  private Path folder;
+  private OHLCSeries series;
+  private Map<Date, List<OHLCData>> dayWiseOHLCData;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    LogUtils.setLevel(LogLevel.ERROR);
+    folder = SyntheticData.createFolder();
+    series =
+        DataUtils.parseOHLCSeries(
+            SyntheticData.writeMinuteCsv(folder, days, 42), CSVUtils.FIXED_TIMESTAMP_FORMAT);
+    dayWiseOHLCData = DataUtils.getDayWiseOHLCData(series.toOHLCDataList());
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticData.deleteFolder(folder);
+  }
+
+  @Benchmark
+  public void orbDataForDaySeries(Blackhole blackhole) {
+    for (int day = 0; day < series.getDayCount(); day++) {
+      blackhole.consume(IndicatorUtils.getORBDataForDay(series, day));
+    }
+  }
+
+  @Benchmark
+  public void orbDataForDayList(Blackhole blackhole) {
+    for (List<OHLCData> dayOHLCData : dayWiseOHLCData.values()) {
+      blackhole.consume(IndicatorUtils.getORBDataForDay(dayOHLCData));
+    }
+  }
+}
@@ -0,0 +1,56 @@
+package org.example.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.example.enums.LogLevel;
+import org.example.models.OHLCData;
+import org.example.models.OHLCSeries;
+import org.example.utils.CSVUtils;
+import org.example.utils.DataUtils;
+import org.example.utils.LogUtils;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LoadBenchmark {
+  @Param({"250", "2500"})
+  private int days;
+
+  private Path folder;
+  private Path csv;
+  private List<OHLCData> ohlcDataList;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    LogUtils.setLevel(LogLevel.ERROR);
+    folder = SyntheticData.createFolder();
+    csv = SyntheticData.writeMinuteCsv(folder, days, 42);
+    ohlcDataList = DataUtils.parseOHLCSeries(csv, CSVUtils.FIXED_TIMESTAMP_FORMAT).toOHLCDataList();
+    DataUtils.readOHLCSeries(csv, CSVUtils.FIXED_TIMESTAMP_FORMAT);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticData.deleteFolder(folder);
+  }
+
+  @Benchmark
+  public OHLCSeries parseCsv() {
+    return DataUtils.parseOHLCSeries(csv, CSVUtils.FIXED_TIMESTAMP_FORMAT);
+  }
+
+  @Benchmark
+  public OHLCSeries loadFromCache() {
+    return DataUtils.readOHLCSeries(csv, CSVUtils.FIXED_TIMESTAMP_FORMAT);
+  }
+
+  @Benchmark
+  public Map<Date, List<OHLCData>> dayWiseOHLCData() {
+    return DataUtils.getDayWiseOHLCData(ohlcDataList);
+  }
+}
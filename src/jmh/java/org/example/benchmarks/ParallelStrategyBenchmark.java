@@ -0,0 +1,45 @@
+package org.example.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.example.enums.LogLevel;
+import org.example.models.OHLCSeries;
+import org.example.models.TradeData;
+import org.example.utils.CSVUtils;
+import org.example.utils.DataUtils;
+import org.example.utils.LogUtils;
+import org.example.utils.StrategyUtils;
+import org.openjdk.jmh.annotations.*;
+
+/** The parallel backtest always runs the default parameters, so it has no intra bar path. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ParallelStrategyBenchmark {
+  @Param({"250", "2500"})
+  private int days;
+
+  private Path folder;
+  private OHLCSeries series;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    LogUtils.setLevel(LogLevel.ERROR);
+    folder = SyntheticData.createFolder();
+    series =
+        DataUtils.parseOHLCSeries(
+            SyntheticData.writeMinuteCsv(folder, days, 42), CSVUtils.FIXED_TIMESTAMP_FORMAT);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticData.deleteFolder(folder);
+  }
+
+  @Benchmark
+  public List<TradeData> tradesParallel() {
+    return StrategyUtils.getListOfTradesForORBAdvanced(series, StrategyUtils.DEFAULT_PARALLELISM);
+  }
+}
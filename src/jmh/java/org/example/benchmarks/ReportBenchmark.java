@@ -0,0 +1,47 @@
+package org.example.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.example.enums.LogLevel;
+import org.example.models.OHLCSeries;
+import org.example.models.TradeData;
+import org.example.utils.CSVUtils;
+import org.example.utils.DataUtils;
+import org.example.utils.LogUtils;
+import org.example.utils.StrategyUtils;
+import org.openjdk.jmh.annotations.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ReportBenchmark {
+  @Param({"250", "2500"})
+  private int days;
+
+  private Path folder;
+  private Path report;
+  private List<TradeData> tradeDataList;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    LogUtils.setLevel(LogLevel.ERROR);
+    folder = SyntheticData.createFolder();
+    OHLCSeries series =
+        DataUtils.parseOHLCSeries(
+            SyntheticData.writeMinuteCsv(folder, days, 42), CSVUtils.FIXED_TIMESTAMP_FORMAT);
+    tradeDataList = StrategyUtils.getListOfTradesForORBAdvanced(series);
+    report = folder.resolve("report.csv");
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticData.deleteFolder(folder);
+  }
+
+  @Benchmark
+  public void writeTradeDataToCSV() {
+    DataUtils.writeTradeDataToCSV(tradeDataList, report);
+  }
+}
@@ -0,0 +1,66 @@
+package org.example.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.example.enums.IntraBarPath;
+import org.example.enums.LogLevel;
+import org.example.enums.SlippageModel;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.ORBData;
+import org.example.utils.CSVUtils;
+import org.example.utils.DataUtils;
+import org.example.utils.IndicatorUtils;
+import org.example.utils.LogUtils;
+import org.example.utils.StrategyUtils;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class StrategyBenchmark {
+  @Param({"250", "2500"})
+  private int days;
+
+  @Param({"CLOSE", "OPEN_HIGH_LOW_CLOSE"})
+  private IntraBarPath intraBarPath;
+
+  private Path folder;
+  private OHLCSeries series;
+  private List<ORBData> dayWiseORBData;
+  private ORBAdvancedParameters parameters;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    LogUtils.setLevel(LogLevel.ERROR);
+    folder = SyntheticData.createFolder();
+    series =
+        DataUtils.parseOHLCSeries(
+            SyntheticData.writeMinuteCsv(folder, days, 42), CSVUtils.FIXED_TIMESTAMP_FORMAT);
+    dayWiseORBData = IndicatorUtils.getDayWiseORBData(series);
+    parameters = StrategyUtils.getDefaultORBAdvancedParameters();
+    parameters.getExecution().setIntraBarPath(intraBarPath);
+    if (intraBarPath != IntraBarPath.CLOSE) {
+      parameters.getExecution().setSlippageModel(SlippageModel.FIXED);
+      parameters.getExecution().setSlippage(0.5);
+      parameters.getExecution().setBrokeragePerOrder(20);
+    }
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticData.deleteFolder(folder);
+  }
+
+  @Benchmark
+  public void tradesForDay(Blackhole blackhole) {
+    for (int day = 0; day < series.getDayCount(); day++) {
+      blackhole.consume(
+          StrategyUtils.getListOfTradesForORBAdvancedForDay(
+              series, day, dayWiseORBData.get(day), parameters, null));
+    }
+  }
+}
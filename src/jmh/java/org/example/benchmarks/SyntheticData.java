@@ -0,0 +1,78 @@
+package org.example.benchmarks;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.example.utils.CSVUtils;
+
+/** Random walk minute bars shaped like the NIFTY 50 csv, 09:15 to 15:29 on weekdays. */
+public class SyntheticData {
+  public static final int BARS_PER_DAY = 375;
+  private static final LocalDate FIRST_DAY = LocalDate.of(2015, 1, 9);
+  private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+      DateTimeFormatter.ofPattern(CSVUtils.FIXED_TIMESTAMP_FORMAT);
+
+  /** folder for the csv of a trial, the teardown of the trial removes it with deleteFolder */
+  public static Path createFolder() throws IOException {
+    return Files.createTempDirectory("orb-bench");
+  }
+
+  /** removes the folder with the csv and anything cached or written next to it */
+  public static void deleteFolder(Path folder) throws IOException {
+    try (Stream<Path> paths = Files.walk(folder)) {
+      for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(path);
+      }
+    }
+  }
+
+  public static Path writeMinuteCsv(Path folder, int days, long seed) throws IOException {
+    Path file = folder.resolve("synthetic-" + days + ".csv");
+    Random random = new Random(seed);
+    double price = 8200.0;
+    LocalDate day = FIRST_DAY;
+    try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("date,open,high,low,close,volume\n");
+      for (int d = 0; d < days; d++) {
+        while (day.getDayOfWeek() == DayOfWeek.SATURDAY || day.getDayOfWeek() == DayOfWeek.SUNDAY) {
+          day = day.plusDays(1);
+        }
+        LocalDateTime timestamp = day.atTime(9, 15);
+        for (int m = 0; m < BARS_PER_DAY; m++) {
+          double open = price;
+          double close = round(open + random.nextGaussian() * 4);
+          double high = round(Math.max(open, close) + Math.abs(random.nextGaussian() * 2));
+          double low = round(Math.min(open, close) - Math.abs(random.nextGaussian() * 2));
+          writer
+              .append(TIMESTAMP_FORMATTER.format(timestamp))
+              .append(',')
+              .append(Double.toString(open))
+              .append(',')
+              .append(Double.toString(high))
+              .append(',')
+              .append(Double.toString(low))
+              .append(',')
+              .append(Double.toString(close))
+              .append(",0\n");
+          price = close;
+          timestamp = timestamp.plusMinutes(1);
+        }
+        day = day.plusDays(1);
+      }
+    }
+    return file;
+  }
+
+  private static double round(double value) {
+    return Math.round(value * 100) / 100.0;
+  }
+}
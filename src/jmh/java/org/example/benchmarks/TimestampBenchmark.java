@@ -0,0 +1,72 @@
+package org.example.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+import org.example.constants.ExchangeConstants;
+import org.example.utils.CSVUtils;
+import org.example.utils.TimestampParser;
+import org.openjdk.jmh.annotations.*;
+
+/** One day of minute timestamps per invocation, SimpleDateFormat against the parser. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TimestampBenchmark {
+  private byte[][] timestamps;
+  private String[] texts;
+  private SimpleDateFormat simpleDateFormat;
+  private DateTimeFormatter dateTimeFormatter;
+  private TimestampParser parser;
+
+  @Setup(Level.Trial)
+  public void setup() {
+    DateTimeFormatter formatter = DateTimeFormatter.ofPattern(CSVUtils.FIXED_TIMESTAMP_FORMAT);
+    LocalDateTime start = LocalDateTime.of(2015, 1, 9, 9, 15);
+    timestamps = new byte[SyntheticData.BARS_PER_DAY][];
+    texts = new String[SyntheticData.BARS_PER_DAY];
+    for (int i = 0; i < SyntheticData.BARS_PER_DAY; i++) {
+      texts[i] = formatter.format(start.plusMinutes(i));
+      timestamps[i] = texts[i].getBytes(StandardCharsets.US_ASCII);
+    }
+    simpleDateFormat = new SimpleDateFormat(CSVUtils.FIXED_TIMESTAMP_FORMAT);
+    simpleDateFormat.setTimeZone(TimeZone.getTimeZone(ExchangeConstants.EXCHANGE_ZONE_ID));
+    dateTimeFormatter = formatter;
+    parser = new TimestampParser(ExchangeConstants.EXCHANGE_ZONE_ID);
+  }
+
+  @Benchmark
+  public long simpleDateFormat() throws ParseException {
+    long sum = 0;
+    for (String text : texts) {
+      sum += simpleDateFormat.parse(text).getTime();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long dateTimeFormatter() {
+    long sum = 0;
+    for (String text : texts) {
+      sum +=
+          LocalDateTime.parse(text, dateTimeFormatter)
+              .atZone(ExchangeConstants.EXCHANGE_ZONE_ID)
+              .toInstant()
+              .toEpochMilli();
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long timestampParser() {
+    long sum = 0;
+    for (byte[] timestamp : timestamps) {
+      sum += parser.parseEpochMillis(timestamp, 0, timestamp.length);
+    }
+    return sum;
+  }
+}
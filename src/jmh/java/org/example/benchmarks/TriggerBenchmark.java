@@ -0,0 +1,99 @@
+package org.example.benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.example.enums.LogLevel;
+import org.example.enums.OrderSignal;
+import org.example.matching.TradeExitMatcher;
+import org.example.matching.TriggerListener;
+import org.example.models.OHLCData;
+import org.example.models.OHLCSeries;
+import org.example.models.TradeData;
+import org.example.utils.CSVUtils;
+import org.example.utils.DataUtils;
+import org.example.utils.LogUtils;
+import org.example.utils.TradeUtils;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * A basket of resting trades checked on every bar of 20 days, a scan with the TradeUtils checks
+ * against the trigger matcher. Triggered trades stay in the basket so both sides do equal work.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TriggerBenchmark {
+  @Param({"100", "10000"})
+  private int trades;
+
+  private Path folder;
+  private OHLCSeries series;
+  private List<TradeData> basket;
+  private TradeExitMatcher matcher;
+  private Counter counter;
+
+  @Setup(Level.Trial)
+  public void setup() throws IOException {
+    LogUtils.setLevel(LogLevel.ERROR);
+    folder = SyntheticData.createFolder();
+    series =
+        DataUtils.parseOHLCSeries(
+            SyntheticData.writeMinuteCsv(folder, 20, 42), CSVUtils.FIXED_TIMESTAMP_FORMAT);
+    Random random = new Random(42);
+    basket = new ArrayList<>(trades);
+    matcher = new TradeExitMatcher();
+    for (int i = 0; i < trades; i++) {
+      double price = series.getClose(random.nextInt(series.size()));
+      double risk = 5 + random.nextDouble() * 50;
+      TradeData tradeData = new TradeData();
+      tradeData.setBookProfits(price + 2 * risk);
+      tradeData.setStopLoss(price - risk);
+      basket.add(tradeData);
+      matcher.add(tradeData);
+    }
+    counter = new Counter();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticData.deleteFolder(folder);
+  }
+
+  @Benchmark
+  public long scan() {
+    OHLCSeries.Cursor cursor = series.cursor();
+    long count = 0;
+    for (int i = 0; i < series.size(); i++) {
+      OHLCData bar = cursor.moveTo(i);
+      for (TradeData tradeData : basket) {
+        if (TradeUtils.isBookProfits(tradeData, bar) || TradeUtils.isStopLoss(tradeData, bar)) {
+          count++;
+        }
+      }
+    }
+    return count;
+  }
+
+  @Benchmark
+  public long matcher() {
+    OHLCSeries.Cursor cursor = series.cursor();
+    counter.count = 0;
+    for (int i = 0; i < series.size(); i++) {
+      matcher.match(cursor.moveTo(i), counter);
+    }
+    return counter.count;
+  }
+
+  private static class Counter implements TriggerListener {
+    private long count;
+
+    @Override
+    public void onTrigger(int handle, TradeData tradeData, OrderSignal signal) {
+      count++;
+    }
+  }
+}
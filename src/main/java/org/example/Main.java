@@ -1,16 +1,63 @@
 package org.example;
 
+import java.nio.file.Paths;
 import java.util.*;
 
-import org.example.enums.CSV;
-import org.example.models.OHLCData;
+import org.example.cache.DayResultCache;
+import org.example.engine.OrbEngine;
+import org.example.engine.ReplaySource;
+import org.example.engine.TradeListener;
+import org.example.enums.MonteCarloMode;
+import org.example.enums.ReportFormat;
+import org.example.jobs.JobFile;
+import org.example.jobs.JobRunner;
+import org.example.models.JobDefinition;
+import org.example.models.JobResult;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.OptimizationResult;
 import org.example.models.TradeData;
+import org.example.models.WalkForwardWindow;
+import org.example.reports.TradeReportWriter;
+import org.example.strategies.BacktestRunner;
+import org.example.strategies.ORBAdvancedStrategy;
+import org.example.strategies.Strategy;
+import org.example.strategies.StrategyRegistry;
 import org.example.utils.DataUtils;
 import org.example.utils.LogUtils;
+import org.example.utils.MetricsUtils;
+import org.example.utils.MonteCarloUtils;
+import org.example.utils.OptimizerUtils;
 import org.example.utils.StrategyUtils;
+import org.example.utils.WalkForwardUtils;
 
 public class Main {
   private static final long startTime = new Date().getTime();
+  private static final int EXIT_SUCCESS = 0;
+  private static final int EXIT_FAILURE = 1;
+  private static final int EXIT_USAGE = 2;
+  private static final String JOBS_COMMAND = "jobs";
+  private static final String THREADS_OPTION = "--threads";
+  private static final String OPTIMIZE_COMMAND = "optimize";
+  private static final String REPLAY_COMMAND = "replay";
+  private static final String STRATEGIES_COMMAND = "strategies";
+  private static final String UNIVERSE_COMMAND = "universe";
+  private static final String WALK_FORWARD_COMMAND = "walkforward";
+  private static final List<String> COMMANDS =
+      List.of(
+          JOBS_COMMAND,
+          UNIVERSE_COMMAND,
+          OPTIMIZE_COMMAND,
+          REPLAY_COMMAND,
+          WALK_FORWARD_COMMAND,
+          STRATEGIES_COMMAND);
+  private static final int DEFAULT_TRAIN_DAYS = 250;
+  private static final int DEFAULT_TEST_DAYS = 60;
+  private static final int MONTE_CARLO_ITERATIONS =
+      Integer.getInteger("orb.montecarlo.iterations", 10_000);
+  private static final long MONTE_CARLO_SEED = Long.getLong("orb.montecarlo.seed", 42L);
+  // opt in, cached days are only as fresh as DayResultCache.VERSION
+  private static final boolean RESULT_CACHE_ENABLED = Boolean.getBoolean("orb.resultCache");
 
   public static void logTime() {
     String message = "Time Log :: " + ((new Date().getTime()) - startTime);
@@ -18,23 +65,245 @@ public class Main {
     System.out.println(message);
   }
 
+  /**
+   * runs one command, ORB Advanced over the default symbol without one. The process exits with
+   * {@link #EXIT_FAILURE} when the command or any job of a batch failed and with {@link
+   * #EXIT_USAGE} on invalid arguments, so schedulers can tell a failed run from a good one.
+   */
   public static void main(String[] args) {
+    int exitCode;
     try {
+      MetricsUtils.startEndpoints();
       logTime();
-      Map<Date, List<OHLCData>> dayWiseOHLCData =
-          DataUtils.getDayWiseOHLCData(DataUtils.readOHLCCsv(CSV.NIFTY_50_10YEAR_MINUTE_WISE));
-      logTime();
-      List<TradeData> tradeDataList = StrategyUtils.getListOfTradesForORBAdvanced(dayWiseOHLCData);
-      tradeDataList.sort((oldTrade, newTrade)->{
-        long timeDiff = newTrade.getEntry().getTimestamp().getTime()-oldTrade.getEntry().getTimestamp().getTime();
-        return timeDiff>0?-1:1;
-      });
-      DataUtils.writeTradeDataToCSV(tradeDataList);
+      exitCode = run(args);
       logTime();
     } catch (Exception e) {
-      LogUtils.error(Arrays.toString(e.getStackTrace()));
+      LogUtils.error(e + " " + Arrays.toString(e.getStackTrace()));
+      System.err.println("Failed :: " + e);
+      exitCode = EXIT_FAILURE;
     } finally {
+      MetricsUtils.writeSummary();
+      MetricsUtils.stopEndpoints();
       LogUtils.dumpLogFile();
     }
+    if (exitCode != EXIT_SUCCESS) {
+      System.exit(exitCode);
+    }
+  }
+
+  private static int run(String[] args) throws InterruptedException {
+    String usage = args.length > 0 ? getUsageOfInvalidArguments(args) : null;
+    if (Objects.nonNull(usage)) {
+      return usage(args, usage);
+    }
+    if (args.length > 0 && JOBS_COMMAND.equals(args[0])) {
+      return runJobs(args);
+    }
+    if (args.length > 0 && UNIVERSE_COMMAND.equals(args[0])) {
+      runUniverse(
+          args.length > 1
+              ? List.of(args[1].split(","))
+              : List.copyOf(DataUtils.getDatasetCatalog().getSymbols()));
+      return EXIT_SUCCESS;
+    }
+    OHLCSeries series =
+        DataUtils.readOHLCSeries(DataUtils.DEFAULT_SYMBOL, DataUtils.DEFAULT_TIMEFRAME);
+    logTime();
+    if (args.length > 0 && OPTIMIZE_COMMAND.equals(args[0])) {
+      runOptimizer(series);
+    } else if (args.length > 0 && REPLAY_COMMAND.equals(args[0])) {
+      runReplay(
+          series,
+          args.length > 1 ? Double.parseDouble(args[1]) : ReplaySource.AS_FAST_AS_POSSIBLE);
+    } else if (args.length > 0 && WALK_FORWARD_COMMAND.equals(args[0])) {
+      runWalkForward(
+          series,
+          args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TRAIN_DAYS,
+          args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_TEST_DAYS);
+    } else if (args.length > 0 && STRATEGIES_COMMAND.equals(args[0])) {
+      runStrategies(
+          series,
+          args.length > 1 ? List.of(args[1].split(",")) : List.copyOf(StrategyRegistry.getIds()));
+    } else {
+      List<TradeData> tradeDataList =
+          RESULT_CACHE_ENABLED
+              ? runWithResultCache(series)
+              : StrategyUtils.getListOfTradesForORBAdvanced(
+                  series, StrategyUtils.DEFAULT_PARALLELISM);
+      DataUtils.writeTradeData(
+          tradeDataList,
+          DataUtils.getTradeReportPath(DataUtils.DEFAULT_REPORT_FORMAT),
+          DataUtils.DEFAULT_REPORT_FORMAT);
+    }
+    return EXIT_SUCCESS;
+  }
+
+  /** jobs FILE [--threads N]: runs every job of the file in this JVM, N of them at once */
+  private static int runJobs(String[] args) {
+    int threads = 1;
+    boolean valid = args.length > 1;
+    for (int i = 2; valid && i < args.length; i += 2) {
+      valid = THREADS_OPTION.equals(args[i]) && i + 1 < args.length && isPositive(args[i + 1]);
+      if (valid) {
+        threads = Integer.parseInt(args[i + 1]);
+      }
+    }
+    if (!valid) {
+      return usage(args, JOBS_COMMAND + " <job file> [" + THREADS_OPTION + " <n>]");
+    }
+    List<JobDefinition> jobs = JobFile.read(Paths.get(args[1]));
+    LogUtils.info("Jobs :: " + jobs.size() + " threads: " + threads);
+    List<JobResult> results = JobRunner.run(jobs, threads);
+    results.forEach(result -> System.out.println("Job :: " + JobRunner.describe(result)));
+    return results.stream().allMatch(JobResult::isSucceeded) ? EXIT_SUCCESS : EXIT_FAILURE;
+  }
+
+  /**
+   * usage of a command that is not known, such as a misspelt one or an option without its command,
+   * or of a replay or walkforward command whose arguments do not parse, else null
+   */
+  private static String getUsageOfInvalidArguments(String[] args) {
+    if (!COMMANDS.contains(args[0])) {
+      return "["
+          + String.join(" | ", COMMANDS)
+          + "] [<arguments>], no command runs ORB Advanced over the default symbol";
+    }
+    if (REPLAY_COMMAND.equals(args[0]) && args.length > 1 && !isSpeed(args[1])) {
+      return REPLAY_COMMAND + " [<speed, 0 for as fast as possible>]";
+    }
+    if (WALK_FORWARD_COMMAND.equals(args[0])
+        && !Arrays.stream(args, 1, Math.min(args.length, 3)).allMatch(Main::isPositive)) {
+      return WALK_FORWARD_COMMAND + " [<train days> [<test days>]]";
+    }
+    return null;
+  }
+
+  private static int usage(String[] args, String usage) {
+    LogUtils.error("Invalid arguments :: " + Arrays.toString(args));
+    System.err.println("Usage: " + usage);
+    return EXIT_USAGE;
+  }
+
+  private static boolean isSpeed(String value) {
+    try {
+      double speed = Double.parseDouble(value);
+      return Double.isFinite(speed) && speed >= 0;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static boolean isPositive(String value) {
+    try {
+      return Integer.parseInt(value) > 0;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  private static List<TradeData> runWithResultCache(OHLCSeries series) {
+    ORBAdvancedParameters parameters = StrategyUtils.getDefaultORBAdvancedParameters();
+    try (DayResultCache cache =
+        new DayResultCache(
+            DataUtils.getResultCachePath(),
+            DataUtils.DEFAULT_SYMBOL + "-" + DataUtils.DEFAULT_TIMEFRAME,
+            ORBAdvancedStrategy.ID,
+            parameters)) {
+      return StrategyUtils.getListOfTradesForORBAdvanced(
+          series, parameters, StrategyUtils.DEFAULT_PARALLELISM, cache);
+    }
+  }
+
+  private static List<ORBAdvancedParameters> getDefaultParameterGrid() {
+    return OptimizerUtils.getParameterGrid(
+        List.of(
+            new int[] {9, 15, 9, 29},
+            new int[] {9, 15, 9, 44},
+            new int[] {9, 15, 9, 59},
+            new int[] {9, 15, 10, 14}),
+        List.of(1.0, 1.5, 2.0, 2.5, 3.0),
+        List.of(5, 15, 30));
+  }
+
+  private static void runOptimizer(OHLCSeries series) {
+    List<OptimizationResult> results =
+        OptimizerUtils.optimize(
+            series, getDefaultParameterGrid(), StrategyUtils.DEFAULT_PARALLELISM);
+    LogUtils.info("Optimizer evaluated parameter sets :: " + results.size());
+    DataUtils.writeOptimizationResultsToCSV(results);
+  }
+
+  private static void runReplay(OHLCSeries series, double speed) throws InterruptedException {
+    ReportFormat format = DataUtils.DEFAULT_REPORT_FORMAT;
+    try (TradeReportWriter writer =
+        TradeReportWriter.open(DataUtils.getTradeReportPath(format), format)) {
+      OrbEngine engine =
+          new OrbEngine(
+              StrategyUtils.getDefaultORBAdvancedParameters(),
+              new TradeListener() {
+                @Override
+                public void onEntry(TradeData tradeData) {
+                  LogUtils.info(() -> "Trade entered :: " + tradeData.getEntry());
+                }
+
+                @Override
+                public void onExit(TradeData tradeData) {
+                  LogUtils.info(() -> "Trade exited :: " + tradeData.getExit());
+                  writer.write(tradeData);
+                }
+              });
+      new ReplaySource(series, speed).replay(engine::onBar);
+      engine.finish();
+      DataUtils.logTradeReportSummary(writer);
+    }
+  }
+
+  /** runs the registered strategies with the given ids in one pass and writes a report for each */
+  private static void runStrategies(OHLCSeries series, List<String> strategyIds) {
+    List<Strategy> strategies = strategyIds.stream().map(StrategyRegistry::create).toList();
+    Map<String, List<TradeData>> results = BacktestRunner.run(series, strategies);
+    ReportFormat format = DataUtils.DEFAULT_REPORT_FORMAT;
+    results.forEach(
+        (strategyId, tradeDataList) ->
+            DataUtils.writeTradeData(
+                tradeDataList, DataUtils.getTradeReportPath(strategyId, format), format));
+  }
+
+  /** backtests ORB Advanced on every symbol one after the other, series are loaded on demand */
+  private static void runUniverse(List<String> symbols) {
+    ReportFormat format = DataUtils.DEFAULT_REPORT_FORMAT;
+    for (String symbol : symbols) {
+      OHLCSeries series = DataUtils.readOHLCSeries(symbol, DataUtils.DEFAULT_TIMEFRAME);
+      List<TradeData> tradeDataList =
+          StrategyUtils.getListOfTradesForORBAdvanced(series, StrategyUtils.DEFAULT_PARALLELISM);
+      LogUtils.info("Universe symbol :: " + symbol);
+      DataUtils.writeTradeData(
+          tradeDataList, DataUtils.getTradeReportPath(symbol, format), format);
+    }
+  }
+
+  /**
+   * walk forward over the default grid, then resamples the out of sample trades to show how much
+   * of the result depends on their order and luck
+   */
+  private static void runWalkForward(OHLCSeries series, int trainDays, int testDays) {
+    List<WalkForwardWindow> windows =
+        WalkForwardUtils.walkForward(
+            series,
+            getDefaultParameterGrid(),
+            trainDays,
+            testDays,
+            StrategyUtils.DEFAULT_PARALLELISM);
+    DataUtils.writeWalkForwardResultsToCSV(windows);
+    List<TradeData> outOfSampleTrades = WalkForwardUtils.getOutOfSampleTrades(windows);
+    for (MonteCarloMode mode : MonteCarloMode.values()) {
+      DataUtils.logMonteCarloSummary(
+          MonteCarloUtils.simulate(
+              outOfSampleTrades,
+              mode,
+              MONTE_CARLO_ITERATIONS,
+              MONTE_CARLO_SEED,
+              StrategyUtils.DEFAULT_PARALLELISM));
+    }
   }
 }
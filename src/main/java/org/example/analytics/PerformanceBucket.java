@@ -0,0 +1,37 @@
+package org.example.analytics;
+
+/** Trade count, winners and profit of one slice of a run, e.g. a month or a weekday. */
+public class PerformanceBucket {
+  private int trades;
+  private int wins;
+  private double profit;
+
+  void add(double tradeProfit) {
+    trades++;
+    if (tradeProfit > 0) {
+      wins++;
+    }
+    profit += tradeProfit;
+  }
+
+  public int getTrades() {
+    return trades;
+  }
+
+  public int getWins() {
+    return wins;
+  }
+
+  public double getProfit() {
+    return profit;
+  }
+
+  public double getWinRate() {
+    return trades == 0 ? 0.0 : (wins * 100.0) / trades;
+  }
+
+  @Override
+  public String toString() {
+    return "trades: " + trades + " wins: " + wins + " profit: " + profit;
+  }
+}
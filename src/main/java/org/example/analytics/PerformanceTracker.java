@@ -0,0 +1,302 @@
+package org.example.analytics;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.example.constants.ExchangeConstants;
+import org.example.enums.OrderSignal;
+import org.example.models.TradeData;
+
+/**
+ * Performance metrics of a run, updated as each trade completes. Every statistic is kept as a
+ * running sum or extreme, so adding a trade costs O(1) and nothing is ever re-scanned; this makes
+ * the tracker cheap enough to run inside every backtest of a parameter sweep.
+ *
+ * <p>Returns are taken per trade relative to the equity before the trade, Sharpe and Sortino are
+ * therefore per trade ratios and not annualised.
+ */
+public class PerformanceTracker {
+  public static final double DEFAULT_CAPITAL =
+      Double.parseDouble(System.getProperty("orb.capital", "100000"));
+  private static final int DEFAULT_CURVE_CAPACITY = 1 << 10;
+
+  private final double initialCapital;
+  private final ZoneId zoneId;
+  private final boolean recordEquityCurve;
+
+  private int totalTrades;
+  private int successTimes;
+  private int wins;
+  private int losses;
+  private double grossProfit;
+  private double grossLoss;
+  private double netProfit;
+  private double peakNetProfit;
+  private double maxDrawdown;
+  private double maxDrawdownPercent;
+  private double meanReturn;
+  private double squaredDeviations;
+  private double squaredDownside;
+  private double maxAdverseExcursionSum;
+  private double maxFavourableExcursionSum;
+  private double worstAdverseExcursion;
+  private double bestFavourableExcursion;
+
+  private long[] curveTimestamps;
+  private double[] curveEquity;
+
+  private final PerformanceBucket[] weekdayBuckets =
+      new PerformanceBucket[DayOfWeek.values().length];
+  private final Map<YearMonth, PerformanceBucket> monthBuckets = new LinkedHashMap<>();
+  private long currentDayStart = Long.MAX_VALUE;
+  private long nextDayStart = Long.MIN_VALUE;
+  private PerformanceBucket currentMonth;
+  private PerformanceBucket currentWeekday;
+
+  public PerformanceTracker() {
+    this(DEFAULT_CAPITAL, ExchangeConstants.EXCHANGE_ZONE_ID, true);
+  }
+
+  /**
+   * @param recordEquityCurve keeps the equity after every trade, sweeps that only need the summary
+   *     statistics can turn it off
+   */
+  public PerformanceTracker(double initialCapital, ZoneId zoneId, boolean recordEquityCurve) {
+    this.initialCapital = initialCapital;
+    this.zoneId = zoneId;
+    this.recordEquityCurve = recordEquityCurve;
+    if (recordEquityCurve) {
+      curveTimestamps = new long[DEFAULT_CURVE_CAPACITY];
+      curveEquity = new double[DEFAULT_CURVE_CAPACITY];
+    }
+    for (int i = 0; i < weekdayBuckets.length; i++) {
+      weekdayBuckets[i] = new PerformanceBucket();
+    }
+  }
+
+  /** accounts a completed trade, trades are expected in the order they were closed */
+  public void add(TradeData tradeData) {
+    add(
+        tradeData.getExit().getTimestamp().getTime(),
+        tradeData.getExit().getSignal(),
+        tradeData.getProfit(),
+        tradeData.getMaxAdverseExcursion(),
+        tradeData.getMaxFavourableExcursion());
+  }
+
+  /** primitive variant for trades read from a {@link org.example.models.TradeLog} */
+  public void add(
+      long exitTimestamp,
+      OrderSignal exitSignal,
+      double profit,
+      double maxAdverseExcursion,
+      double maxFavourableExcursion) {
+    double equityBefore = getEquity();
+    double tradeReturn = equityBefore == 0 ? 0.0 : profit / equityBefore;
+    totalTrades++;
+    if (OrderSignal.BP.equals(exitSignal)) {
+      successTimes++;
+    }
+    if (profit > 0) {
+      wins++;
+      grossProfit += profit;
+    } else if (profit < 0) {
+      losses++;
+      grossLoss -= profit;
+    }
+
+    double delta = tradeReturn - meanReturn;
+    meanReturn += delta / totalTrades;
+    squaredDeviations += delta * (tradeReturn - meanReturn);
+    if (tradeReturn < 0) {
+      squaredDownside += tradeReturn * tradeReturn;
+    }
+
+    netProfit += profit;
+    if (netProfit > peakNetProfit) {
+      peakNetProfit = netProfit;
+    }
+    double drawdown = peakNetProfit - netProfit;
+    if (drawdown > maxDrawdown) {
+      double peakEquity = initialCapital + peakNetProfit;
+      maxDrawdown = drawdown;
+      maxDrawdownPercent = peakEquity == 0 ? 0.0 : (drawdown / peakEquity) * 100;
+    }
+
+    maxAdverseExcursionSum += maxAdverseExcursion;
+    maxFavourableExcursionSum += maxFavourableExcursion;
+    worstAdverseExcursion = Math.max(worstAdverseExcursion, maxAdverseExcursion);
+    bestFavourableExcursion = Math.max(bestFavourableExcursion, maxFavourableExcursion);
+
+    if (exitTimestamp < currentDayStart || exitTimestamp >= nextDayStart) {
+      startDay(exitTimestamp);
+    }
+    currentMonth.add(profit);
+    currentWeekday.add(profit);
+
+    if (recordEquityCurve) {
+      appendToCurve(exitTimestamp, getEquity());
+    }
+  }
+
+  /** calendar lookups only happen when a trade closes on a different day than the previous one */
+  private void startDay(long timestamp) {
+    LocalDate day = Instant.ofEpochMilli(timestamp).atZone(zoneId).toLocalDate();
+    currentDayStart = day.atStartOfDay(zoneId).toInstant().toEpochMilli();
+    nextDayStart = day.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+    currentMonth =
+        monthBuckets.computeIfAbsent(YearMonth.from(day), month -> new PerformanceBucket());
+    currentWeekday = weekdayBuckets[day.getDayOfWeek().ordinal()];
+  }
+
+  private void appendToCurve(long timestamp, double value) {
+    int index = totalTrades - 1;
+    if (index == curveTimestamps.length) {
+      curveTimestamps = Arrays.copyOf(curveTimestamps, index * 2);
+      curveEquity = Arrays.copyOf(curveEquity, index * 2);
+    }
+    curveTimestamps[index] = timestamp;
+    curveEquity[index] = value;
+  }
+
+  public double getInitialCapital() {
+    return initialCapital;
+  }
+
+  public int getTotalTrades() {
+    return totalTrades;
+  }
+
+  /** trades closed by booking profits */
+  public int getSuccessTimes() {
+    return successTimes;
+  }
+
+  public int getWins() {
+    return wins;
+  }
+
+  public int getLosses() {
+    return losses;
+  }
+
+  /** sum of the trade profits, accumulated exactly like the cumulative profit of the reports */
+  public double getNetProfit() {
+    return netProfit;
+  }
+
+  public double getNetProfitPercent() {
+    return initialCapital == 0 ? 0.0 : (getNetProfit() / initialCapital) * 100;
+  }
+
+  public double getEquity() {
+    return initialCapital + netProfit;
+  }
+
+  public double getGrossProfit() {
+    return grossProfit;
+  }
+
+  public double getGrossLoss() {
+    return grossLoss;
+  }
+
+  public double getWinRate() {
+    return totalTrades == 0 ? 0.0 : (wins * 100.0) / totalTrades;
+  }
+
+  /** gross profit over gross loss, infinite when no trade lost */
+  public double getProfitFactor() {
+    if (grossLoss == 0) {
+      return grossProfit == 0 ? 0.0 : Double.POSITIVE_INFINITY;
+    }
+    return grossProfit / grossLoss;
+  }
+
+  /** average profit per trade */
+  public double getExpectancy() {
+    return totalTrades == 0 ? 0.0 : getNetProfit() / totalTrades;
+  }
+
+  public double getAverageWin() {
+    return wins == 0 ? 0.0 : grossProfit / wins;
+  }
+
+  public double getAverageLoss() {
+    return losses == 0 ? 0.0 : grossLoss / losses;
+  }
+
+  public double getMaxDrawdown() {
+    return maxDrawdown;
+  }
+
+  public double getMaxDrawdownPercent() {
+    return maxDrawdownPercent;
+  }
+
+  public double getSharpeRatio() {
+    if (totalTrades < 2 || squaredDeviations == 0) {
+      return 0.0;
+    }
+    return meanReturn / Math.sqrt(squaredDeviations / (totalTrades - 1));
+  }
+
+  public double getSortinoRatio() {
+    if (totalTrades == 0) {
+      return 0.0;
+    }
+    if (squaredDownside == 0) {
+      return meanReturn > 0 ? Double.POSITIVE_INFINITY : 0.0;
+    }
+    return meanReturn / Math.sqrt(squaredDownside / totalTrades);
+  }
+
+  public double getAverageAdverseExcursion() {
+    return totalTrades == 0 ? 0.0 : maxAdverseExcursionSum / totalTrades;
+  }
+
+  public double getAverageFavourableExcursion() {
+    return totalTrades == 0 ? 0.0 : maxFavourableExcursionSum / totalTrades;
+  }
+
+  public double getWorstAdverseExcursion() {
+    return worstAdverseExcursion;
+  }
+
+  public double getBestFavourableExcursion() {
+    return bestFavourableExcursion;
+  }
+
+  /** exit timestamps of the equity curve, empty when the curve is not recorded */
+  public long[] getEquityCurveTimestamps() {
+    return recordEquityCurve ? Arrays.copyOf(curveTimestamps, totalTrades) : new long[0];
+  }
+
+  /** equity after every trade, empty when the curve is not recorded */
+  public double[] getEquityCurve() {
+    return recordEquityCurve ? Arrays.copyOf(curveEquity, totalTrades) : new double[0];
+  }
+
+  /** buckets by the month of the exit, in chronological order */
+  public Map<YearMonth, PerformanceBucket> getMonthlyBreakdown() {
+    return Collections.unmodifiableMap(monthBuckets);
+  }
+
+  /** buckets by the weekday of the exit, weekdays without trades are left out */
+  public Map<DayOfWeek, PerformanceBucket> getWeekdayBreakdown() {
+    Map<DayOfWeek, PerformanceBucket> breakdown = new EnumMap<>(DayOfWeek.class);
+    for (DayOfWeek dayOfWeek : DayOfWeek.values()) {
+      if (weekdayBuckets[dayOfWeek.ordinal()].getTrades() > 0) {
+        breakdown.put(dayOfWeek, weekdayBuckets[dayOfWeek.ordinal()]);
+      }
+    }
+    return breakdown;
+  }
+}
@@ -0,0 +1,410 @@
+package org.example.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import org.example.enums.OrderSignal;
+import org.example.enums.OrderType;
+import org.example.enums.TradeStatus;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.ORBData;
+import org.example.models.OrderData;
+import org.example.models.TradeData;
+import org.example.utils.LogUtils;
+
+/**
+ * Persistent per day results of one strategy and parameter set on one dataset. Trades are keyed by
+ * a hash of the day's bars and stored in one file per (dataset, strategy id, parameter hash); ORB
+ * values only depend on the opening window and are stored in one file per dataset and window, so
+ * changing any other parameter still reuses them. A day whose bars changed gets a new key and is
+ * recomputed, every other day is read back. Every entry remembers its day, and on {@link #close()}
+ * the entries of days inside the range this run covered but not read or stored by it are dropped,
+ * so keys of days whose bars changed go away while a run over a date range keeps the other days.
+ * The least recently used files are deleted once the folder grows past its size budget.
+ *
+ * <p>Bump {@link #VERSION} whenever the strategy logic changes, it is part of every key.
+ */
+public class DayResultCache implements AutoCloseable {
+  public static final long DEFAULT_MAX_BYTES =
+      Long.getLong("orb.resultCache.maxBytes", 256L * 1024 * 1024);
+  private static final int MAGIC = 0x4F524244;
+  private static final int VERSION = 2;
+  private static final String TRADES_EXTENSION = ".trades";
+  private static final String ORB_EXTENSION = ".orb";
+  private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+  private static final long FNV_PRIME = 0x100000001b3L;
+
+  private final Path folder;
+  private final long maxBytes;
+  private final Path tradesPath;
+  private final Path orbPath;
+  private final Map<Long, List<TradeData>> tradesByDay = new ConcurrentHashMap<>();
+  private final Map<Long, ORBData> orbDataByDay = new ConcurrentHashMap<>();
+  private final Map<Long, Long> dayStarts = new ConcurrentHashMap<>();
+  private final Set<Long> touchedTrades = ConcurrentHashMap.newKeySet();
+  private final Set<Long> touchedORBData = ConcurrentHashMap.newKeySet();
+  private final AtomicLong[] tradesRange = getEmptyRange();
+  private final AtomicLong[] orbDataRange = getEmptyRange();
+  private final int loadedTrades;
+  private final int loadedORBData;
+
+  /**
+   * @param datasetId names the bars the days come from, e.g. symbol and timeframe; caches of
+   *     different datasets live in different files
+   */
+  public DayResultCache(
+      Path folder, String datasetId, String strategyId, ORBAdvancedParameters parameters) {
+    this(folder, datasetId, strategyId, parameters, DEFAULT_MAX_BYTES);
+  }
+
+  public DayResultCache(
+      Path folder,
+      String datasetId,
+      String strategyId,
+      ORBAdvancedParameters parameters,
+      long maxBytes) {
+    this.folder = folder;
+    this.maxBytes = maxBytes;
+    this.tradesPath =
+        folder.resolve(
+            datasetId
+                + "-"
+                + strategyId
+                + "-"
+                + Long.toHexString(hash(strategyId + parameters))
+                + TRADES_EXTENSION);
+    this.orbPath =
+        folder.resolve(
+            datasetId
+                + "-orb-"
+                + parameters.getStartHour()
+                + "-"
+                + parameters.getStartMinute()
+                + "-"
+                + parameters.getEndHour()
+                + "-"
+                + parameters.getEndMinute()
+                + ORB_EXTENSION);
+    readTrades(tradesPath, tradesByDay, dayStarts);
+    readORBData(orbPath, orbDataByDay, dayStarts);
+    this.loadedTrades = tradesByDay.size();
+    this.loadedORBData = orbDataByDay.size();
+  }
+
+  /**
+   * key of the day's inputs: every bar of the day and, when the stop is ATR scaled, the ATR over
+   * the day since it carries history from earlier days
+   */
+  public static long getDayKey(OHLCSeries series, int day, double[] averageTrueRange) {
+    long hash = FNV_OFFSET ^ VERSION;
+    for (int i = series.getDayStart(day); i < series.getDayEnd(day); i++) {
+      hash = mix(hash, series.getTimestamp(i));
+      hash = mix(hash, Double.doubleToLongBits(series.getOpen(i)));
+      hash = mix(hash, Double.doubleToLongBits(series.getHigh(i)));
+      hash = mix(hash, Double.doubleToLongBits(series.getLow(i)));
+      hash = mix(hash, Double.doubleToLongBits(series.getClose(i)));
+      if (Objects.nonNull(averageTrueRange)) {
+        hash = mix(hash, Double.doubleToLongBits(averageTrueRange[i]));
+      }
+    }
+    return hash;
+  }
+
+  /**
+   * @param dayStart start of the day the key belongs to, the run covers the days between the first
+   *     and the last one asked for, separately for trades and ORB values since a day served from
+   *     the trades never asks for its ORB
+   */
+  public List<TradeData> getTrades(long dayKey, long dayStart) {
+    touch(touchedTrades, tradesRange, dayKey, dayStart);
+    return tradesByDay.get(dayKey);
+  }
+
+  public void putTrades(long dayKey, long dayStart, List<TradeData> tradeDataList) {
+    touch(touchedTrades, tradesRange, dayKey, dayStart);
+    dayStarts.put(dayKey, dayStart);
+    tradesByDay.put(dayKey, tradeDataList);
+  }
+
+  public ORBData getORBData(long dayKey, long dayStart) {
+    touch(touchedORBData, orbDataRange, dayKey, dayStart);
+    return orbDataByDay.get(dayKey);
+  }
+
+  public void putORBData(long dayKey, long dayStart, ORBData orbData) {
+    touch(touchedORBData, orbDataRange, dayKey, dayStart);
+    dayStarts.put(dayKey, dayStart);
+    orbDataByDay.put(dayKey, orbData);
+  }
+
+  /**
+   * writes back the files when a day was added or an untouched day inside the range of the run has
+   * to be pruned, then enforces the size budget
+   */
+  @Override
+  public void close() {
+    try {
+      Files.createDirectories(folder);
+      boolean prunedTrades = prune(tradesByDay, touchedTrades, tradesRange);
+      boolean prunedORBData = prune(orbDataByDay, touchedORBData, orbDataRange);
+      if (prunedTrades || tradesByDay.size() > loadedTrades) {
+        writeTrades(tradesPath, tradesByDay);
+      } else if (Files.exists(tradesPath)) {
+        Files.setLastModifiedTime(tradesPath, FileTime.fromMillis(System.currentTimeMillis()));
+      }
+      if (prunedORBData || orbDataByDay.size() > loadedORBData) {
+        writeORBData(orbPath, orbDataByDay);
+      } else if (Files.exists(orbPath)) {
+        Files.setLastModifiedTime(orbPath, FileTime.fromMillis(System.currentTimeMillis()));
+      }
+      LogUtils.info(
+          "Result cache :: days read: "
+              + loadedTrades
+              + " days stored: "
+              + tradesByDay.size()
+              + " in "
+              + tradesPath);
+      evict();
+    } catch (IOException e) {
+      LogUtils.error("Cannot write result cache " + folder + " :: " + e);
+    }
+  }
+
+  /** first and last day start asked for, empty until the first one */
+  private static AtomicLong[] getEmptyRange() {
+    return new AtomicLong[] {new AtomicLong(Long.MAX_VALUE), new AtomicLong(Long.MIN_VALUE)};
+  }
+
+  private static void touch(Set<Long> touched, AtomicLong[] range, long dayKey, long dayStart) {
+    touched.add(dayKey);
+    range[0].accumulateAndGet(dayStart, Math::min);
+    range[1].accumulateAndGet(dayStart, Math::max);
+  }
+
+  /** drops the keys of days inside the range of the run that the run did not touch */
+  private boolean prune(Map<Long, ?> valuesByDay, Set<Long> touched, AtomicLong[] range) {
+    long first = range[0].get();
+    long last = range[1].get();
+    return valuesByDay
+        .keySet()
+        .removeIf(
+            dayKey -> {
+              long dayStart = dayStarts.getOrDefault(dayKey, first);
+              return !touched.contains(dayKey) && dayStart >= first && dayStart <= last;
+            });
+  }
+
+  private void evict() throws IOException {
+    List<Path> files;
+    try (Stream<Path> stream = Files.list(folder)) {
+      files =
+          stream
+              .filter(
+                  file ->
+                      file.toString().endsWith(TRADES_EXTENSION)
+                          || file.toString().endsWith(ORB_EXTENSION))
+              .sorted(Comparator.comparing(DayResultCache::getLastModified))
+              .toList();
+    }
+    long totalBytes = 0;
+    for (Path file : files) {
+      totalBytes += Files.size(file);
+    }
+    for (Path file : files) {
+      if (totalBytes <= maxBytes) {
+        break;
+      }
+      if (file.equals(tradesPath) || file.equals(orbPath)) {
+        continue;
+      }
+      totalBytes -= Files.size(file);
+      Files.delete(file);
+      LogUtils.info("Result cache evicted :: " + file);
+    }
+  }
+
+  private static FileTime getLastModified(Path file) {
+    try {
+      return Files.getLastModifiedTime(file);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  private static void readTrades(
+      Path file, Map<Long, List<TradeData>> tradesByDay, Map<Long, Long> dayStarts) {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try (DataInputStream input =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+        return;
+      }
+      int days = input.readInt();
+      for (int day = 0; day < days; day++) {
+        long dayKey = input.readLong();
+        dayStarts.put(dayKey, input.readLong());
+        int trades = input.readInt();
+        List<TradeData> tradeDataList = new ArrayList<>(trades);
+        for (int i = 0; i < trades; i++) {
+          tradeDataList.add(readTrade(input));
+        }
+        tradesByDay.put(dayKey, tradeDataList);
+      }
+    } catch (Exception e) {
+      LogUtils.error("Cannot read result cache " + file + " :: " + e);
+      tradesByDay.clear();
+    }
+  }
+
+  private void writeTrades(Path file, Map<Long, List<TradeData>> tradesByDay) throws IOException {
+    Path temporary = createTemporary(file);
+    try (DataOutputStream output =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeInt(tradesByDay.size());
+      for (Map.Entry<Long, List<TradeData>> entry : tradesByDay.entrySet()) {
+        output.writeLong(entry.getKey());
+        output.writeLong(dayStarts.get(entry.getKey()));
+        output.writeInt(entry.getValue().size());
+        for (TradeData tradeData : entry.getValue()) {
+          writeTrade(output, tradeData);
+        }
+      }
+    }
+    Files.move(
+        temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private static TradeData readTrade(DataInputStream input) throws IOException {
+    TradeData tradeData = new TradeData();
+    tradeData.setEntry(readOrder(input));
+    tradeData.setExit(readOrder(input));
+    tradeData.setBookProfits(input.readDouble());
+    tradeData.setStopLoss(input.readDouble());
+    tradeData.setProfit(input.readDouble());
+    tradeData.setProfitPercent(input.readDouble());
+    tradeData.setMaxAdverseExcursion(input.readDouble());
+    tradeData.setMaxFavourableExcursion(input.readDouble());
+    tradeData.setQuantity(input.readInt());
+    tradeData.setCosts(input.readDouble());
+    tradeData.setStatus(TradeStatus.values()[input.readByte()]);
+    return tradeData;
+  }
+
+  private static void writeTrade(DataOutputStream output, TradeData tradeData) throws IOException {
+    writeOrder(output, tradeData.getEntry());
+    writeOrder(output, tradeData.getExit());
+    output.writeDouble(tradeData.getBookProfits());
+    output.writeDouble(tradeData.getStopLoss());
+    output.writeDouble(tradeData.getProfit());
+    output.writeDouble(tradeData.getProfitPercent());
+    output.writeDouble(tradeData.getMaxAdverseExcursion());
+    output.writeDouble(tradeData.getMaxFavourableExcursion());
+    output.writeInt(tradeData.getQuantity());
+    output.writeDouble(tradeData.getCosts());
+    output.writeByte(tradeData.getStatus().ordinal());
+  }
+
+  private static OrderData readOrder(DataInputStream input) throws IOException {
+    OrderData orderData = new OrderData();
+    orderData.setTimestamp(new Date(input.readLong()));
+    orderData.setPrice(input.readDouble());
+    orderData.setType(OrderType.values()[input.readByte()]);
+    orderData.setSignal(OrderSignal.values()[input.readByte()]);
+    return orderData;
+  }
+
+  private static void writeOrder(DataOutputStream output, OrderData orderData)
+      throws IOException {
+    output.writeLong(orderData.getTimestamp().getTime());
+    output.writeDouble(orderData.getPrice());
+    output.writeByte(orderData.getType().ordinal());
+    output.writeByte(orderData.getSignal().ordinal());
+  }
+
+  private static void readORBData(
+      Path file, Map<Long, ORBData> orbDataByDay, Map<Long, Long> dayStarts) {
+    if (!Files.exists(file)) {
+      return;
+    }
+    try (DataInputStream input =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+        return;
+      }
+      int days = input.readInt();
+      for (int day = 0; day < days; day++) {
+        long dayKey = input.readLong();
+        dayStarts.put(dayKey, input.readLong());
+        ORBData orbData = new ORBData();
+        orbData.setUpper(input.readDouble());
+        orbData.setLower(input.readDouble());
+        orbData.setStart(new Date(input.readLong()));
+        orbData.setEnd(new Date(input.readLong()));
+        orbDataByDay.put(dayKey, orbData);
+      }
+    } catch (Exception e) {
+      LogUtils.error("Cannot read result cache " + file + " :: " + e);
+      orbDataByDay.clear();
+    }
+  }
+
+  private void writeORBData(Path file, Map<Long, ORBData> orbDataByDay) throws IOException {
+    Path temporary = createTemporary(file);
+    try (DataOutputStream output =
+        new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+      output.writeInt(MAGIC);
+      output.writeInt(VERSION);
+      output.writeInt(orbDataByDay.size());
+      for (Map.Entry<Long, ORBData> entry : orbDataByDay.entrySet()) {
+        output.writeLong(entry.getKey());
+        output.writeLong(dayStarts.get(entry.getKey()));
+        output.writeDouble(entry.getValue().getUpper());
+        output.writeDouble(entry.getValue().getLower());
+        output.writeLong(entry.getValue().getStart().getTime());
+        output.writeLong(entry.getValue().getEnd().getTime());
+      }
+    }
+    Files.move(
+        temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /** a temporary file of its own, so processes closing the same cache never share one */
+  private static Path createTemporary(Path file) throws IOException {
+    return Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+  }
+
+  private static long hash(String value) {
+    long hash = FNV_OFFSET ^ VERSION;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+    }
+    return hash;
+  }
+
+  private static long mix(long hash, long value) {
+    hash = (hash ^ value) * FNV_PRIME;
+    return hash ^ (hash >>> 32);
+  }
+}
@@ -0,0 +1,159 @@
+package org.example.catalog;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import org.example.constants.ExchangeConstants;
+import org.example.exceptions.CSVParsingException;
+import org.example.models.DatasetDescriptor;
+import org.example.models.OHLCSeries;
+import org.example.utils.CSVUtils;
+import org.example.utils.DataUtils;
+import org.example.utils.LogUtils;
+
+/**
+ * Symbols found in a data directory, one csv per symbol named after it. Series are loaded the
+ * first time they are asked for and shared by every caller after that; the loaded series are kept
+ * in least recently used order and the oldest ones are dropped once their estimated size exceeds
+ * the memory budget, so a whole universe can be walked without holding every symbol in heap.
+ *
+ * <p>An optional catalog.properties in the directory overrides the timestamp format and zone,
+ * either for every file (default.format, default.zone) or per symbol (SYMBOL.format, SYMBOL.zone).
+ */
+public class DatasetCatalog {
+  public static final long DEFAULT_MEMORY_BUDGET =
+      Long.getLong("orb.catalog.maxBytes", Runtime.getRuntime().maxMemory() / 2);
+  private static final String CSV_EXTENSION = ".csv";
+  private static final String PROPERTIES_FILE = "catalog.properties";
+  private static final String DEFAULT_PREFIX = "default";
+
+  private final Map<String, DatasetDescriptor> descriptors = new TreeMap<>();
+  private final LinkedHashMap<String, OHLCSeries> loadedSeries =
+      new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<String, Object> loadLocks = new ConcurrentHashMap<>();
+  private final long memoryBudget;
+  private long loadedBytes;
+
+  public DatasetCatalog(Path directory) {
+    this(directory, DEFAULT_MEMORY_BUDGET);
+  }
+
+  public DatasetCatalog(Path directory, long memoryBudget) {
+    this.memoryBudget = memoryBudget;
+    Properties properties = readProperties(directory.resolve(PROPERTIES_FILE));
+    try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + CSV_EXTENSION)) {
+      for (Path file : files) {
+        DatasetDescriptor descriptor = describe(file, properties);
+        descriptors.put(descriptor.getSymbol(), descriptor);
+      }
+    } catch (IOException e) {
+      throw new CSVParsingException(e);
+    }
+    LogUtils.info("Dataset catalog :: " + directory + " symbols: " + descriptors.size());
+  }
+
+  private static DatasetDescriptor describe(Path file, Properties properties) throws IOException {
+    String fileName = file.getFileName().toString();
+    String symbol = fileName.substring(0, fileName.length() - CSV_EXTENSION.length());
+    DatasetDescriptor descriptor = new DatasetDescriptor();
+    descriptor.setSymbol(symbol);
+    descriptor.setPath(file);
+    CSVUtils.checkOHLCHeader(file, readHeader(file));
+    descriptor.setTimestampFormat(
+        getProperty(properties, symbol, "format", CSVUtils.FIXED_TIMESTAMP_FORMAT));
+    descriptor.setZoneId(
+        ZoneId.of(
+            getProperty(properties, symbol, "zone", ExchangeConstants.EXCHANGE_ZONE_ID.getId())));
+    return descriptor;
+  }
+
+  private static String getProperty(
+      Properties properties, String symbol, String key, String defaultValue) {
+    return properties.getProperty(
+        symbol + "." + key, properties.getProperty(DEFAULT_PREFIX + "." + key, defaultValue));
+  }
+
+  private static String readHeader(Path file) throws IOException {
+    try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      return reader.readLine();
+    }
+  }
+
+  private static Properties readProperties(Path file) {
+    Properties properties = new Properties();
+    if (Files.exists(file)) {
+      try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+        properties.load(reader);
+      } catch (IOException e) {
+        throw new CSVParsingException(e);
+      }
+    }
+    return properties;
+  }
+
+  public Set<String> getSymbols() {
+    return Collections.unmodifiableSet(descriptors.keySet());
+  }
+
+  public DatasetDescriptor getDescriptor(String symbol) {
+    DatasetDescriptor descriptor = descriptors.get(symbol);
+    if (Objects.isNull(descriptor)) {
+      throw new CSVParsingException(new IOException("unknown symbol: " + symbol));
+    }
+    return descriptor;
+  }
+
+  /**
+   * the series of the symbol, loaded on first use; concurrent callers asking for the same symbol
+   * wait for a single load
+   */
+  public OHLCSeries getSeries(String symbol) {
+    OHLCSeries series = getLoadedSeries(symbol);
+    if (Objects.nonNull(series)) {
+      return series;
+    }
+    DatasetDescriptor descriptor = getDescriptor(symbol);
+    synchronized (loadLocks.computeIfAbsent(symbol, key -> new Object())) {
+      series = getLoadedSeries(symbol);
+      if (Objects.isNull(series)) {
+        series =
+            DataUtils.readOHLCSeries(
+                descriptor.getPath(), descriptor.getTimestampFormat(), descriptor.getZoneId());
+        putLoadedSeries(symbol, series);
+      }
+      return series;
+    }
+  }
+
+  public synchronized boolean isLoaded(String symbol) {
+    return loadedSeries.containsKey(symbol);
+  }
+
+  public synchronized long getLoadedBytes() {
+    return loadedBytes;
+  }
+
+  private synchronized OHLCSeries getLoadedSeries(String symbol) {
+    return loadedSeries.get(symbol);
+  }
+
+  private synchronized void putLoadedSeries(String symbol, OHLCSeries series) {
+    loadedSeries.put(symbol, series);
+    loadedBytes += series.getEstimatedBytes();
+    Iterator<Map.Entry<String, OHLCSeries>> iterator = loadedSeries.entrySet().iterator();
+    // the series just loaded is the most recent one and is never evicted, even when over budget
+    while (loadedBytes > memoryBudget && loadedSeries.size() > 1) {
+      Map.Entry<String, OHLCSeries> eldest = iterator.next();
+      loadedBytes -= eldest.getValue().getEstimatedBytes();
+      iterator.remove();
+      LogUtils.info("Dataset evicted :: " + eldest.getKey());
+    }
+  }
+}
@@ -0,0 +1,9 @@
+package org.example.constants;
+
+import java.time.ZoneId;
+
+public class ExchangeConstants {
+  /** zone of the exchange the timestamps are in, independent of the zone of the host */
+  public static final ZoneId EXCHANGE_ZONE_ID =
+      ZoneId.of(System.getProperty("orb.zone", "Asia/Kolkata"));
+}
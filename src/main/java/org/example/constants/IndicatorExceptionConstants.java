@@ -0,0 +1,5 @@
+package org.example.constants;
+
+public class IndicatorExceptionConstants {
+  public static String PERIOD_NOT_POSITIVE = "indicator period must be positive, got ";
+}
@@ -2,4 +2,7 @@ package org.example.constants;
 
 public class TradeExceptionConstants {
   public static String TRADE_INCOMPLETE = "trade is not completed";
+  public static String TRIGGER_LEVEL_NAN = "trigger level is not a number";
+  public static String WALK_FORWARD_DAYS_NOT_POSITIVE =
+      "walk forward train and test days must be positive, got ";
 }
@@ -0,0 +1,115 @@
+package org.example.engine;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.EnumMap;
+import java.util.Map;
+import org.example.enums.Timeframe;
+import org.example.models.OHLCSeries;
+import org.example.utils.CSVUtils;
+
+/**
+ * Builds bars of a fixed timeframe from ticks or from finer bars in one streaming pass. Buckets are
+ * aligned to local midnight, so 3, 5 and 15 minute bars line up with the 09:15 open and a daily bar
+ * covers the whole session. The bar under construction is held in primitives and handed to the
+ * consumer once a later input falls into the next bucket.
+ */
+public class BarAggregator {
+  private static final long MINUTE_MILLIS = 60_000L;
+
+  private final long periodMillis;
+  private final ZoneId zoneId;
+  private final CSVUtils.OHLCRecordConsumer consumer;
+  private long dayStart = Long.MAX_VALUE;
+  private long nextDayStart = Long.MIN_VALUE;
+  private long bucketStart = Long.MIN_VALUE;
+  private long bucketEnd = Long.MIN_VALUE;
+  private double open;
+  private double high;
+  private double low;
+  private double close;
+  private boolean pending;
+
+  public BarAggregator(Timeframe timeframe, ZoneId zoneId, CSVUtils.OHLCRecordConsumer consumer) {
+    this.periodMillis = timeframe.getMinutes() * MINUTE_MILLIS;
+    this.zoneId = zoneId;
+    this.consumer = consumer;
+  }
+
+  public void onTick(long timestamp, double price) {
+    onBar(timestamp, price, price, price, price);
+  }
+
+  /** the input bar is attributed to the bucket containing its timestamp */
+  public void onBar(long timestamp, double open, double high, double low, double close) {
+    if (timestamp < bucketStart || timestamp >= bucketEnd) {
+      flush();
+      startBucket(timestamp);
+      this.open = open;
+      this.high = high;
+      this.low = low;
+      pending = true;
+    } else {
+      this.high = Math.max(this.high, high);
+      this.low = Math.min(this.low, low);
+    }
+    this.close = close;
+  }
+
+  /** emits the bar under construction, call once the input is exhausted */
+  public void flush() {
+    if (pending) {
+      consumer.accept(bucketStart, open, high, low, close);
+      pending = false;
+    }
+  }
+
+  private void startBucket(long timestamp) {
+    if (timestamp < dayStart || timestamp >= nextDayStart) {
+      LocalDate day = Instant.ofEpochMilli(timestamp).atZone(zoneId).toLocalDate();
+      dayStart = day.atStartOfDay(zoneId).toInstant().toEpochMilli();
+      nextDayStart = day.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+    }
+    bucketStart = dayStart + ((timestamp - dayStart) / periodMillis) * periodMillis;
+    bucketEnd = Math.min(bucketStart + periodMillis, nextDayStart);
+  }
+
+  /**
+   * resamples the source into every requested timeframe in a single pass. The results carry their
+   * own day index with the quality of the source days and their bar length, the ORB window and the
+   * end of day margin of the series strategies are looked up by time and work on any of them
+   */
+  public static Map<Timeframe, OHLCSeries> resample(OHLCSeries source, Timeframe... timeframes) {
+    OHLCSeries[] results = new OHLCSeries[timeframes.length];
+    BarAggregator[] aggregators = new BarAggregator[timeframes.length];
+    for (int i = 0; i < timeframes.length; i++) {
+      int capacity = Math.max(source.size() / timeframes[i].getMinutes(), source.getDayCount());
+      results[i] = new OHLCSeries(source.getZoneId(), capacity + 1);
+      aggregators[i] = new BarAggregator(timeframes[i], source.getZoneId(), results[i]::add);
+    }
+    for (int bar = 0; bar < source.size(); bar++) {
+      for (BarAggregator aggregator : aggregators) {
+        aggregator.onBar(
+            source.getTimestamp(bar),
+            source.getOpen(bar),
+            source.getHigh(bar),
+            source.getLow(bar),
+            source.getClose(bar));
+      }
+    }
+    Map<Timeframe, OHLCSeries> resampled = new EnumMap<>(Timeframe.class);
+    for (int i = 0; i < timeframes.length; i++) {
+      aggregators[i].flush();
+      results[i].trim();
+      results[i].setBarMinutes(timeframes[i].getMinutes());
+      results[i].setSkippedIssues(source.getSkippedIssues());
+      // buckets never cross local midnight, so the days of the result are the days of the source
+      for (int day = 0; day < results[i].getDayCount(); day++) {
+        results[i].getDayIndex().setDayQuality(day, source.getDayQuality(day));
+      }
+      resampled.put(timeframes[i], results[i]);
+    }
+    return resampled;
+  }
+}
@@ -0,0 +1,203 @@
+package org.example.engine;
+
+import java.util.List;
+import java.util.Objects;
+import org.example.enums.IntraBarPath;
+import org.example.enums.MetricStage;
+import org.example.enums.OrderSignal;
+import org.example.matching.TradeExitMatcher;
+import org.example.matching.TriggerListener;
+import org.example.models.OHLCData;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.ORBData;
+import org.example.models.TradeData;
+import org.example.models.TradeLog;
+import org.example.positions.ExtremeTracker;
+import org.example.utils.MetricsUtils;
+import org.example.utils.StrategyUtils;
+
+/**
+ * ORB Advanced for many parameter sets in one pass over the bars of a day, e.g. an optimizer sweep.
+ * Every set keeps its own {@link ORBTradeMachine} and trade log, and the trades are the same as
+ * running the sets one after the other through {@link
+ * StrategyUtils#appendTradesForORBAdvancedForDay}.
+ *
+ * <p>The book profits and stop loss of the open trades of every set rest in one {@link
+ * TradeExitMatcher}, so a bar only visits the sets it exits and the sets waiting for an entry.
+ * Excursions over the skipped bars are taken from an {@link ExtremeTracker} when the trade is
+ * visited again. The matcher uses the strict in between rule of {@link IntraBarPath#CLOSE}, sets
+ * executed with another intra bar path check their exits on every bar.
+ */
+public class ORBSweep {
+  private final OHLCSeries series;
+  private final List<ORBAdvancedParameters> parameterList;
+  private final List<List<ORBData>> dayWiseORBData;
+  private final List<double[]> averageTrueRanges;
+  private final ORBTradeMachine[] machines;
+  private final boolean[] matched;
+  private final int[] from;
+  private final int[] to;
+  private final int[] exit;
+  private final int[] entryBars;
+  private final int[] exitBars;
+  private final int[] handles;
+  private final int[] owners;
+  private final TradeExitMatcher matcher = new TradeExitMatcher();
+  private final ExtremeTracker extremes = new ExtremeTracker();
+  private final TriggerListener listener = this::onTrigger;
+  private final OHLCSeries.Cursor cursor;
+  private int bar;
+  private OHLCData ohlcData;
+
+  /**
+   * @param dayWiseORBData ORB of every day for each parameter set
+   * @param averageTrueRanges ATR column for each parameter set, null entries for the sets with a
+   *     stop loss from the entry candle
+   */
+  public ORBSweep(
+      OHLCSeries series,
+      List<ORBAdvancedParameters> parameterList,
+      List<List<ORBData>> dayWiseORBData,
+      List<double[]> averageTrueRanges) {
+    int count = parameterList.size();
+    this.series = series;
+    this.parameterList = parameterList;
+    this.dayWiseORBData = dayWiseORBData;
+    this.averageTrueRanges = averageTrueRanges;
+    this.machines = new ORBTradeMachine[count];
+    this.matched = new boolean[count];
+    this.from = new int[count];
+    this.to = new int[count];
+    this.exit = new int[count];
+    this.entryBars = new int[count];
+    this.exitBars = new int[count];
+    this.handles = new int[count];
+    this.owners = new int[count];
+    for (int set = 0; set < count; set++) {
+      ORBAdvancedParameters parameters = parameterList.get(set);
+      machines[set] = new ORBTradeMachine(parameters, new TradeLog());
+      matched[set] = IntraBarPath.CLOSE.equals(parameters.getExecution().getIntraBarPath());
+    }
+    this.cursor = series.cursor();
+  }
+
+  public int size() {
+    return machines.length;
+  }
+
+  public TradeLog getTradeLog(int set) {
+    return machines[set].getTradeLog();
+  }
+
+  /** appends the trades of the day to the trade log of every parameter set */
+  public void runDay(int day) {
+    if (!series.isDayUsable(day)) {
+      return;
+    }
+    long start = MetricsUtils.startStage();
+    long allocated = MetricsUtils.allocatedBytes();
+    int dayStart = series.getDayStart(day);
+    int dayEnd = series.getDayEnd(day);
+    long barsProcessed = 0;
+    for (int set = 0; set < machines.length; set++) {
+      ORBData orbData = dayWiseORBData.get(set).get(day);
+      int limit =
+          StrategyUtils.getExitOffset(series, day, parameterList.get(set).getMinutesMargin());
+      from[set] =
+          dayStart + StrategyUtils.indexOfTimestamp(series, day, orbData.getEnd().getTime()) + 1;
+      to[set] = (int) Math.min(dayEnd, (long) from[set] + limit);
+      exit[set] = dayStart + limit;
+      exitBars[set] = -1;
+      machines[set].startDay(orbData.getUpper(), orbData.getLower());
+      barsProcessed += Math.max(to[set] - from[set], 0);
+    }
+    extremes.clear();
+    for (bar = dayStart; bar <= dayEnd; bar++) {
+      for (int set = 0; set < machines.length; set++) {
+        if (to[set] == bar) {
+          finishDay(set);
+        }
+      }
+      if (bar == dayEnd) {
+        break;
+      }
+      ohlcData = cursor.moveTo(bar);
+      if (matcher.size() > 0) {
+        matcher.match(ohlcData, listener);
+      }
+      for (int set = 0; set < machines.length; set++) {
+        if (bar >= from[set] && bar < to[set] && exitBars[set] != bar) {
+          onBar(set);
+        }
+      }
+      extremes.push(bar, ohlcData.getHigh(), ohlcData.getLow());
+    }
+    MetricsUtils.addBarsProcessed(barsProcessed);
+    MetricsUtils.endStage(MetricStage.STRATEGY, start, allocated);
+  }
+
+  /** bars of sets waiting for an entry, and every bar of the sets the matcher does not serve */
+  private void onBar(int set) {
+    ORBTradeMachine machine = machines[set];
+    if (matched[set] && machine.isActive()) {
+      return;
+    }
+    double[] averageTrueRange = averageTrueRanges.get(set);
+    if (Objects.nonNull(averageTrueRange)) {
+      machine.setStopRisk(averageTrueRange[bar] * parameterList.get(set).getAtrStopMultiplier());
+    }
+    machine.onBar(
+        ohlcData.getTimestamp().getTime(),
+        ohlcData.getOpen(),
+        ohlcData.getHigh(),
+        ohlcData.getLow(),
+        ohlcData.getClose());
+    if (matched[set] && machine.isActive()) {
+      int handle = matcher.add(machine.getBookProfits(), machine.getStopLoss());
+      handles[set] = handle;
+      owners[handle] = set;
+      entryBars[set] = bar;
+    }
+  }
+
+  /** the bar has a level of the trade of the owning set inside its range, it exits the trade */
+  private void onTrigger(int handle, TradeData tradeData, OrderSignal signal) {
+    int set = owners[handle];
+    ORBTradeMachine machine = machines[set];
+    catchUp(set);
+    machine.onBar(
+        ohlcData.getTimestamp().getTime(),
+        ohlcData.getOpen(),
+        ohlcData.getHigh(),
+        ohlcData.getLow(),
+        ohlcData.getClose());
+    matcher.remove(handle);
+    exitBars[set] = bar;
+  }
+
+  /** end of day exit of a trade still open once the window of the set is over */
+  private void finishDay(int set) {
+    ORBTradeMachine machine = machines[set];
+    if (!machine.isActive()) {
+      return;
+    }
+    if (matched[set]) {
+      catchUp(set);
+      matcher.remove(handles[set]);
+    }
+    machine.exit(
+        series.getTimestamp(exit[set]),
+        series.getOpen(exit[set]),
+        series.getClose(exit[set]),
+        OrderSignal.EOD);
+  }
+
+  /** excursions over the bars after the entry that the matcher skipped */
+  private void catchUp(int set) {
+    double high = extremes.getHighSince(entryBars[set] + 1L);
+    if (!Double.isNaN(high)) {
+      machines[set].updateExcursions(extremes.getLowSince(entryBars[set] + 1L), high);
+    }
+  }
+}
@@ -0,0 +1,207 @@
+package org.example.engine;
+
+import java.util.Objects;
+import org.example.enums.LogLevel;
+import org.example.enums.OrderSignal;
+import org.example.enums.OrderType;
+import org.example.execution.ExecutionSimulator;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.TradeLog;
+import org.example.utils.LogUtils;
+import org.example.utils.MetricsUtils;
+
+/**
+ * ORB Advanced breakout and reversal state machine kept in primitive fields. It follows the same
+ * rules as {@link org.example.utils.StrategyUtils#processSingleTradeDataPoint}, but the per bar
+ * path allocates nothing: the active trade lives in this machine and completed trades are appended
+ * to a {@link TradeLog}. One machine serves one thread, call {@link #startDay} before the first bar
+ * of every day.
+ */
+public class ORBTradeMachine {
+  private final ExecutionSimulator simulator;
+  private final double riskFactor;
+  private final TradeLog tradeLog;
+
+  private double orbUpper;
+  private double orbLower;
+  private boolean hasBreakout;
+  private double breakoutValue;
+  private double stopRisk = Double.NaN;
+
+  private boolean active;
+  private long entryTimestamp;
+  private double entryPrice;
+  private OrderType entryType;
+  private OrderSignal entrySignal;
+  private int quantity;
+  private double bookProfits;
+  private double stopLoss;
+  private double maxAdverseExcursion;
+  private double maxFavourableExcursion;
+
+  public ORBTradeMachine(ORBAdvancedParameters parameters, TradeLog tradeLog) {
+    this(new ExecutionSimulator(parameters.getExecution()), parameters.getRiskFactor(), tradeLog);
+  }
+
+  public ORBTradeMachine(ExecutionSimulator simulator, double riskFactor, TradeLog tradeLog) {
+    this.simulator = simulator;
+    this.riskFactor = riskFactor;
+    this.tradeLog = tradeLog;
+  }
+
+  public TradeLog getTradeLog() {
+    return tradeLog;
+  }
+
+  /** resets the breakout state for a new day with the given ORB high and low */
+  public void startDay(double orbUpper, double orbLower) {
+    this.orbUpper = orbUpper;
+    this.orbLower = orbLower;
+    this.hasBreakout = false;
+    this.stopRisk = Double.NaN;
+    this.active = false;
+  }
+
+  /** distance of the stop loss of the next entry, NaN to take it from the entry candle */
+  public void setStopRisk(double stopRisk) {
+    this.stopRisk = stopRisk;
+  }
+
+  public boolean isActive() {
+    return active;
+  }
+
+  public double getBookProfits() {
+    return bookProfits;
+  }
+
+  public double getStopLoss() {
+    return stopLoss;
+  }
+
+  /** checks the exits of the active trade or looks for a breakout and its reversal to enter */
+  public void onBar(long timestamp, double open, double high, double low, double close) {
+    if (active) {
+      updateExcursions(low, high);
+      OrderSignal exitSignal =
+          simulator.getExitSignal(entryType, bookProfits, stopLoss, open, high, low);
+      if (Objects.nonNull(exitSignal)) {
+        exit(timestamp, open, close, exitSignal);
+      }
+    } else if (low > orbUpper) {
+      if (!hasBreakout && open > close) {
+        hasBreakout = true;
+        breakoutValue = low;
+      } else if (hasBreakout && close <= breakoutValue) {
+        enter(timestamp, high, low, close, OrderType.SHORT, OrderSignal.SHORT);
+        hasBreakout = false;
+      }
+    } else if (high < orbLower) {
+      if (!hasBreakout && open < close) {
+        hasBreakout = true;
+        breakoutValue = high;
+      } else if (hasBreakout && close >= breakoutValue) {
+        enter(timestamp, high, low, close, OrderType.LONG, OrderSignal.LONG);
+        hasBreakout = false;
+      }
+    } else {
+      hasBreakout = false;
+    }
+    if (LogUtils.isEnabled(LogLevel.DEBUG)) {
+      LogUtils.debug(() -> describe(timestamp, open, high, low, close));
+    }
+  }
+
+  /** closes the active trade on the given bar with the given signal, e.g. at the end of day */
+  public void exit(long timestamp, double open, double close, OrderSignal signal) {
+    double price = simulator.getExitPrice(entryType, bookProfits, stopLoss, open, close, signal);
+    updateExcursions(price, price);
+    double cost = simulator.getCosts(entryType, entryPrice, price);
+    double perUnit = OrderType.SHORT.equals(entryType) ? entryPrice - price : price - entryPrice;
+    double profit = perUnit * quantity - cost;
+    double profitPercent = (profit / (entryPrice * quantity)) * 100;
+    tradeLog.add(
+        entryTimestamp,
+        entryPrice,
+        entryType,
+        entrySignal,
+        timestamp,
+        price,
+        signal,
+        bookProfits,
+        stopLoss,
+        profit,
+        profitPercent,
+        quantity,
+        cost,
+        maxAdverseExcursion,
+        maxFavourableExcursion);
+    active = false;
+    MetricsUtils.recordTradeClosed(signal);
+  }
+
+  /** book profits and stop loss stay anchored to the close the decision was taken on */
+  private void enter(
+      long timestamp, double high, double low, double close, OrderType type, OrderSignal signal) {
+    boolean isShort = OrderType.SHORT.equals(type);
+    double risk = Double.isNaN(stopRisk) ? (isShort ? high - close : close - low) : stopRisk;
+    entryTimestamp = timestamp;
+    entryPrice = simulator.getEntryPrice(close, type);
+    entryType = type;
+    entrySignal = signal;
+    quantity = simulator.getQuantity();
+    bookProfits = isShort ? close - (riskFactor * risk) : close + (riskFactor * risk);
+    stopLoss = isShort ? close + risk : close - risk;
+    maxAdverseExcursion = 0;
+    maxFavourableExcursion = 0;
+    active = true;
+    MetricsUtils.recordTradeOpened(signal);
+  }
+
+  /**
+   * widens the excursions of the active trade to the given range, for callers that skip the bars
+   * which cannot exit it and hand over their range later
+   */
+  public void updateExcursions(double low, double high) {
+    boolean isShort = OrderType.SHORT.equals(entryType);
+    double adverse = isShort ? high - entryPrice : entryPrice - low;
+    double favourable = isShort ? entryPrice - low : high - entryPrice;
+    if (adverse > maxAdverseExcursion) {
+      maxAdverseExcursion = adverse;
+    }
+    if (favourable > maxFavourableExcursion) {
+      maxFavourableExcursion = favourable;
+    }
+  }
+
+  private String describe(long timestamp, double open, double high, double low, double close) {
+    StringBuilder builder =
+        new StringBuilder()
+            .append("bar: ")
+            .append(timestamp)
+            .append(' ')
+            .append(open)
+            .append(' ')
+            .append(high)
+            .append(' ')
+            .append(low)
+            .append(' ')
+            .append(close)
+            .append(" breakout: ")
+            .append(hasBreakout ? String.valueOf(breakoutValue) : "none")
+            .append(" stopRisk: ")
+            .append(stopRisk);
+    if (active) {
+      builder
+          .append(" active: ")
+          .append(entryType)
+          .append(" @ ")
+          .append(entryPrice)
+          .append(" BP: ")
+          .append(bookProfits)
+          .append(" SL: ")
+          .append(stopLoss);
+    }
+    return builder.toString();
+  }
+}
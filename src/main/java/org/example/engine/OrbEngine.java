@@ -0,0 +1,238 @@
+package org.example.engine;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Objects;
+import org.example.constants.ExchangeConstants;
+import org.example.enums.OrderSignal;
+import org.example.enums.OrderType;
+import org.example.execution.ExecutionSimulator;
+import org.example.models.OHLCData;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.ORBAdvancedStrategyData;
+import org.example.models.TradeData;
+import org.example.utils.LogUtils;
+import org.example.utils.MetricsUtils;
+import org.example.utils.StrategyUtils;
+import org.example.utils.TradeUtils;
+
+/**
+ * Event driven ORB Advanced. Bars arrive one at a time through {@link #onBar(OHLCData)}, the ORB
+ * high/low is accumulated while the opening window is open and the breakout state machine runs on
+ * every later bar, with constant work per bar. Entries and exits are reported to the listener as
+ * they happen.
+ *
+ * <p>Unlike the batch backtest, which knows the size of the day up front, the end of day exit here
+ * happens on the first bar at or after session end minus the minutes margin, and no new trade is
+ * entered after that.
+ */
+public class OrbEngine {
+  public static final int DEFAULT_SESSION_END_HOUR = 15;
+  public static final int DEFAULT_SESSION_END_MINUTE = 30;
+  private static final long MINUTE_MILLIS = 60_000L;
+
+  private final ORBAdvancedParameters parameters;
+  private final ExecutionSimulator simulator;
+  private final TradeListener listener;
+  private final ZoneId zoneId;
+  private final int orbStartMinute;
+  private final int orbEndMinute;
+  private final int exitMinute;
+
+  private final ORBAdvancedStrategyData strategyData = new ORBAdvancedStrategyData();
+  private final OHLCData lastBar = new OHLCData();
+  private long dayStart = Long.MAX_VALUE;
+  private long nextDayStart = Long.MIN_VALUE;
+  private double orbUpper;
+  private double orbLower;
+  private boolean orbStarted;
+  private boolean orbReady;
+  private boolean sessionClosed;
+  private TradeData activeTrade;
+  private int atrBars;
+  private double atrSum;
+  private double atr;
+  private double previousClose;
+
+  public OrbEngine(ORBAdvancedParameters parameters, TradeListener listener) {
+    this(parameters, listener, ExchangeConstants.EXCHANGE_ZONE_ID);
+  }
+
+  public OrbEngine(ORBAdvancedParameters parameters, TradeListener listener, ZoneId zoneId) {
+    this.parameters = parameters;
+    this.simulator = new ExecutionSimulator(parameters.getExecution());
+    this.listener = listener;
+    this.zoneId = zoneId;
+    this.orbStartMinute = parameters.getStartHour() * 60 + parameters.getStartMinute();
+    this.orbEndMinute = parameters.getEndHour() * 60 + parameters.getEndMinute();
+    this.exitMinute =
+        DEFAULT_SESSION_END_HOUR * 60 + DEFAULT_SESSION_END_MINUTE - parameters.getMinutesMargin();
+    this.lastBar.setTimestamp(new Date(0));
+  }
+
+  public void onBar(OHLCData ohlcData) {
+    if (!MetricsUtils.ENABLED) {
+      handleBar(ohlcData);
+      return;
+    }
+    long start = System.nanoTime();
+    handleBar(ohlcData);
+    MetricsUtils.recordBarLatency(System.nanoTime() - start);
+    MetricsUtils.addBarsProcessed(1);
+  }
+
+  private void handleBar(OHLCData ohlcData) {
+    long timestamp = ohlcData.getTimestamp().getTime();
+    if (timestamp < dayStart || timestamp >= nextDayStart) {
+      finish();
+      startDay(timestamp);
+    }
+    int minuteOfDay = (int) ((timestamp - dayStart) / MINUTE_MILLIS);
+    updateATR(ohlcData);
+    if (!orbReady) {
+      updateORB(ohlcData, minuteOfDay);
+    } else if (!sessionClosed) {
+      if (minuteOfDay >= exitMinute) {
+        sessionClosed = true;
+        if (Objects.nonNull(activeTrade)) {
+          exit(ohlcData, OrderSignal.EOD);
+        }
+      } else {
+        processBar(ohlcData);
+      }
+    }
+    rememberLastBar(ohlcData);
+  }
+
+  /** closes a trade still open at the end of the stream on the last bar seen */
+  public void finish() {
+    if (Objects.nonNull(activeTrade)) {
+      exit(lastBar, OrderSignal.EOD);
+    }
+  }
+
+  public boolean isORBReady() {
+    return orbReady;
+  }
+
+  public double getORBUpper() {
+    return orbUpper;
+  }
+
+  public double getORBLower() {
+    return orbLower;
+  }
+
+  private void startDay(long timestamp) {
+    LocalDate day = Instant.ofEpochMilli(timestamp).atZone(zoneId).toLocalDate();
+    dayStart = day.atStartOfDay(zoneId).toInstant().toEpochMilli();
+    nextDayStart = day.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+    orbUpper = Double.MIN_VALUE;
+    orbLower = Double.MAX_VALUE;
+    orbStarted = false;
+    orbReady = false;
+    sessionClosed = false;
+    strategyData.setBreakoutValue(null);
+  }
+
+  private void updateORB(OHLCData ohlcData, int minuteOfDay) {
+    if (minuteOfDay >= orbStartMinute && minuteOfDay <= orbEndMinute) {
+      orbUpper = Math.max(ohlcData.getHigh(), orbUpper);
+      orbLower = Math.min(ohlcData.getLow(), orbLower);
+      orbStarted = true;
+    }
+    if (minuteOfDay >= orbEndMinute) {
+      // a day whose opening window has no bars is not traded
+      orbReady = orbStarted;
+      sessionClosed = !orbStarted;
+      if (orbReady) {
+        LogUtils.debug(() -> "ORB Calculated: upper=" + orbUpper + " lower=" + orbLower);
+      }
+    }
+  }
+
+  /** Wilder's ATR over the whole stream, same definition as the batch indicator */
+  private void updateATR(OHLCData ohlcData) {
+    if (parameters.getAtrStopMultiplier() <= 0) {
+      return;
+    }
+    int period = parameters.getAtrPeriod();
+    double trueRange = ohlcData.getHigh() - ohlcData.getLow();
+    if (atrBars > 0) {
+      trueRange =
+          Math.max(
+              trueRange,
+              Math.max(
+                  Math.abs(ohlcData.getHigh() - previousClose),
+                  Math.abs(ohlcData.getLow() - previousClose)));
+    }
+    atrBars++;
+    if (atrBars <= period) {
+      atrSum += trueRange;
+      atr = atrSum / period;
+    } else {
+      atr = (atr * (period - 1) + trueRange) / period;
+    }
+    previousClose = ohlcData.getClose();
+    strategyData.setStopRisk(
+        atrBars >= period ? atr * parameters.getAtrStopMultiplier() : Double.NaN);
+  }
+
+  private void processBar(OHLCData ohlcData) {
+    if (Objects.nonNull(activeTrade)) {
+      TradeUtils.updateExcursions(activeTrade, ohlcData);
+      OrderSignal exitSignal = simulator.getExitSignal(activeTrade, ohlcData);
+      if (Objects.nonNull(exitSignal)) {
+        exit(ohlcData, exitSignal);
+      }
+      return;
+    }
+    if (StrategyUtils.isOver(ohlcData, orbUpper)) {
+      if (Objects.isNull(strategyData.getBreakoutValue()) && StrategyUtils.blackCandle(ohlcData)) {
+        strategyData.setBreakoutValue(ohlcData.getLow());
+      } else if (Objects.nonNull(strategyData.getBreakoutValue())
+          && StrategyUtils.closedUnder(ohlcData, strategyData.getBreakoutValue())) {
+        enter(ohlcData, OrderType.SHORT, OrderSignal.SHORT);
+      }
+    } else if (StrategyUtils.isUnder(ohlcData, orbLower)) {
+      if (Objects.isNull(strategyData.getBreakoutValue()) && StrategyUtils.whiteCandle(ohlcData)) {
+        strategyData.setBreakoutValue(ohlcData.getHigh());
+      } else if (Objects.nonNull(strategyData.getBreakoutValue())
+          && StrategyUtils.closedOver(ohlcData, strategyData.getBreakoutValue())) {
+        enter(ohlcData, OrderType.LONG, OrderSignal.LONG);
+      }
+    } else {
+      strategyData.setBreakoutValue(null);
+    }
+  }
+
+  private void enter(OHLCData ohlcData, OrderType type, OrderSignal signal) {
+    activeTrade =
+        TradeUtils.enterTrade(
+            ohlcData,
+            type,
+            signal,
+            parameters.getRiskFactor(),
+            strategyData.getStopRisk(),
+            simulator);
+    strategyData.setBreakoutValue(null);
+    listener.onEntry(activeTrade);
+  }
+
+  private void exit(OHLCData ohlcData, OrderSignal signal) {
+    TradeData tradeData = activeTrade;
+    activeTrade = null;
+    TradeUtils.exitTrade(ohlcData, signal, tradeData, simulator);
+    listener.onExit(tradeData);
+  }
+
+  private void rememberLastBar(OHLCData ohlcData) {
+    lastBar.getTimestamp().setTime(ohlcData.getTimestamp().getTime());
+    lastBar.setOpen(ohlcData.getOpen());
+    lastBar.setHigh(ohlcData.getHigh());
+    lastBar.setLow(ohlcData.getLow());
+    lastBar.setClose(ohlcData.getClose());
+  }
+}
@@ -0,0 +1,48 @@
+package org.example.engine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.example.models.OHLCData;
+import org.example.models.OHLCSeries;
+
+/**
+ * Feeds a loaded series bar by bar, either as fast as possible or paced against the bar timestamps
+ * so a historical file can stand in for a live feed.
+ */
+public class ReplaySource {
+  public static final double AS_FAST_AS_POSSIBLE = 0.0;
+  private static final long DEFAULT_MAX_PAUSE_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+  private final OHLCSeries series;
+  private final double speed;
+  private final long maxPauseMillis;
+
+  /**
+   * @param series bars to replay
+   * @param speed multiple of real time, e.g. 60 plays one minute bar per second, {@link
+   *     #AS_FAST_AS_POSSIBLE} does not pause at all
+   */
+  public ReplaySource(OHLCSeries series, double speed) {
+    this(series, speed, DEFAULT_MAX_PAUSE_MILLIS);
+  }
+
+  public ReplaySource(OHLCSeries series, double speed, long maxPauseMillis) {
+    this.series = series;
+    this.speed = speed;
+    this.maxPauseMillis = maxPauseMillis;
+  }
+
+  /** replays the bars on the calling thread, the bar instance is reused between calls */
+  public void replay(Consumer<OHLCData> consumer) throws InterruptedException {
+    OHLCSeries.Cursor cursor = series.cursor();
+    for (int i = 0; i < series.size(); i++) {
+      if (speed > 0 && i > 0) {
+        long pause = (long) ((series.getTimestamp(i) - series.getTimestamp(i - 1)) / speed);
+        if (pause > 0) {
+          Thread.sleep(Math.min(pause, maxPauseMillis));
+        }
+      }
+      consumer.accept(cursor.moveTo(i));
+    }
+  }
+}
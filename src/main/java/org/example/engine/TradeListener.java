@@ -0,0 +1,9 @@
+package org.example.engine;
+
+import org.example.models.TradeData;
+
+public interface TradeListener {
+  void onEntry(TradeData tradeData);
+
+  void onExit(TradeData tradeData);
+}
@@ -0,0 +1,35 @@
+package org.example.enums;
+
+/** Data problems recorded per trading day, each one a bit of the day quality bitmap. */
+public enum DataIssue {
+  /** minutes missing between the first and the last bar of the day */
+  MISSING_MINUTES,
+  /** more than one row with the same timestamp */
+  DUPLICATE_TIMESTAMPS,
+  /** rows not in ascending timestamp order */
+  OUT_OF_ORDER,
+  /** the session closed well before its regular end */
+  HALF_DAY,
+  /** the first bar comes after the regular session start, so the opening range is incomplete */
+  LATE_OPEN,
+  /** a bar far away from its neighbours that reverts on the next bar, a bad tick */
+  SPIKE,
+  /** high below low, open or close outside the range, or a non positive price */
+  INVALID_BAR;
+
+  /** bit of the issue in the day quality bitmap */
+  public int getMask() {
+    return 1 << ordinal();
+  }
+
+  /** bitmap of the named issues, e.g. "HALF_DAY,LATE_OPEN"; blank for none */
+  public static int getMask(String names) {
+    int mask = 0;
+    for (String name : names.split(",")) {
+      if (!name.isBlank()) {
+        mask |= valueOf(name.strip()).getMask();
+      }
+    }
+    return mask;
+  }
+}
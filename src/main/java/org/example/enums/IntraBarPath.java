@@ -0,0 +1,11 @@
+package org.example.enums;
+
+/** Assumed price path inside a bar, decides which of book profits and stop loss fills first. */
+public enum IntraBarPath {
+  /** book profits before stop loss, both filled at the close; the original behaviour */
+  CLOSE,
+  /** open, then high, then low, then close; levels fill at the level or at a gapping open */
+  OPEN_HIGH_LOW_CLOSE,
+  /** stop loss whenever it is touched, book profits only on bars that do not touch the stop */
+  PESSIMISTIC
+}
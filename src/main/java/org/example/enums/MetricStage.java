@@ -0,0 +1,12 @@
+package org.example.enums;
+
+/** Pipeline stages timed by the metrics. */
+public enum MetricStage {
+  LOAD,
+  PARSE,
+  VALIDATE,
+  GROUP,
+  ORB,
+  STRATEGY,
+  REPORT
+}
@@ -0,0 +1,8 @@
+package org.example.enums;
+
+public enum MonteCarloMode {
+  /** draws trades with replacement, so a trade can appear several times or not at all */
+  BOOTSTRAP,
+  /** shuffles the order of the trades, the final profit stays the same and only the path changes */
+  PERMUTATION
+}
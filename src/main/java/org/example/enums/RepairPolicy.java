@@ -0,0 +1,15 @@
+package org.example.enums;
+
+/** What the load time validation does with the data issues it finds. */
+public enum RepairPolicy {
+  /**
+   * keeps the rows as they are and only records the issues. A row older than the day being read
+   * belongs to a day already in the series and is still dropped, the series only grows forward
+   */
+  FLAG,
+  /**
+   * sorts and de-duplicates the rows of the day, fills missing minutes with flat bars at the
+   * previous close and replaces bad ticks; issues that cannot be repaired are still recorded
+   */
+  REPAIR
+}
@@ -0,0 +1,16 @@
+package org.example.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum ReportFormat {
+  CSV(".csv"),
+  JSONL(".jsonl"),
+  BINARY(".trades");
+
+  private final String extension;
+
+  ReportFormat(String extension) {
+    this.extension = extension;
+  }
+}
@@ -0,0 +1,11 @@
+package org.example.enums;
+
+/** How the fill price of an order is moved against the trader. */
+public enum SlippageModel {
+  /** fills at the reference price */
+  NONE,
+  /** fills a fixed number of points away */
+  FIXED,
+  /** fills a percentage of the reference price away */
+  PERCENT
+}
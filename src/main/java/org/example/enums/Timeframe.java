@@ -0,0 +1,18 @@
+package org.example.enums;
+
+import lombok.Getter;
+
+@Getter
+public enum Timeframe {
+  ONE_MINUTE(1),
+  THREE_MINUTES(3),
+  FIVE_MINUTES(5),
+  FIFTEEN_MINUTES(15),
+  DAILY(24 * 60);
+
+  private final int minutes;
+
+  Timeframe(int minutes) {
+    this.minutes = minutes;
+  }
+}
@@ -0,0 +1,11 @@
+package org.example.exceptions;
+
+public class JobException extends RuntimeException {
+  public JobException(String message) {
+    super(message);
+  }
+
+  public JobException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
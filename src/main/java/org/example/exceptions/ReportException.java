@@ -0,0 +1,7 @@
+package org.example.exceptions;
+
+public class ReportException extends RuntimeException {
+  public ReportException(Throwable cause) {
+    super(cause);
+  }
+}
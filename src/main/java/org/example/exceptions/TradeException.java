@@ -4,4 +4,8 @@ public class TradeException extends RuntimeException {
   public TradeException(String message) {
     super(message);
   }
+
+  public TradeException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
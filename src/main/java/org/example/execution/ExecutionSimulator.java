@@ -0,0 +1,185 @@
+package org.example.execution;
+
+import org.example.enums.IntraBarPath;
+import org.example.enums.OrderSignal;
+import org.example.enums.OrderType;
+import org.example.models.ExecutionParameters;
+import org.example.models.OHLCData;
+import org.example.models.TradeData;
+import org.example.utils.TradeUtils;
+
+/**
+ * Turns strategy decisions into fills: applies slippage, lot sizing and order costs, and decides
+ * which exit level a bar reaches first under the configured intra bar path. All inputs are
+ * resolved once in the constructor and every method works on primitives, so the simulator adds no
+ * allocation to the per bar loop.
+ */
+public class ExecutionSimulator {
+  public static final ExecutionSimulator CLOSE_FILL =
+      new ExecutionSimulator(new ExecutionParameters());
+
+  private final IntraBarPath intraBarPath;
+  private final double fixedSlippage;
+  private final double slippageRate;
+  private final int quantity;
+  private final double brokeragePerOrder;
+  private final double brokerageRate;
+  private final double transactionTaxRate;
+
+  public ExecutionSimulator(ExecutionParameters parameters) {
+    this.intraBarPath = parameters.getIntraBarPath();
+    this.fixedSlippage =
+        switch (parameters.getSlippageModel()) {
+          case FIXED -> parameters.getSlippage();
+          case NONE, PERCENT -> 0.0;
+        };
+    this.slippageRate =
+        switch (parameters.getSlippageModel()) {
+          case PERCENT -> parameters.getSlippage() / 100;
+          case NONE, FIXED -> 0.0;
+        };
+    this.quantity = Math.max(parameters.getLotSize(), 1) * Math.max(parameters.getLots(), 1);
+    this.brokeragePerOrder = parameters.getBrokeragePerOrder();
+    this.brokerageRate = parameters.getBrokeragePercent() / 100;
+    this.transactionTaxRate = parameters.getTransactionTaxPercent() / 100;
+  }
+
+  public int getQuantity() {
+    return quantity;
+  }
+
+  /** fill price of a market order at the close of the bar */
+  public double getEntryPrice(OHLCData ohlcData, OrderType type) {
+    return getEntryPrice(ohlcData.getClose(), type);
+  }
+
+  public double getEntryPrice(double close, OrderType type) {
+    return slip(close, isBuy(type));
+  }
+
+  /**
+   * exit the bar triggers for the active trade, BP or SL, or null when the trade stays open
+   */
+  public OrderSignal getExitSignal(TradeData tradeData, OHLCData ohlcData) {
+    return getExitSignal(
+        tradeData.getEntry().getType(),
+        tradeData.getBookProfits(),
+        tradeData.getStopLoss(),
+        ohlcData.getOpen(),
+        ohlcData.getHigh(),
+        ohlcData.getLow());
+  }
+
+  public OrderSignal getExitSignal(
+      OrderType entryType,
+      double bookProfits,
+      double stopLoss,
+      double open,
+      double high,
+      double low) {
+    boolean isShort = OrderType.SHORT.equals(entryType);
+    return switch (intraBarPath) {
+      case CLOSE -> getCloseExitSignal(bookProfits, stopLoss, high, low);
+      case OPEN_HIGH_LOW_CLOSE ->
+          getPathExitSignal(isShort, bookProfits, stopLoss, open, high, low);
+      case PESSIMISTIC -> getPessimisticExitSignal(isShort, bookProfits, stopLoss, high, low);
+    };
+  }
+
+  /** same strict in between checks as {@link TradeUtils#isBookProfits} and isStopLoss */
+  private static OrderSignal getCloseExitSignal(
+      double bookProfits, double stopLoss, double high, double low) {
+    if (high > bookProfits && low < bookProfits) {
+      return OrderSignal.BP;
+    } else if (high > stopLoss && low < stopLoss) {
+      return OrderSignal.SL;
+    }
+    return null;
+  }
+
+  private static OrderSignal getPathExitSignal(
+      boolean isShort, double bookProfits, double stopLoss, double open, double high, double low) {
+    if (isShort ? open >= stopLoss : open <= stopLoss) {
+      return OrderSignal.SL;
+    }
+    if (isShort ? open <= bookProfits : open >= bookProfits) {
+      return OrderSignal.BP;
+    }
+    // the high is visited before the low: it is the stop of a short and the target of a long
+    if (isShort) {
+      if (high >= stopLoss) {
+        return OrderSignal.SL;
+      }
+      return low <= bookProfits ? OrderSignal.BP : null;
+    }
+    if (high >= bookProfits) {
+      return OrderSignal.BP;
+    }
+    return low <= stopLoss ? OrderSignal.SL : null;
+  }
+
+  private static OrderSignal getPessimisticExitSignal(
+      boolean isShort, double bookProfits, double stopLoss, double high, double low) {
+    if (isShort ? high >= stopLoss : low <= stopLoss) {
+      return OrderSignal.SL;
+    }
+    if (isShort ? low <= bookProfits : high >= bookProfits) {
+      return OrderSignal.BP;
+    }
+    return null;
+  }
+
+  /**
+   * fill price of the exit, level exits fill at their level, or at the open when the bar gaps
+   * through it, other exits are market orders at the close
+   */
+  public double getExitPrice(TradeData tradeData, OHLCData ohlcData, OrderSignal signal) {
+    return getExitPrice(
+        tradeData.getEntry().getType(),
+        tradeData.getBookProfits(),
+        tradeData.getStopLoss(),
+        ohlcData.getOpen(),
+        ohlcData.getClose(),
+        signal);
+  }
+
+  public double getExitPrice(
+      OrderType entryType,
+      double bookProfits,
+      double stopLoss,
+      double open,
+      double close,
+      OrderSignal signal) {
+    boolean isShort = OrderType.SHORT.equals(entryType);
+    if (intraBarPath == IntraBarPath.CLOSE
+        || !(OrderSignal.BP.equals(signal) || OrderSignal.SL.equals(signal))) {
+      return slip(close, isShort);
+    }
+    double level = OrderSignal.BP.equals(signal) ? bookProfits : stopLoss;
+    boolean levelAbove = isShort == OrderSignal.SL.equals(signal);
+    boolean gapped = levelAbove ? open > level : open < level;
+    return slip(gapped ? open : level, isShort);
+  }
+
+  /** fill price of a level exit on a bar that opens beyond the level, at the open */
+  public double getGapExitPrice(OrderType entryType, double open) {
+    return slip(open, OrderType.SHORT.equals(entryType));
+  }
+
+  /** brokerage on both orders plus the transaction tax on the sell side, for the whole quantity */
+  public double getCosts(OrderType entryType, double entryPrice, double exitPrice) {
+    double sellPrice = OrderType.SHORT.equals(entryType) ? entryPrice : exitPrice;
+    return 2 * brokeragePerOrder
+        + brokerageRate * (entryPrice + exitPrice) * quantity
+        + transactionTaxRate * sellPrice * quantity;
+  }
+
+  private double slip(double price, boolean buy) {
+    double slippage = fixedSlippage + price * slippageRate;
+    return buy ? price + slippage : price - slippage;
+  }
+
+  private static boolean isBuy(OrderType type) {
+    return OrderType.LONG.equals(type) || OrderType.EXIT_SHORT.equals(type);
+  }
+}
@@ -0,0 +1,266 @@
+package org.example.jobs;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.function.Function;
+import org.example.enums.ReportFormat;
+import org.example.exceptions.IndicatorException;
+import org.example.exceptions.JobException;
+import org.example.models.JobDefinition;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.PositionParameters;
+import org.example.strategies.ORBAdvancedStrategy;
+import org.example.strategies.StrategyRegistry;
+import org.example.utils.DataUtils;
+import org.example.utils.LogUtils;
+import org.example.utils.StrategyUtils;
+
+/**
+ * Batch of backtests described in a properties file. The jobs key lists the job names in the
+ * order they are reported, every other key is NAME.key, or default.key for a value shared by all
+ * jobs, the same layout as catalog.properties:
+ *
+ * <pre>
+ * jobs=nifty-2015,nifty-swing
+ * default.symbol=NIFTY 50 - Minute data
+ * nifty-2015.from=2015-01-01
+ * nifty-2015.to=2015-12-31
+ * nifty-2015.riskFactor=2.5
+ * nifty-swing.strategies=orb-swing
+ * nifty-swing.maxPositions=5
+ * </pre>
+ *
+ * <p>Keys are symbol, from and to (yyyy-MM-dd, both inclusive), strategies (comma separated ids),
+ * orbStart and orbEnd (HH:mm), riskFactor, minutesMargin, atrPeriod, atrStopMultiplier,
+ * maxPositions, holdOvernight, maxHoldingDays, format and output (folder of the reports). Keys
+ * left out keep the values of a plain run, which follow the orb.* system properties; the output
+ * defaults to a folder named after the job in the output folder. The whole file is checked before
+ * anything runs, a mistake fails with a {@link JobException} naming the job and the key, as does
+ * a value out of range such as a negative minutesMargin or maxHoldingDays (0 holds without limit).
+ */
+public class JobFile {
+  private static final String JOBS_KEY = "jobs";
+  private static final String DEFAULT_PREFIX = "default";
+  private static final Set<String> KEYS =
+      Set.of(
+          "symbol",
+          "from",
+          "to",
+          "strategies",
+          "orbStart",
+          "orbEnd",
+          "riskFactor",
+          "minutesMargin",
+          "atrPeriod",
+          "atrStopMultiplier",
+          "maxPositions",
+          "holdOvernight",
+          "maxHoldingDays",
+          "format",
+          "output");
+
+  public static List<JobDefinition> read(Path file) {
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    } catch (IOException e) {
+      throw new JobException("cannot read job file " + file, e);
+    }
+    return parse(properties);
+  }
+
+  public static List<JobDefinition> parse(Properties properties) {
+    String names = properties.getProperty(JOBS_KEY, "").strip();
+    if (names.isEmpty()) {
+      throw new JobException("job file lists no jobs, set " + JOBS_KEY);
+    }
+    Set<String> seen = new HashSet<>();
+    List<JobDefinition> jobs = new ArrayList<>();
+    for (String name : names.split(",")) {
+      String job = name.strip();
+      if (job.isEmpty()
+          || job.contains(".")
+          || DEFAULT_PREFIX.equals(job)
+          || !seen.add(job)) {
+        throw new JobException("invalid or repeated job name: '" + job + "'");
+      }
+      jobs.add(parseJob(properties, job));
+    }
+    warnUnknownKeys(properties, seen);
+    return jobs;
+  }
+
+  private static JobDefinition parseJob(Properties properties, String name) {
+    ORBAdvancedParameters parameters = StrategyUtils.getDefaultORBAdvancedParameters();
+    PositionParameters positionParameters = StrategyUtils.getDefaultPositionParameters();
+    JobDefinition job = new JobDefinition();
+    job.setName(name);
+    job.setSymbol(get(properties, name, "symbol", Function.identity(), DataUtils.DEFAULT_SYMBOL));
+    job.setFrom(get(properties, name, "from", LocalDate::parse, null));
+    job.setTo(get(properties, name, "to", LocalDate::parse, null));
+    if (Objects.nonNull(job.getFrom())
+        && Objects.nonNull(job.getTo())
+        && job.getFrom().isAfter(job.getTo())) {
+      throw new JobException("job " + name + ": from is after to");
+    }
+    job.setStrategies(
+        get(
+            properties,
+            name,
+            "strategies",
+            JobFile::parseStrategies,
+            List.of(ORBAdvancedStrategy.ID)));
+    LocalTime orbStart = get(properties, name, "orbStart", LocalTime::parse, null);
+    if (Objects.nonNull(orbStart)) {
+      parameters.setStartHour(orbStart.getHour());
+      parameters.setStartMinute(orbStart.getMinute());
+    }
+    LocalTime orbEnd = get(properties, name, "orbEnd", LocalTime::parse, null);
+    if (Objects.nonNull(orbEnd)) {
+      parameters.setEndHour(orbEnd.getHour());
+      parameters.setEndMinute(orbEnd.getMinute());
+    }
+    parameters.setRiskFactor(
+        get(properties, name, "riskFactor", Double::parseDouble, parameters.getRiskFactor()));
+    parameters.setMinutesMargin(
+        get(properties, name, "minutesMargin", Integer::parseInt, parameters.getMinutesMargin()));
+    parameters.setAtrPeriod(
+        get(properties, name, "atrPeriod", Integer::parseInt, parameters.getAtrPeriod()));
+    parameters.setAtrStopMultiplier(
+        get(
+            properties,
+            name,
+            "atrStopMultiplier",
+            Double::parseDouble,
+            parameters.getAtrStopMultiplier()));
+    check(
+        Double.isFinite(parameters.getRiskFactor()) && parameters.getRiskFactor() > 0,
+        name,
+        "riskFactor",
+        parameters.getRiskFactor());
+    check(parameters.getMinutesMargin() >= 0, name, "minutesMargin", parameters.getMinutesMargin());
+    check(
+        Double.isFinite(parameters.getAtrStopMultiplier())
+            && parameters.getAtrStopMultiplier() >= 0,
+        name,
+        "atrStopMultiplier",
+        parameters.getAtrStopMultiplier());
+    try {
+      StrategyUtils.checkATRStop(parameters);
+    } catch (IndicatorException e) {
+      throw new JobException("job " + name + ": invalid atrPeriod: " + e.getMessage(), e);
+    }
+    positionParameters.setMaxPositions(
+        get(
+            properties,
+            name,
+            "maxPositions",
+            Integer::parseInt,
+            positionParameters.getMaxPositions()));
+    positionParameters.setHoldOvernight(
+        get(
+            properties,
+            name,
+            "holdOvernight",
+            JobFile::parseBoolean,
+            positionParameters.isHoldOvernight()));
+    positionParameters.setMaxHoldingDays(
+        get(
+            properties,
+            name,
+            "maxHoldingDays",
+            Integer::parseInt,
+            positionParameters.getMaxHoldingDays()));
+    check(
+        positionParameters.getMaxPositions() > 0,
+        name,
+        "maxPositions",
+        positionParameters.getMaxPositions());
+    check(
+        positionParameters.getMaxHoldingDays() >= 0,
+        name,
+        "maxHoldingDays",
+        positionParameters.getMaxHoldingDays());
+    job.setParameters(parameters);
+    job.setPositionParameters(positionParameters);
+    job.setReportFormat(
+        get(
+            properties,
+            name,
+            "format",
+            format -> ReportFormat.valueOf(format.toUpperCase(Locale.ROOT)),
+            DataUtils.DEFAULT_REPORT_FORMAT));
+    job.setOutput(
+        get(properties, name, "output", Path::of, DataUtils.getOutputPath().resolve(name)));
+    return job;
+  }
+
+  /** value of NAME.key, else of default.key, parsed, or the default value when neither is set */
+  private static <T> T get(
+      Properties properties,
+      String name,
+      String key,
+      Function<String, T> parser,
+      T defaultValue) {
+    String value =
+        properties.getProperty(
+            name + "." + key, properties.getProperty(DEFAULT_PREFIX + "." + key));
+    if (Objects.isNull(value) || value.isBlank()) {
+      return defaultValue;
+    }
+    try {
+      return parser.apply(value.strip());
+    } catch (IllegalArgumentException | DateTimeParseException e) {
+      throw new JobException("job " + name + ": invalid " + key + ": " + value, e);
+    }
+  }
+
+  /** a value that parsed but is out of range, e.g. a negative margin */
+  private static void check(boolean valid, String name, String key, Object value) {
+    if (!valid) {
+      throw new JobException("job " + name + ": invalid " + key + ": " + value);
+    }
+  }
+
+  private static List<String> parseStrategies(String value) {
+    List<String> strategies = new ArrayList<>();
+    for (String id : value.split(",")) {
+      String strategy = id.strip();
+      if (!StrategyRegistry.getIds().contains(strategy) || strategies.contains(strategy)) {
+        throw new IllegalArgumentException("unknown or repeated strategy " + strategy);
+      }
+      strategies.add(strategy);
+    }
+    return List.copyOf(strategies);
+  }
+
+  private static boolean parseBoolean(String value) {
+    if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+      throw new IllegalArgumentException(value);
+    }
+    return Boolean.parseBoolean(value);
+  }
+
+  /** a misspelt key would silently fall back to the default, so it is reported */
+  private static void warnUnknownKeys(Properties properties, Set<String> jobs) {
+    for (String key : properties.stringPropertyNames()) {
+      int dot = key.indexOf('.');
+      String prefix = dot < 0 ? key : key.substring(0, dot);
+      boolean known =
+          JOBS_KEY.equals(key)
+              || (dot > 0
+                  && (jobs.contains(prefix) || DEFAULT_PREFIX.equals(prefix))
+                  && KEYS.contains(key.substring(dot + 1)));
+      if (!known) {
+        LogUtils.warn("Job file :: unknown key " + key);
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package org.example.jobs;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.example.exceptions.JobException;
+import org.example.models.JobDefinition;
+import org.example.models.JobResult;
+import org.example.models.OHLCSeries;
+import org.example.models.TradeData;
+import org.example.strategies.BacktestRunner;
+import org.example.strategies.Strategy;
+import org.example.strategies.StrategyRegistry;
+import org.example.utils.DataUtils;
+import org.example.utils.LogUtils;
+
+/**
+ * Runs the jobs of a batch in one JVM, so the JIT warms up once and every symbol is loaded once
+ * through the dataset catalog no matter how many jobs use it. Each job is one pass of the {@link
+ * BacktestRunner} over its date range and writes one report per strategy into its output folder.
+ * A failing job is logged and reported in its {@link JobResult}, the others still run.
+ */
+public class JobRunner {
+
+  /** runs the jobs, up to threads of them at once, results are in the order of the jobs */
+  public static List<JobResult> run(List<JobDefinition> jobs, int threads) {
+    if (threads <= 1) {
+      return jobs.stream().map(JobRunner::run).toList();
+    }
+    ForkJoinPool pool = new ForkJoinPool(threads);
+    try {
+      return pool.submit(() -> jobs.parallelStream().map(JobRunner::run).toList()).get();
+    } catch (ExecutionException e) {
+      throw new JobException(e.getCause().getMessage(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new JobException(e.getMessage(), e);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  public static JobResult run(JobDefinition job) {
+    long start = System.nanoTime();
+    JobResult result = new JobResult();
+    result.setName(job.getName());
+    try {
+      OHLCSeries series =
+          selectDays(DataUtils.readOHLCSeries(job.getSymbol()), job.getFrom(), job.getTo());
+      if (series.getDayCount() == 0) {
+        throw new JobException("no data for " + job.getSymbol() + " in the date range");
+      }
+      List<Strategy> strategies =
+          job.getStrategies().stream()
+              .map(
+                  id ->
+                      StrategyRegistry.create(
+                          id, job.getParameters(), job.getPositionParameters()))
+              .toList();
+      Map<String, List<TradeData>> trades = BacktestRunner.run(series, strategies);
+      Files.createDirectories(job.getOutput());
+      for (Map.Entry<String, List<TradeData>> entry : trades.entrySet()) {
+        DataUtils.writeTradeData(
+            entry.getValue(),
+            DataUtils.getTradeReportPath(job.getOutput(), entry.getKey(), job.getReportFormat()),
+            job.getReportFormat());
+        result.setTotalTrades(result.getTotalTrades() + entry.getValue().size());
+        for (TradeData tradeData : entry.getValue()) {
+          result.setProfit(result.getProfit() + tradeData.getProfit());
+        }
+      }
+      result.setSucceeded(true);
+    } catch (IOException | RuntimeException e) {
+      result.setError(String.valueOf(e));
+      LogUtils.error(
+          "Job failed :: " + job.getName() + " " + e + " " + Arrays.toString(e.getStackTrace()));
+    }
+    result.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    LogUtils.info(() -> "Job :: " + describe(result));
+    return result;
+  }
+
+  /** one line summary of a job result */
+  public static String describe(JobResult result) {
+    return result.getName()
+        + (result.isSucceeded() ? " succeeded" : " failed: " + result.getError())
+        + " trades: "
+        + result.getTotalTrades()
+        + " profit: "
+        + result.getProfit()
+        + " time: "
+        + result.getElapsedMillis()
+        + " ms";
+  }
+
+  /** the days of the series from the first to the last date, both inclusive and optional */
+  private static OHLCSeries selectDays(OHLCSeries series, LocalDate from, LocalDate to) {
+    ZoneId zoneId = series.getZoneId();
+    long fromTimestamp =
+        Objects.isNull(from)
+            ? Long.MIN_VALUE
+            : from.atStartOfDay(zoneId).toInstant().toEpochMilli();
+    long toTimestamp =
+        Objects.isNull(to)
+            ? Long.MAX_VALUE
+            : to.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+    int fromDay = 0;
+    while (fromDay < series.getDayCount()
+        && series.getDayStartTimestamp(fromDay) < fromTimestamp) {
+      fromDay++;
+    }
+    int toDay = fromDay;
+    while (toDay < series.getDayCount() && series.getDayStartTimestamp(toDay) < toTimestamp) {
+      toDay++;
+    }
+    return series.subSeries(fromDay, toDay);
+  }
+}
@@ -0,0 +1,150 @@
+package org.example.matching;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import org.example.enums.OrderSignal;
+import org.example.models.OHLCData;
+import org.example.models.TradeData;
+import org.example.utils.StrategyUtils;
+import org.example.utils.TradeUtils;
+
+/**
+ * Book profits and stop loss checks for a basket of resting trades that share one bar stream. The
+ * two levels of every registered trade are orders in a {@link TriggerBook}, so a bar visits only
+ * the trades with a level inside its range instead of calling {@link TradeUtils#isBookProfits}
+ * and {@link TradeUtils#isStopLoss} on each of them. The result is the same as those calls: a
+ * level has to be strictly between the low and the high, book profits wins over stop loss, and
+ * the trades are reported in the order they were added. Levels can also be added as plain
+ * doubles by callers that keep the state of a trade elsewhere.
+ */
+public class TradeExitMatcher {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private final TriggerBook book = new TriggerBook();
+  private final IntConsumer collector = this::collect;
+
+  private TradeData[] trades = new TradeData[DEFAULT_CAPACITY];
+  private boolean[] active = new boolean[DEFAULT_CAPACITY];
+  private double[] bookProfits = new double[DEFAULT_CAPACITY];
+  private int[] bookProfitOrders = new int[DEFAULT_CAPACITY];
+  private int[] stopLossOrders = new int[DEFAULT_CAPACITY];
+  private long[] sequences = new long[DEFAULT_CAPACITY];
+  private long[] marks = new long[DEFAULT_CAPACITY];
+  private int[] freeHandles = new int[DEFAULT_CAPACITY];
+  private int[] triggered = new int[DEFAULT_CAPACITY];
+  private int freeCount;
+  private int handleCount;
+  private int size;
+  private int triggeredCount;
+  private long sequence;
+  private long mark;
+
+  public int size() {
+    return size;
+  }
+
+  /** registers an active trade at its current levels and returns its handle */
+  public int add(TradeData tradeData) {
+    int handle = add(tradeData.getBookProfits(), tradeData.getStopLoss());
+    trades[handle] = tradeData;
+    return handle;
+  }
+
+  /** registers the levels of a trade without a bean, the listener is handed a null trade */
+  public int add(double bookProfits, double stopLoss) {
+    int handle = allocate();
+    active[handle] = true;
+    sequences[handle] = sequence++;
+    this.bookProfits[handle] = bookProfits;
+    bookProfitOrders[handle] = book.add(bookProfits, handle);
+    stopLossOrders[handle] = book.add(stopLoss, handle);
+    size++;
+    return handle;
+  }
+
+  /** picks up book profits or stop loss changed on the trade since it was added */
+  public void update(int handle) {
+    TradeData tradeData = trades[handle];
+    update(handle, tradeData.getBookProfits(), tradeData.getStopLoss());
+  }
+
+  public void update(int handle, double bookProfits, double stopLoss) {
+    book.remove(bookProfitOrders[handle]);
+    book.remove(stopLossOrders[handle]);
+    this.bookProfits[handle] = bookProfits;
+    bookProfitOrders[handle] = book.add(bookProfits, handle);
+    stopLossOrders[handle] = book.add(stopLoss, handle);
+  }
+
+  public void remove(int handle) {
+    if (!active[handle]) {
+      return;
+    }
+    book.remove(bookProfitOrders[handle]);
+    book.remove(stopLossOrders[handle]);
+    trades[handle] = null;
+    active[handle] = false;
+    freeHandles[freeCount++] = handle;
+    size--;
+  }
+
+  /** reports every registered trade the bar exits, the listener may remove trades */
+  public void match(OHLCData ohlcData, TriggerListener listener) {
+    mark++;
+    triggeredCount = 0;
+    long firstAdded = sequence;
+    book.forEachBetween(ohlcData.getLow(), ohlcData.getHigh(), false, collector);
+    sortBySequence();
+    for (int i = 0; i < triggeredCount; i++) {
+      int handle = triggered[i];
+      // skips trades removed by the listener, or added by it into a recycled handle
+      if (active[handle] && sequences[handle] < firstAdded) {
+        OrderSignal signal =
+            StrategyUtils.isValueInBetween(bookProfits[handle], ohlcData)
+                ? OrderSignal.BP
+                : OrderSignal.SL;
+        listener.onTrigger(handle, trades[handle], signal);
+      }
+    }
+  }
+
+  private void collect(int order) {
+    int handle = book.getOwner(order);
+    if (marks[handle] != mark) {
+      marks[handle] = mark;
+      triggered[triggeredCount++] = handle;
+    }
+  }
+
+  /** insertion sort by the order the trades were added, a bar triggers only a few */
+  private void sortBySequence() {
+    for (int i = 1; i < triggeredCount; i++) {
+      int handle = triggered[i];
+      int j = i - 1;
+      while (j >= 0 && sequences[triggered[j]] > sequences[handle]) {
+        triggered[j + 1] = triggered[j];
+        j--;
+      }
+      triggered[j + 1] = handle;
+    }
+  }
+
+  private int allocate() {
+    if (freeCount > 0) {
+      return freeHandles[--freeCount];
+    }
+    if (handleCount == trades.length) {
+      int capacity = trades.length * 2;
+      trades = Arrays.copyOf(trades, capacity);
+      active = Arrays.copyOf(active, capacity);
+      bookProfits = Arrays.copyOf(bookProfits, capacity);
+      bookProfitOrders = Arrays.copyOf(bookProfitOrders, capacity);
+      stopLossOrders = Arrays.copyOf(stopLossOrders, capacity);
+      sequences = Arrays.copyOf(sequences, capacity);
+      marks = Arrays.copyOf(marks, capacity);
+      freeHandles = Arrays.copyOf(freeHandles, capacity);
+      triggered = Arrays.copyOf(triggered, capacity);
+    }
+    return handleCount++;
+  }
+}
@@ -0,0 +1,163 @@
+package org.example.matching;
+
+import static org.example.constants.TradeExceptionConstants.TRIGGER_LEVEL_NAN;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+import org.example.exceptions.TradeException;
+
+/**
+ * Pending trigger levels sorted by price in a skip list laid out over primitive arrays. An order is
+ * a level and the int of its owner; adding and removing one is O(log n) expected, and the orders
+ * with a level inside a price range are found in O(log n + k) without looking at any other order.
+ * Orders of the same level are kept in the order of their ids. Removed orders are recycled, so a
+ * steady book allocates nothing.
+ */
+public class TriggerBook {
+  private static final int DEFAULT_CAPACITY = 64;
+  private static final int MAX_HEIGHT = 24;
+  private static final int HEAD = 0;
+  private static final int NIL = -1;
+
+  private double[] levels;
+  private int[] owners;
+  private byte[] heights;
+  private int[] next;
+  private int[] freeOrders;
+  private int freeCount;
+  private int nodeCount = 1;
+  private int size;
+  private int height = 1;
+  private long seed = 0x9E3779B97F4A7C15L;
+  private final int[] predecessors = new int[MAX_HEIGHT];
+
+  public TriggerBook() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public TriggerBook(int capacity) {
+    int nodes = Math.max(capacity, 1) + 1;
+    levels = new double[nodes];
+    owners = new int[nodes];
+    heights = new byte[nodes];
+    next = new int[nodes * MAX_HEIGHT];
+    freeOrders = new int[nodes];
+    heights[HEAD] = MAX_HEIGHT;
+    Arrays.fill(next, 0, MAX_HEIGHT, NIL);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isPending(int order) {
+    return order > HEAD && order < nodeCount && heights[order] > 0;
+  }
+
+  public double getLevel(int order) {
+    return levels[order];
+  }
+
+  public int getOwner(int order) {
+    return owners[order];
+  }
+
+  /** adds an order at the level and returns its id, valid until the order is removed */
+  public int add(double level, int owner) {
+    if (Double.isNaN(level)) {
+      throw new TradeException(TRIGGER_LEVEL_NAN);
+    }
+    int order = allocate();
+    int orderHeight = randomHeight();
+    levels[order] = level;
+    owners[order] = owner;
+    heights[order] = (byte) orderHeight;
+    findPredecessors(level, order);
+    for (int i = height; i < orderHeight; i++) {
+      predecessors[i] = HEAD;
+    }
+    height = Math.max(height, orderHeight);
+    for (int i = 0; i < orderHeight; i++) {
+      next[order * MAX_HEIGHT + i] = next[predecessors[i] * MAX_HEIGHT + i];
+      next[predecessors[i] * MAX_HEIGHT + i] = order;
+    }
+    size++;
+    return order;
+  }
+
+  /** removes a pending order, removing an order twice has no effect */
+  public void remove(int order) {
+    if (!isPending(order)) {
+      return;
+    }
+    findPredecessors(levels[order], order);
+    for (int i = 0; i < heights[order]; i++) {
+      int link = predecessors[i] * MAX_HEIGHT + i;
+      if (next[link] == order) {
+        next[link] = next[order * MAX_HEIGHT + i];
+      }
+    }
+    while (height > 1 && next[HEAD * MAX_HEIGHT + height - 1] == NIL) {
+      height--;
+    }
+    heights[order] = 0;
+    freeOrders[freeCount++] = order;
+    size--;
+  }
+
+  /**
+   * visits the orders with a level strictly between low and high, or between them inclusive, in
+   * ascending level order. The visitor must not change the book, collect the orders instead.
+   */
+  public void forEachBetween(double low, double high, boolean inclusive, IntConsumer visitor) {
+    int node = HEAD;
+    for (int i = height - 1; i >= 0; i--) {
+      int following;
+      while ((following = next[node * MAX_HEIGHT + i]) != NIL
+          && (inclusive ? levels[following] < low : levels[following] <= low)) {
+        node = following;
+      }
+    }
+    node = next[node * MAX_HEIGHT];
+    while (node != NIL && (inclusive ? levels[node] <= high : levels[node] < high)) {
+      visitor.accept(node);
+      node = next[node * MAX_HEIGHT];
+    }
+  }
+
+  /** last node at every height that sorts before the given level and order */
+  private void findPredecessors(double level, int order) {
+    int node = HEAD;
+    for (int i = height - 1; i >= 0; i--) {
+      int following;
+      while ((following = next[node * MAX_HEIGHT + i]) != NIL
+          && (levels[following] < level || (levels[following] == level && following < order))) {
+        node = following;
+      }
+      predecessors[i] = node;
+    }
+  }
+
+  private int allocate() {
+    if (freeCount > 0) {
+      return freeOrders[--freeCount];
+    }
+    if (nodeCount == levels.length) {
+      int capacity = levels.length * 2;
+      levels = Arrays.copyOf(levels, capacity);
+      owners = Arrays.copyOf(owners, capacity);
+      heights = Arrays.copyOf(heights, capacity);
+      next = Arrays.copyOf(next, capacity * MAX_HEIGHT);
+      freeOrders = Arrays.copyOf(freeOrders, capacity);
+    }
+    return nodeCount++;
+  }
+
+  /** geometric height with p = 1/2 from a xorshift generator, fixed seed for repeatable runs */
+  private int randomHeight() {
+    seed ^= seed << 13;
+    seed ^= seed >>> 7;
+    seed ^= seed << 17;
+    return Math.min(Long.numberOfTrailingZeros(seed) + 1, MAX_HEIGHT);
+  }
+}
@@ -0,0 +1,12 @@
+package org.example.matching;
+
+import org.example.enums.OrderSignal;
+import org.example.models.TradeData;
+
+public interface TriggerListener {
+  /**
+   * @param handle handle of the trade in the matcher, it may be removed during the call
+   * @param tradeData the registered trade, null when only its levels were added
+   */
+  void onTrigger(int handle, TradeData tradeData, OrderSignal signal);
+}
@@ -0,0 +1,14 @@
+package org.example.models;
+
+import java.nio.file.Path;
+import java.time.ZoneId;
+import lombok.Data;
+
+/** Where a symbol's bars live and how to read them. */
+@Data
+public class DatasetDescriptor {
+  private String symbol;
+  private Path path;
+  private String timestampFormat;
+  private ZoneId zoneId;
+}
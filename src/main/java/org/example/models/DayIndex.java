@@ -0,0 +1,112 @@
+package org.example.models;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * Ordered trading day index over a time sorted bar sequence: day start (local midnight, epoch
+ * millis) to the [start, end) offsets of the bars of that day. Built in a single pass, the day
+ * boundaries are only recomputed when a bar crosses the current one, so appending a bar allocates
+ * nothing. Every day also carries a quality byte, the bitmap of the {@link
+ * org.example.enums.DataIssue}s found in it at load time.
+ */
+public class DayIndex {
+  private static final int DEFAULT_DAY_CAPACITY = 1 << 8;
+
+  private final ZoneId zoneId;
+  private long[] dayStartTimestamps;
+  private int[] dayOffsets;
+  private byte[] dayQuality;
+  private int dayCount;
+  private int size;
+  private long currentDayStart = Long.MAX_VALUE;
+  private long nextDayStart = Long.MIN_VALUE;
+
+  public DayIndex(ZoneId zoneId) {
+    this.zoneId = zoneId;
+    this.dayStartTimestamps = new long[DEFAULT_DAY_CAPACITY];
+    this.dayOffsets = new int[DEFAULT_DAY_CAPACITY + 1];
+    this.dayQuality = new byte[DEFAULT_DAY_CAPACITY];
+  }
+
+  public DayIndex(ZoneId zoneId, long[] dayStartTimestamps, int[] dayOffsets) {
+    this(zoneId, dayStartTimestamps, dayOffsets, new byte[dayStartTimestamps.length]);
+  }
+
+  public DayIndex(ZoneId zoneId, long[] dayStartTimestamps, int[] dayOffsets, byte[] dayQuality) {
+    this.zoneId = zoneId;
+    this.dayStartTimestamps = dayStartTimestamps;
+    this.dayOffsets = dayOffsets;
+    this.dayQuality = dayQuality;
+    this.dayCount = dayStartTimestamps.length;
+    this.size = dayOffsets[dayCount];
+  }
+
+  /** registers the timestamp of the next bar, bars are expected in ascending timestamp order */
+  public void add(long timestamp) {
+    if (timestamp < currentDayStart || timestamp >= nextDayStart) {
+      startDay(timestamp);
+    }
+    size++;
+    dayOffsets[dayCount] = size;
+  }
+
+  private void startDay(long timestamp) {
+    LocalDate day = Instant.ofEpochMilli(timestamp).atZone(zoneId).toLocalDate();
+    currentDayStart = day.atStartOfDay(zoneId).toInstant().toEpochMilli();
+    nextDayStart = day.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+    if (dayCount == dayStartTimestamps.length) {
+      dayStartTimestamps = Arrays.copyOf(dayStartTimestamps, dayCount * 2);
+      dayOffsets = Arrays.copyOf(dayOffsets, dayCount * 2 + 1);
+      dayQuality = Arrays.copyOf(dayQuality, dayCount * 2);
+    }
+    dayStartTimestamps[dayCount] = currentDayStart;
+    dayOffsets[dayCount] = size;
+    dayCount++;
+    dayOffsets[dayCount] = size;
+  }
+
+  public void trim() {
+    dayStartTimestamps = Arrays.copyOf(dayStartTimestamps, dayCount);
+    dayOffsets = Arrays.copyOf(dayOffsets, dayCount + 1);
+    dayQuality = Arrays.copyOf(dayQuality, dayCount);
+  }
+
+  public ZoneId getZoneId() {
+    return zoneId;
+  }
+
+  public int getDayCount() {
+    return dayCount;
+  }
+
+  /** epoch millis of the local midnight the day starts at */
+  public long getDayStartTimestamp(int day) {
+    return dayStartTimestamps[day];
+  }
+
+  /** index of the first bar of the day */
+  public int getDayStart(int day) {
+    return dayOffsets[day];
+  }
+
+  /** index after the last bar of the day */
+  public int getDayEnd(int day) {
+    return dayOffsets[day + 1];
+  }
+
+  public int getDaySize(int day) {
+    return dayOffsets[day + 1] - dayOffsets[day];
+  }
+
+  /** bitmap of the data issues of the day, 0 for a clean day */
+  public int getDayQuality(int day) {
+    return dayQuality[day] & 0xFF;
+  }
+
+  public void setDayQuality(int day, int quality) {
+    dayQuality[day] = (byte) quality;
+  }
+}
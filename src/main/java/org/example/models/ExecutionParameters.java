@@ -0,0 +1,18 @@
+package org.example.models;
+
+import lombok.Data;
+import org.example.enums.IntraBarPath;
+import org.example.enums.SlippageModel;
+
+/** Defaults reproduce the original fills: at the close, one unit, no slippage and no costs. */
+@Data
+public class ExecutionParameters {
+  private IntraBarPath intraBarPath = IntraBarPath.CLOSE;
+  private SlippageModel slippageModel = SlippageModel.NONE;
+  private double slippage;
+  private int lotSize = 1;
+  private int lots = 1;
+  private double brokeragePerOrder;
+  private double brokeragePercent;
+  private double transactionTaxPercent;
+}
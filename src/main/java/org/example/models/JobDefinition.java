@@ -0,0 +1,23 @@
+package org.example.models;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.Data;
+import org.example.enums.ReportFormat;
+
+/** One backtest of a batch: a symbol over a date range, the strategies and their parameters. */
+@Data
+public class JobDefinition {
+  private String name;
+  private String symbol;
+  /** first day of the range, null for the first day of the series */
+  private LocalDate from;
+  /** last day of the range, inclusive, null for the last day of the series */
+  private LocalDate to;
+  private List<String> strategies;
+  private ORBAdvancedParameters parameters;
+  private PositionParameters positionParameters;
+  private ReportFormat reportFormat;
+  private Path output;
+}
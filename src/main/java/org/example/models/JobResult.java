@@ -0,0 +1,14 @@
+package org.example.models;
+
+import lombok.Data;
+
+@Data
+public class JobResult {
+  private String name;
+  private boolean succeeded;
+  private int totalTrades;
+  private double profit;
+  private long elapsedMillis;
+  /** why the job failed, null when it succeeded */
+  private String error;
+}
@@ -0,0 +1,14 @@
+package org.example.models;
+
+import lombok.Data;
+import org.example.enums.MonteCarloMode;
+
+/** Distributions are sorted ascending, one value per iteration. */
+@Data
+public class MonteCarloResult {
+  private MonteCarloMode mode;
+  private int iterations;
+  private double[] finalProfits;
+  private double[] maxDrawdowns;
+  private double probabilityOfLoss;
+}
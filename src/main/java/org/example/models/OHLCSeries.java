@@ -0,0 +1,289 @@
+package org.example.models;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.example.constants.ExchangeConstants;
+
+/**
+ * Column store for a time sorted OHLC series. Bars live in primitive arrays and are grouped into
+ * trading days by a {@link DayIndex} that is maintained while bars are appended.
+ */
+public class OHLCSeries {
+  private static final int DEFAULT_CAPACITY = 1 << 16;
+
+  private final DayIndex dayIndex;
+  private long[] timestamps;
+  private double[] open;
+  private double[] high;
+  private double[] low;
+  private double[] close;
+  private int size;
+  private int skippedIssues;
+  private int barMinutes = 1;
+
+  public OHLCSeries() {
+    this(ExchangeConstants.EXCHANGE_ZONE_ID);
+  }
+
+  public OHLCSeries(ZoneId zoneId) {
+    this(zoneId, DEFAULT_CAPACITY);
+  }
+
+  public OHLCSeries(ZoneId zoneId, int capacity) {
+    this.dayIndex = new DayIndex(zoneId);
+    int initialCapacity = Math.max(capacity, 1);
+    this.timestamps = new long[initialCapacity];
+    this.open = new double[initialCapacity];
+    this.high = new double[initialCapacity];
+    this.low = new double[initialCapacity];
+    this.close = new double[initialCapacity];
+  }
+
+  /** wraps already indexed columns, e.g. the ones restored from the binary cache */
+  public OHLCSeries(
+      DayIndex dayIndex,
+      long[] timestamps,
+      double[] open,
+      double[] high,
+      double[] low,
+      double[] close) {
+    this.dayIndex = dayIndex;
+    this.timestamps = timestamps;
+    this.open = open;
+    this.high = high;
+    this.low = low;
+    this.close = close;
+    this.size = timestamps.length;
+  }
+
+  /** appends a bar, bars are expected in ascending timestamp order */
+  public void add(long timestamp, double open, double high, double low, double close) {
+    if (size == timestamps.length) {
+      grow();
+    }
+    dayIndex.add(timestamp);
+    this.timestamps[size] = timestamp;
+    this.open[size] = open;
+    this.high[size] = high;
+    this.low[size] = low;
+    this.close[size] = close;
+    size++;
+  }
+
+  private void grow() {
+    int capacity = timestamps.length * 2;
+    timestamps = Arrays.copyOf(timestamps, capacity);
+    open = Arrays.copyOf(open, capacity);
+    high = Arrays.copyOf(high, capacity);
+    low = Arrays.copyOf(low, capacity);
+    close = Arrays.copyOf(close, capacity);
+  }
+
+  /** releases the spare capacity once loading is done */
+  public void trim() {
+    timestamps = Arrays.copyOf(timestamps, size);
+    open = Arrays.copyOf(open, size);
+    high = Arrays.copyOf(high, size);
+    low = Arrays.copyOf(low, size);
+    close = Arrays.copyOf(close, size);
+    dayIndex.trim();
+  }
+
+  public ZoneId getZoneId() {
+    return dayIndex.getZoneId();
+  }
+
+  public DayIndex getDayIndex() {
+    return dayIndex;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long getTimestamp(int index) {
+    return timestamps[index];
+  }
+
+  public double getOpen(int index) {
+    return open[index];
+  }
+
+  public double getHigh(int index) {
+    return high[index];
+  }
+
+  public double getLow(int index) {
+    return low[index];
+  }
+
+  public double getClose(int index) {
+    return close[index];
+  }
+
+  /**
+   * backing columns for bulk numeric work, only the first {@link #size()} entries are bars and the
+   * arrays must not be modified
+   */
+  public long[] getTimestampColumn() {
+    return timestamps;
+  }
+
+  public double[] getOpenColumn() {
+    return open;
+  }
+
+  public double[] getHighColumn() {
+    return high;
+  }
+
+  public double[] getLowColumn() {
+    return low;
+  }
+
+  public double[] getCloseColumn() {
+    return close;
+  }
+
+  public int getDayCount() {
+    return dayIndex.getDayCount();
+  }
+
+  /** approximate heap held by the columns and the day index, in bytes */
+  public long getEstimatedBytes() {
+    return (long) timestamps.length * (Long.BYTES + 4 * Double.BYTES)
+        + (long) getDayCount() * (Long.BYTES + Integer.BYTES + 1);
+  }
+
+  /** epoch millis of the local midnight the day starts at */
+  public long getDayStartTimestamp(int day) {
+    return dayIndex.getDayStartTimestamp(day);
+  }
+
+  /** index of the first bar of the day */
+  public int getDayStart(int day) {
+    return dayIndex.getDayStart(day);
+  }
+
+  /** index after the last bar of the day */
+  public int getDayEnd(int day) {
+    return dayIndex.getDayEnd(day);
+  }
+
+  public int getDaySize(int day) {
+    return dayIndex.getDaySize(day);
+  }
+
+  /** bitmap of the {@link org.example.enums.DataIssue}s found in the day at load time */
+  public int getDayQuality(int day) {
+    return dayIndex.getDayQuality(day);
+  }
+
+  public int getSkippedIssues() {
+    return skippedIssues;
+  }
+
+  /** issues that make a day unusable, see {@link #isDayUsable(int)} */
+  public void setSkippedIssues(int skippedIssues) {
+    this.skippedIssues = skippedIssues;
+  }
+
+  /** length of one bar, the source data is minute bars and resampled series are coarser */
+  public int getBarMinutes() {
+    return barMinutes;
+  }
+
+  public void setBarMinutes(int barMinutes) {
+    this.barMinutes = barMinutes;
+  }
+
+  /**
+   * the days [fromDay, toDay) with their quality as a series of their own, the series itself when
+   * the range covers every day
+   */
+  public OHLCSeries subSeries(int fromDay, int toDay) {
+    if (fromDay <= 0 && toDay >= getDayCount()) {
+      return this;
+    }
+    int from = fromDay < toDay ? getDayStart(fromDay) : 0;
+    int to = fromDay < toDay ? getDayEnd(toDay - 1) : 0;
+    OHLCSeries subSeries = new OHLCSeries(getZoneId(), to - from);
+    for (int i = from; i < to; i++) {
+      subSeries.add(timestamps[i], open[i], high[i], low[i], close[i]);
+    }
+    for (int day = fromDay; day < toDay; day++) {
+      subSeries.getDayIndex().setDayQuality(day - fromDay, getDayQuality(day));
+    }
+    subSeries.trim();
+    subSeries.setSkippedIssues(skippedIssues);
+    subSeries.setBarMinutes(barMinutes);
+    return subSeries;
+  }
+
+  /** false when the day has any of the skipped issues, backtests produce no trades for it */
+  public boolean isDayUsable(int day) {
+    return (dayIndex.getDayQuality(day) & skippedIssues) == 0;
+  }
+
+  public OHLCData toOHLCData(int index) {
+    OHLCData ohlcData = new OHLCData();
+    ohlcData.setTimestamp(new Date(timestamps[index]));
+    ohlcData.setOpen(open[index]);
+    ohlcData.setHigh(high[index]);
+    ohlcData.setLow(low[index]);
+    ohlcData.setClose(close[index]);
+    return ohlcData;
+  }
+
+  public List<OHLCData> toOHLCDataList(int fromIndex, int toIndex) {
+    List<OHLCData> ohlcDataList = new ArrayList<>(toIndex - fromIndex);
+    for (int i = fromIndex; i < toIndex; i++) {
+      ohlcDataList.add(toOHLCData(i));
+    }
+    return ohlcDataList;
+  }
+
+  public List<OHLCData> toOHLCDataList() {
+    return toOHLCDataList(0, size);
+  }
+
+  public Cursor cursor() {
+    return new Cursor();
+  }
+
+  /**
+   * Flyweight view for code written against OHLCData. The same bar instance is refilled on every
+   * move, so callers must copy anything they keep past the next move.
+   */
+  public class Cursor {
+    private final OHLCData ohlcData = new OHLCData();
+    private final Date timestamp = new Date(0);
+    private int index = -1;
+
+    private Cursor() {
+      ohlcData.setTimestamp(timestamp);
+    }
+
+    public OHLCData moveTo(int index) {
+      this.index = index;
+      timestamp.setTime(timestamps[index]);
+      ohlcData.setTimestamp(timestamp);
+      ohlcData.setOpen(open[index]);
+      ohlcData.setHigh(high[index]);
+      ohlcData.setLow(low[index]);
+      ohlcData.setClose(close[index]);
+      return ohlcData;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public OHLCData get() {
+      return ohlcData;
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package org.example.models;
+
+import lombok.Data;
+
+@Data
+public class ORBAdvancedParameters {
+  private int startHour;
+  private int startMinute;
+  private int endHour;
+  private int endMinute;
+  private double riskFactor;
+  private int minutesMargin;
+  private int atrPeriod;
+  private double atrStopMultiplier;
+  private ExecutionParameters execution = new ExecutionParameters();
+}
@@ -5,4 +5,5 @@ import lombok.Data;
 @Data
 public class ORBAdvancedStrategyData {
   private Double breakoutValue;
+  private double stopRisk = Double.NaN;
 }
@@ -0,0 +1,19 @@
+package org.example.models;
+
+import lombok.Data;
+
+@Data
+public class OptimizationResult {
+  private ORBAdvancedParameters parameters;
+  private int totalTrades;
+  /** trades exited at book profits */
+  private int successTimes;
+  private double profit;
+  /** percent of trades with a positive profit, the same as the trade report */
+  private double winRate;
+  private double maxDrawdown;
+  private double profitFactor;
+  private double expectancy;
+  private double sharpeRatio;
+  private double sortinoRatio;
+}
@@ -0,0 +1,14 @@
+package org.example.models;
+
+import lombok.Data;
+
+/** Position book of the swing strategies, defaults hold up to three positions across days. */
+@Data
+public class PositionParameters {
+  /** open positions allowed at once, entries beyond it are skipped */
+  private int maxPositions = 3;
+  /** keep positions open after the close, otherwise they exit at the end of the day */
+  private boolean holdOvernight = true;
+  /** trading days a position is held at most when held overnight, 0 for no limit */
+  private int maxHoldingDays;
+}
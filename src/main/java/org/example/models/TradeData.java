@@ -11,5 +11,9 @@ public class TradeData {
   private double stopLoss;
   private double profit;
   private double profitPercent;
+  private int quantity = 1;
+  private double costs;
+  private double maxAdverseExcursion;
+  private double maxFavourableExcursion;
   private TradeStatus status = TradeStatus.WAITING;
 }
@@ -0,0 +1,229 @@
+package org.example.models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import org.example.enums.OrderSignal;
+import org.example.enums.OrderType;
+import org.example.enums.TradeStatus;
+
+/**
+ * Column store for completed trades. Every trade is a row across primitive arrays, so appending
+ * allocates nothing until the capacity is exhausted; {@link #toTradeData(int)} materialises a row
+ * for reports and other code written against TradeData.
+ */
+public class TradeLog {
+  private static final int DEFAULT_CAPACITY = 64;
+  private static final OrderType[] ORDER_TYPES = OrderType.values();
+  private static final OrderSignal[] ORDER_SIGNALS = OrderSignal.values();
+
+  private long[] entryTimestamps;
+  private long[] exitTimestamps;
+  private double[] entryPrices;
+  private double[] exitPrices;
+  private byte[] entryTypes;
+  private byte[] entrySignals;
+  private byte[] exitSignals;
+  private double[] bookProfits;
+  private double[] stopLosses;
+  private double[] profits;
+  private double[] profitPercents;
+  private int[] quantities;
+  private double[] costs;
+  private double[] maxAdverseExcursions;
+  private double[] maxFavourableExcursions;
+  private int size;
+
+  public TradeLog() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public TradeLog(int capacity) {
+    int initialCapacity = Math.max(capacity, 1);
+    entryTimestamps = new long[initialCapacity];
+    exitTimestamps = new long[initialCapacity];
+    entryPrices = new double[initialCapacity];
+    exitPrices = new double[initialCapacity];
+    entryTypes = new byte[initialCapacity];
+    entrySignals = new byte[initialCapacity];
+    exitSignals = new byte[initialCapacity];
+    bookProfits = new double[initialCapacity];
+    stopLosses = new double[initialCapacity];
+    profits = new double[initialCapacity];
+    profitPercents = new double[initialCapacity];
+    quantities = new int[initialCapacity];
+    costs = new double[initialCapacity];
+    maxAdverseExcursions = new double[initialCapacity];
+    maxFavourableExcursions = new double[initialCapacity];
+  }
+
+  /** appends a completed trade, the exit type is always the one following the entry type */
+  public void add(
+      long entryTimestamp,
+      double entryPrice,
+      OrderType entryType,
+      OrderSignal entrySignal,
+      long exitTimestamp,
+      double exitPrice,
+      OrderSignal exitSignal,
+      double bookProfit,
+      double stopLoss,
+      double profit,
+      double profitPercent,
+      int quantity,
+      double cost,
+      double maxAdverseExcursion,
+      double maxFavourableExcursion) {
+    if (size == entryTimestamps.length) {
+      grow();
+    }
+    entryTimestamps[size] = entryTimestamp;
+    entryPrices[size] = entryPrice;
+    entryTypes[size] = (byte) entryType.ordinal();
+    entrySignals[size] = (byte) entrySignal.ordinal();
+    exitTimestamps[size] = exitTimestamp;
+    exitPrices[size] = exitPrice;
+    exitSignals[size] = (byte) exitSignal.ordinal();
+    bookProfits[size] = bookProfit;
+    stopLosses[size] = stopLoss;
+    profits[size] = profit;
+    profitPercents[size] = profitPercent;
+    quantities[size] = quantity;
+    costs[size] = cost;
+    maxAdverseExcursions[size] = maxAdverseExcursion;
+    maxFavourableExcursions[size] = maxFavourableExcursion;
+    size++;
+  }
+
+  private void grow() {
+    int capacity = entryTimestamps.length * 2;
+    entryTimestamps = Arrays.copyOf(entryTimestamps, capacity);
+    exitTimestamps = Arrays.copyOf(exitTimestamps, capacity);
+    entryPrices = Arrays.copyOf(entryPrices, capacity);
+    exitPrices = Arrays.copyOf(exitPrices, capacity);
+    entryTypes = Arrays.copyOf(entryTypes, capacity);
+    entrySignals = Arrays.copyOf(entrySignals, capacity);
+    exitSignals = Arrays.copyOf(exitSignals, capacity);
+    bookProfits = Arrays.copyOf(bookProfits, capacity);
+    stopLosses = Arrays.copyOf(stopLosses, capacity);
+    profits = Arrays.copyOf(profits, capacity);
+    profitPercents = Arrays.copyOf(profitPercents, capacity);
+    quantities = Arrays.copyOf(quantities, capacity);
+    costs = Arrays.copyOf(costs, capacity);
+    maxAdverseExcursions = Arrays.copyOf(maxAdverseExcursions, capacity);
+    maxFavourableExcursions = Arrays.copyOf(maxFavourableExcursions, capacity);
+  }
+
+  /** forgets every row but keeps the capacity, so the log can be reused */
+  public void clear() {
+    size = 0;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public long getEntryTimestamp(int index) {
+    return entryTimestamps[index];
+  }
+
+  public long getExitTimestamp(int index) {
+    return exitTimestamps[index];
+  }
+
+  public double getEntryPrice(int index) {
+    return entryPrices[index];
+  }
+
+  public double getExitPrice(int index) {
+    return exitPrices[index];
+  }
+
+  public OrderType getEntryType(int index) {
+    return ORDER_TYPES[entryTypes[index]];
+  }
+
+  public OrderSignal getEntrySignal(int index) {
+    return ORDER_SIGNALS[entrySignals[index]];
+  }
+
+  public OrderSignal getExitSignal(int index) {
+    return ORDER_SIGNALS[exitSignals[index]];
+  }
+
+  public double getBookProfits(int index) {
+    return bookProfits[index];
+  }
+
+  public double getStopLoss(int index) {
+    return stopLosses[index];
+  }
+
+  public double getProfit(int index) {
+    return profits[index];
+  }
+
+  public double getProfitPercent(int index) {
+    return profitPercents[index];
+  }
+
+  public int getQuantity(int index) {
+    return quantities[index];
+  }
+
+  public double getCosts(int index) {
+    return costs[index];
+  }
+
+  public double getMaxAdverseExcursion(int index) {
+    return maxAdverseExcursions[index];
+  }
+
+  public double getMaxFavourableExcursion(int index) {
+    return maxFavourableExcursions[index];
+  }
+
+  public TradeData toTradeData(int index) {
+    OrderType entryType = getEntryType(index);
+    TradeData tradeData = new TradeData();
+    tradeData.setEntry(
+        toOrderData(
+            entryTimestamps[index], entryPrices[index], entryType, getEntrySignal(index)));
+    tradeData.setExit(
+        toOrderData(
+            exitTimestamps[index], exitPrices[index], entryType.getNext(), getExitSignal(index)));
+    tradeData.setBookProfits(bookProfits[index]);
+    tradeData.setStopLoss(stopLosses[index]);
+    tradeData.setProfit(profits[index]);
+    tradeData.setProfitPercent(profitPercents[index]);
+    tradeData.setQuantity(quantities[index]);
+    tradeData.setCosts(costs[index]);
+    tradeData.setMaxAdverseExcursion(maxAdverseExcursions[index]);
+    tradeData.setMaxFavourableExcursion(maxFavourableExcursions[index]);
+    tradeData.setStatus(TradeStatus.COMPLETED);
+    return tradeData;
+  }
+
+  public List<TradeData> toTradeDataList(int fromIndex, int toIndex) {
+    List<TradeData> tradeDataList = new ArrayList<>(toIndex - fromIndex);
+    for (int i = fromIndex; i < toIndex; i++) {
+      tradeDataList.add(toTradeData(i));
+    }
+    return tradeDataList;
+  }
+
+  public List<TradeData> toTradeDataList() {
+    return toTradeDataList(0, size);
+  }
+
+  private static OrderData toOrderData(
+      long timestamp, double price, OrderType type, OrderSignal signal) {
+    OrderData orderData = new OrderData();
+    orderData.setTimestamp(new Date(timestamp));
+    orderData.setPrice(price);
+    orderData.setType(type);
+    orderData.setSignal(signal);
+    return orderData;
+  }
+}
@@ -0,0 +1,19 @@
+package org.example.models;
+
+import lombok.Data;
+import org.example.enums.DataIssue;
+import org.example.enums.RepairPolicy;
+
+/** Load time validation settings, the session times are minutes from local midnight. */
+@Data
+public class ValidationParameters {
+  private RepairPolicy policy = RepairPolicy.REPAIR;
+  private int sessionStartMinute = 9 * 60 + 15;
+  private int sessionEndMinute = 15 * 60 + 30;
+  /** a day whose last bar is more than this many minutes before the session end is a half day */
+  private int halfDayMinutes = 60;
+  /** move away from the previous close, in percent, above which a reverting bar is a bad tick */
+  private double spikePercent = 5;
+  /** bitmap of the {@link DataIssue}s that make a day unusable for backtests */
+  private int skippedIssues = DataIssue.HALF_DAY.getMask() | DataIssue.LATE_OPEN.getMask();
+}
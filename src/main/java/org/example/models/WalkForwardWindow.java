@@ -0,0 +1,17 @@
+package org.example.models;
+
+import java.util.List;
+import lombok.Data;
+
+/** One train/test step of a walk forward run, day bounds are [start, end) offsets of the series. */
+@Data
+public class WalkForwardWindow {
+  private int trainStartDay;
+  private int trainEndDay;
+  private int testStartDay;
+  private int testEndDay;
+  private ORBAdvancedParameters parameters;
+  private double trainProfit;
+  private double testProfit;
+  private List<TradeData> testTrades;
+}
@@ -0,0 +1,71 @@
+package org.example.positions;
+
+import java.util.Arrays;
+
+/**
+ * Highest high and lowest low since any earlier bar. Two monotonic stacks keep only the bars not
+ * dominated by a later one, so pushing a bar is amortised O(1) and the extreme since a bar is a
+ * binary search for the first kept bar at or after it.
+ */
+public class ExtremeTracker {
+  private static final int DEFAULT_CAPACITY = 64;
+
+  private long[] highBars = new long[DEFAULT_CAPACITY];
+  private double[] highs = new double[DEFAULT_CAPACITY];
+  private int highSize;
+  private long[] lowBars = new long[DEFAULT_CAPACITY];
+  private double[] lows = new double[DEFAULT_CAPACITY];
+  private int lowSize;
+
+  public void push(long bar, double high, double low) {
+    while (highSize > 0 && highs[highSize - 1] <= high) {
+      highSize--;
+    }
+    if (highSize == highs.length) {
+      highBars = Arrays.copyOf(highBars, highSize * 2);
+      highs = Arrays.copyOf(highs, highSize * 2);
+    }
+    highBars[highSize] = bar;
+    highs[highSize++] = high;
+    while (lowSize > 0 && lows[lowSize - 1] >= low) {
+      lowSize--;
+    }
+    if (lowSize == lows.length) {
+      lowBars = Arrays.copyOf(lowBars, lowSize * 2);
+      lows = Arrays.copyOf(lows, lowSize * 2);
+    }
+    lowBars[lowSize] = bar;
+    lows[lowSize++] = low;
+  }
+
+  /** highest high of the bars pushed since the given bar, NaN when there are none */
+  public double getHighSince(long bar) {
+    int index = firstAtOrAfter(highBars, highSize, bar);
+    return index < highSize ? highs[index] : Double.NaN;
+  }
+
+  /** lowest low of the bars pushed since the given bar, NaN when there are none */
+  public double getLowSince(long bar) {
+    int index = firstAtOrAfter(lowBars, lowSize, bar);
+    return index < lowSize ? lows[index] : Double.NaN;
+  }
+
+  public void clear() {
+    highSize = 0;
+    lowSize = 0;
+  }
+
+  private static int firstAtOrAfter(long[] bars, int size, long bar) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (bars[middle] < bar) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,111 @@
+package org.example.positions;
+
+import java.util.Arrays;
+
+/**
+ * Binary min heap of price levels in parallel primitive arrays. Every entry carries the slot of
+ * its position and the version of the slot it was pushed with, entries of an older version are
+ * stale and skipped by the reader.
+ */
+class LevelHeap {
+  private static final int DEFAULT_CAPACITY = 16;
+
+  private double[] levels = new double[DEFAULT_CAPACITY];
+  private int[] slots = new int[DEFAULT_CAPACITY];
+  private int[] versions = new int[DEFAULT_CAPACITY];
+  private int size;
+
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  double peekLevel() {
+    return levels[0];
+  }
+
+  int peekSlot() {
+    return slots[0];
+  }
+
+  int peekVersion() {
+    return versions[0];
+  }
+
+  void push(double level, int slot, int version) {
+    if (size == levels.length) {
+      grow();
+    }
+    int index = size++;
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (levels[parent] <= level) {
+        break;
+      }
+      move(parent, index);
+      index = parent;
+    }
+    set(index, level, slot, version);
+  }
+
+  void pop() {
+    size--;
+    if (size > 0) {
+      siftDown(0, levels[size], slots[size], versions[size]);
+    }
+  }
+
+  void clear() {
+    size = 0;
+  }
+
+  /** drops the entries whose version is no longer the current one of their slot */
+  void retainCurrent(int[] currentVersions) {
+    int written = 0;
+    for (int i = 0; i < size; i++) {
+      if (versions[i] == currentVersions[slots[i]]) {
+        move(i, written++);
+      }
+    }
+    size = written;
+    for (int i = (size >>> 1) - 1; i >= 0; i--) {
+      siftDown(i, levels[i], slots[i], versions[i]);
+    }
+  }
+
+  private void siftDown(int index, double level, int slot, int version) {
+    int half = size >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      if (child + 1 < size && levels[child + 1] < levels[child]) {
+        child++;
+      }
+      if (level <= levels[child]) {
+        break;
+      }
+      move(child, index);
+      index = child;
+    }
+    set(index, level, slot, version);
+  }
+
+  private void move(int from, int to) {
+    set(to, levels[from], slots[from], versions[from]);
+  }
+
+  private void set(int index, double level, int slot, int version) {
+    levels[index] = level;
+    slots[index] = slot;
+    versions[index] = version;
+  }
+
+  private void grow() {
+    int capacity = levels.length * 2;
+    levels = Arrays.copyOf(levels, capacity);
+    slots = Arrays.copyOf(slots, capacity);
+    versions = Arrays.copyOf(versions, capacity);
+  }
+}
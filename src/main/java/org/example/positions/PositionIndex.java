@@ -0,0 +1,91 @@
+package org.example.positions;
+
+import java.util.Arrays;
+
+/**
+ * Open positions indexed by their exit levels. Every position has one level reached by a rising
+ * price, the book profits of a long or the stop loss of a short, and one reached by a falling
+ * price. The rising levels sit in a min heap and the falling ones, negated, in another, so a bar
+ * pops exactly the positions with a level inside its range in O(log n) each and never looks at
+ * the others. Removal is lazy: the slot version is bumped and the heaps are compacted once stale
+ * entries outnumber the live ones.
+ */
+class PositionIndex {
+  private static final int COMPACT_SLACK = 32;
+
+  private final LevelHeap risingLevels = new LevelHeap();
+  private final LevelHeap fallingLevels = new LevelHeap();
+  private int[] versions;
+  private boolean[] indexed;
+  private int count;
+
+  PositionIndex(int capacity) {
+    versions = new int[capacity];
+    indexed = new boolean[capacity];
+  }
+
+  int size() {
+    return count;
+  }
+
+  void add(int slot, double risingLevel, double fallingLevel) {
+    if (slot >= versions.length) {
+      int capacity = Math.max(versions.length * 2, slot + 1);
+      versions = Arrays.copyOf(versions, capacity);
+      indexed = Arrays.copyOf(indexed, capacity);
+    }
+    int version = ++versions[slot];
+    indexed[slot] = true;
+    count++;
+    risingLevels.push(risingLevel, slot, version);
+    fallingLevels.push(-fallingLevel, slot, version);
+    if (risingLevels.size() + fallingLevels.size() > 4 * count + COMPACT_SLACK) {
+      risingLevels.retainCurrent(versions);
+      fallingLevels.retainCurrent(versions);
+    }
+  }
+
+  void remove(int slot) {
+    if (slot < indexed.length && indexed[slot]) {
+      unindex(slot);
+    }
+  }
+
+  /**
+   * takes every position with a rising level at or below the high or a falling level at or above
+   * the low out of the index and writes its slot to triggered, returns how many were taken. Slots
+   * that stay open have to be added again.
+   */
+  int collect(double high, double low, int[] triggered) {
+    int taken = 0;
+    while (!risingLevels.isEmpty() && risingLevels.peekLevel() <= high) {
+      taken = take(risingLevels, triggered, taken);
+    }
+    while (!fallingLevels.isEmpty() && -fallingLevels.peekLevel() >= low) {
+      taken = take(fallingLevels, triggered, taken);
+    }
+    return taken;
+  }
+
+  private int take(LevelHeap heap, int[] triggered, int taken) {
+    int slot = heap.peekSlot();
+    int version = heap.peekVersion();
+    heap.pop();
+    if (versions[slot] != version) {
+      return taken;
+    }
+    unindex(slot);
+    triggered[taken] = slot;
+    return taken + 1;
+  }
+
+  private void unindex(int slot) {
+    versions[slot]++;
+    indexed[slot] = false;
+    count--;
+    if (count == 0) {
+      risingLevels.clear();
+      fallingLevels.clear();
+    }
+  }
+}
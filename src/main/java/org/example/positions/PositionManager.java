@@ -0,0 +1,277 @@
+package org.example.positions;
+
+import java.util.Arrays;
+import java.util.Objects;
+import org.example.enums.OrderSignal;
+import org.example.enums.OrderType;
+import org.example.execution.ExecutionSimulator;
+import org.example.models.TradeLog;
+import org.example.utils.MetricsUtils;
+
+/**
+ * Book of concurrent open positions that may be held across days. Positions live in primitive
+ * slots; their book profits and stop loss levels are kept in a {@link PositionIndex}, so a bar
+ * only evaluates the positions whose levels it reaches, and the excursions are answered by an
+ * {@link ExtremeTracker} when a position closes instead of being updated on every bar. Exits follow
+ * the intra bar path of the {@link ExecutionSimulator}, except that the first bar of a day fills a
+ * position held overnight at its open when it opens at or beyond a level. Completed trades are
+ * appended to a {@link TradeLog} in the order they close. One manager serves one thread.
+ */
+public class PositionManager {
+  private static final int DEFAULT_CAPACITY = 8;
+
+  private final ExecutionSimulator simulator;
+  private final TradeLog tradeLog;
+  private final PositionIndex index = new PositionIndex(DEFAULT_CAPACITY);
+  private final ExtremeTracker extremes = new ExtremeTracker();
+
+  private long[] entryTimestamps = new long[DEFAULT_CAPACITY];
+  private double[] entryPrices = new double[DEFAULT_CAPACITY];
+  private OrderType[] entryTypes = new OrderType[DEFAULT_CAPACITY];
+  private OrderSignal[] entrySignals = new OrderSignal[DEFAULT_CAPACITY];
+  private int[] quantities = new int[DEFAULT_CAPACITY];
+  private double[] bookProfits = new double[DEFAULT_CAPACITY];
+  private double[] stopLosses = new double[DEFAULT_CAPACITY];
+  private long[] entryBars = new long[DEFAULT_CAPACITY];
+  private int[] entryDays = new int[DEFAULT_CAPACITY];
+  private long[] sequences = new long[DEFAULT_CAPACITY];
+  private boolean[] active = new boolean[DEFAULT_CAPACITY];
+  private int[] freeSlots = new int[DEFAULT_CAPACITY];
+  private int[] selected = new int[DEFAULT_CAPACITY];
+  private int freeCount;
+  private int slotCount;
+  private int openCount;
+  private long bar;
+  private long sequence;
+  private int day = Integer.MIN_VALUE;
+  private boolean dayOpening;
+
+  public PositionManager(ExecutionSimulator simulator, TradeLog tradeLog) {
+    this.simulator = simulator;
+    this.tradeLog = tradeLog;
+  }
+
+  public TradeLog getTradeLog() {
+    return tradeLog;
+  }
+
+  public int getOpenCount() {
+    return openCount;
+  }
+
+  /** call before the first bar of the day, its open is checked for gaps over held positions */
+  public void startDay(int day) {
+    this.day = day;
+    this.dayOpening = true;
+  }
+
+  /**
+   * closes the positions whose book profits or stop loss the bar reaches, oldest first
+   *
+   * @return number of positions closed on the bar
+   */
+  public int onBar(long timestamp, double open, double high, double low, double close) {
+    bar++;
+    boolean opening = dayOpening;
+    dayOpening = false;
+    if (openCount == 0) {
+      extremes.clear();
+      return 0;
+    }
+    extremes.push(bar, high, low);
+    int triggered = index.collect(high, low, selected);
+    sortBySequence(triggered);
+    int closed = 0;
+    for (int i = 0; i < triggered; i++) {
+      int slot = selected[i];
+      if (exitOnLevel(slot, opening, timestamp, open, high, low, close)) {
+        closed++;
+      } else {
+        index.add(slot, getRisingLevel(slot), getFallingLevel(slot));
+      }
+    }
+    return closed;
+  }
+
+  /**
+   * opens a position at the close of the current bar, call after {@link #onBar} for that bar.
+   * Book profits and stop loss stay anchored to the close the decision was taken on.
+   *
+   * @param stopRisk distance of the stop loss, NaN to take it from the entry candle
+   * @param day trading day of the entry, for {@link #closeOpenedBefore}
+   */
+  public void open(
+      long timestamp,
+      double high,
+      double low,
+      double close,
+      OrderType type,
+      OrderSignal signal,
+      double riskFactor,
+      double stopRisk,
+      int day) {
+    int slot = allocate();
+    boolean isShort = OrderType.SHORT.equals(type);
+    double risk = Double.isNaN(stopRisk) ? (isShort ? high - close : close - low) : stopRisk;
+    entryTimestamps[slot] = timestamp;
+    entryPrices[slot] = simulator.getEntryPrice(close, type);
+    entryTypes[slot] = type;
+    entrySignals[slot] = signal;
+    quantities[slot] = simulator.getQuantity();
+    bookProfits[slot] = isShort ? close - (riskFactor * risk) : close + (riskFactor * risk);
+    stopLosses[slot] = isShort ? close + risk : close - risk;
+    entryBars[slot] = bar;
+    entryDays[slot] = day;
+    sequences[slot] = sequence++;
+    active[slot] = true;
+    openCount++;
+    index.add(slot, getRisingLevel(slot), getFallingLevel(slot));
+    MetricsUtils.recordTradeOpened(signal);
+  }
+
+  /** closes every open position at the close of the given bar, e.g. at the end of day */
+  public void closeAll(long timestamp, double open, double close, OrderSignal signal) {
+    closeOpenedBefore(Integer.MAX_VALUE, timestamp, open, close, signal);
+  }
+
+  /** closes the positions entered before the given day at the close of the given bar */
+  public void closeOpenedBefore(
+      int day, long timestamp, double open, double close, OrderSignal signal) {
+    int selectedCount = 0;
+    for (int slot = 0; slot < slotCount; slot++) {
+      if (active[slot] && entryDays[slot] < day) {
+        selected[selectedCount++] = slot;
+      }
+    }
+    sortBySequence(selectedCount);
+    for (int i = 0; i < selectedCount; i++) {
+      int slot = selected[i];
+      double price =
+          simulator.getExitPrice(
+              entryTypes[slot], bookProfits[slot], stopLosses[slot], open, close, signal);
+      close(slot, timestamp, price, signal);
+    }
+  }
+
+  /**
+   * @param opening first bar of the day, a position held overnight that it opens beyond fills at
+   *     the open even under {@link org.example.enums.IntraBarPath#CLOSE}
+   */
+  private boolean exitOnLevel(
+      int slot,
+      boolean opening,
+      long timestamp,
+      double open,
+      double high,
+      double low,
+      double close) {
+    OrderType type = entryTypes[slot];
+    boolean isShort = OrderType.SHORT.equals(type);
+    double bookProfit = bookProfits[slot];
+    double stopLoss = stopLosses[slot];
+    if (opening && entryDays[slot] < day) {
+      if (isShort ? open >= stopLoss : open <= stopLoss) {
+        close(slot, timestamp, simulator.getGapExitPrice(type, open), OrderSignal.SL);
+        return true;
+      }
+      if (isShort ? open <= bookProfit : open >= bookProfit) {
+        close(slot, timestamp, simulator.getGapExitPrice(type, open), OrderSignal.BP);
+        return true;
+      }
+    }
+    OrderSignal signal = simulator.getExitSignal(type, bookProfit, stopLoss, open, high, low);
+    if (Objects.isNull(signal)) {
+      return false;
+    }
+    double price = simulator.getExitPrice(type, bookProfit, stopLoss, open, close, signal);
+    close(slot, timestamp, price, signal);
+    return true;
+  }
+
+  private void close(int slot, long timestamp, double price, OrderSignal signal) {
+    OrderType type = entryTypes[slot];
+    boolean isShort = OrderType.SHORT.equals(type);
+    double entryPrice = entryPrices[slot];
+    int quantity = quantities[slot];
+    double high = extremes.getHighSince(entryBars[slot] + 1);
+    double low = extremes.getLowSince(entryBars[slot] + 1);
+    double highest = Double.isNaN(high) ? price : Math.max(high, price);
+    double lowest = Double.isNaN(low) ? price : Math.min(low, price);
+    double adverse = isShort ? highest - entryPrice : entryPrice - lowest;
+    double favourable = isShort ? entryPrice - lowest : highest - entryPrice;
+    double cost = simulator.getCosts(type, entryPrice, price);
+    double perUnit = isShort ? entryPrice - price : price - entryPrice;
+    double profit = perUnit * quantity - cost;
+    double profitPercent = (profit / (entryPrice * quantity)) * 100;
+    tradeLog.add(
+        entryTimestamps[slot],
+        entryPrice,
+        type,
+        entrySignals[slot],
+        timestamp,
+        price,
+        signal,
+        bookProfits[slot],
+        stopLosses[slot],
+        profit,
+        profitPercent,
+        quantity,
+        cost,
+        Math.max(adverse, 0),
+        Math.max(favourable, 0));
+    index.remove(slot);
+    active[slot] = false;
+    freeSlots[freeCount++] = slot;
+    openCount--;
+    MetricsUtils.recordTradeClosed(signal);
+  }
+
+  /** level a rising price reaches, the book profits of a long or the stop loss of a short */
+  private double getRisingLevel(int slot) {
+    return OrderType.SHORT.equals(entryTypes[slot]) ? stopLosses[slot] : bookProfits[slot];
+  }
+
+  private double getFallingLevel(int slot) {
+    return OrderType.SHORT.equals(entryTypes[slot]) ? bookProfits[slot] : stopLosses[slot];
+  }
+
+  private int allocate() {
+    if (freeCount > 0) {
+      return freeSlots[--freeCount];
+    }
+    if (slotCount == active.length) {
+      grow();
+    }
+    return slotCount++;
+  }
+
+  /** insertion sort of the selected slots by entry order, there are only a handful */
+  private void sortBySequence(int count) {
+    for (int i = 1; i < count; i++) {
+      int slot = selected[i];
+      int j = i - 1;
+      while (j >= 0 && sequences[selected[j]] > sequences[slot]) {
+        selected[j + 1] = selected[j];
+        j--;
+      }
+      selected[j + 1] = slot;
+    }
+  }
+
+  private void grow() {
+    int capacity = active.length * 2;
+    entryTimestamps = Arrays.copyOf(entryTimestamps, capacity);
+    entryPrices = Arrays.copyOf(entryPrices, capacity);
+    entryTypes = Arrays.copyOf(entryTypes, capacity);
+    entrySignals = Arrays.copyOf(entrySignals, capacity);
+    quantities = Arrays.copyOf(quantities, capacity);
+    bookProfits = Arrays.copyOf(bookProfits, capacity);
+    stopLosses = Arrays.copyOf(stopLosses, capacity);
+    entryBars = Arrays.copyOf(entryBars, capacity);
+    entryDays = Arrays.copyOf(entryDays, capacity);
+    sequences = Arrays.copyOf(sequences, capacity);
+    active = Arrays.copyOf(active, capacity);
+    freeSlots = Arrays.copyOf(freeSlots, capacity);
+    selected = Arrays.copyOf(selected, capacity);
+  }
+}
@@ -0,0 +1,99 @@
+package org.example.reports;
+
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import org.example.models.TradeData;
+
+/**
+ * Columnar binary report for analytics. Trades are buffered into primitive columns and written as
+ * row groups of at most {@link #ROW_GROUP_SIZE} trades, each group laid out column after column.
+ *
+ * <p>Layout, little endian: int magic, int version, then per row group an int row count followed
+ * by the columns entry timestamp (long), entry price (double), entry type (byte), exit timestamp
+ * (long), exit price (double), exit signal (byte), profit (double), profit percent (double). A row
+ * count of 0 ends the file.
+ */
+public class BinaryTradeReportWriter extends TradeReportWriter {
+  public static final int MAGIC = 0x54524144;
+  public static final int VERSION = 1;
+  public static final int ROW_GROUP_SIZE = 4096;
+
+  private final long[] entryTimestamps = new long[ROW_GROUP_SIZE];
+  private final double[] entryPrices = new double[ROW_GROUP_SIZE];
+  private final byte[] entryTypes = new byte[ROW_GROUP_SIZE];
+  private final long[] exitTimestamps = new long[ROW_GROUP_SIZE];
+  private final double[] exitPrices = new double[ROW_GROUP_SIZE];
+  private final byte[] exitSignals = new byte[ROW_GROUP_SIZE];
+  private final double[] profits = new double[ROW_GROUP_SIZE];
+  private final double[] profitPercents = new double[ROW_GROUP_SIZE];
+  private int rows;
+
+  public BinaryTradeReportWriter(Path file) {
+    super(file);
+    buffer.order(ByteOrder.LITTLE_ENDIAN);
+    buffer.putInt(MAGIC).putInt(VERSION);
+  }
+
+  @Override
+  protected void writeTrade(int tradeNumber, TradeData tradeData, double previousCumProfits) {
+    entryTimestamps[rows] = tradeData.getEntry().getTimestamp().getTime();
+    entryPrices[rows] = tradeData.getEntry().getPrice();
+    entryTypes[rows] = (byte) tradeData.getEntry().getType().ordinal();
+    exitTimestamps[rows] = tradeData.getExit().getTimestamp().getTime();
+    exitPrices[rows] = tradeData.getExit().getPrice();
+    exitSignals[rows] = (byte) tradeData.getExit().getSignal().ordinal();
+    profits[rows] = tradeData.getProfit();
+    profitPercents[rows] = tradeData.getProfitPercent();
+    rows++;
+    if (rows == ROW_GROUP_SIZE) {
+      writeRowGroup();
+    }
+  }
+
+  private void writeRowGroup() {
+    ensureCapacity(Integer.BYTES);
+    buffer.putInt(rows);
+    for (int i = 0; i < rows; i++) {
+      ensureCapacity(Long.BYTES);
+      buffer.putLong(entryTimestamps[i]);
+    }
+    for (int i = 0; i < rows; i++) {
+      ensureCapacity(Double.BYTES);
+      buffer.putDouble(entryPrices[i]);
+    }
+    for (int i = 0; i < rows; i++) {
+      ensureCapacity(1);
+      buffer.put(entryTypes[i]);
+    }
+    for (int i = 0; i < rows; i++) {
+      ensureCapacity(Long.BYTES);
+      buffer.putLong(exitTimestamps[i]);
+    }
+    for (int i = 0; i < rows; i++) {
+      ensureCapacity(Double.BYTES);
+      buffer.putDouble(exitPrices[i]);
+    }
+    for (int i = 0; i < rows; i++) {
+      ensureCapacity(1);
+      buffer.put(exitSignals[i]);
+    }
+    for (int i = 0; i < rows; i++) {
+      ensureCapacity(Double.BYTES);
+      buffer.putDouble(profits[i]);
+    }
+    for (int i = 0; i < rows; i++) {
+      ensureCapacity(Double.BYTES);
+      buffer.putDouble(profitPercents[i]);
+    }
+    rows = 0;
+  }
+
+  @Override
+  protected void finish() {
+    if (rows > 0) {
+      writeRowGroup();
+    }
+    ensureCapacity(Integer.BYTES);
+    buffer.putInt(0);
+  }
+}
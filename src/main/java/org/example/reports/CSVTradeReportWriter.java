@@ -0,0 +1,66 @@
+package org.example.reports;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import org.example.constants.ExchangeConstants;
+import org.example.models.OrderData;
+import org.example.models.TradeData;
+
+/**
+ * Same layout as the original trade csv: one row for the entry and one for the exit. Timestamps
+ * keep the java.util.Date text layout but are rendered in the exchange zone rather than the zone
+ * of the host.
+ */
+public class CSVTradeReportWriter extends TradeReportWriter {
+  private static final String HEADER =
+      "Trade #,Type,Signal,Timestamp,Price INR,Profit INR,Profit %,Cum. Profit INR,Cum. Profit %\n";
+  private static final DateTimeFormatter TIMESTAMP_FORMATTER =
+      DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss zzz yyyy", Locale.US)
+          .withZone(ExchangeConstants.EXCHANGE_ZONE_ID);
+
+  public CSVTradeReportWriter(Path file) {
+    super(file);
+    putAscii(HEADER);
+  }
+
+  @Override
+  protected void writeTrade(int tradeNumber, TradeData tradeData, double previousCumProfits) {
+    double cumProfits = previousCumProfits + tradeData.getProfit();
+    double cumProfitPercent = (cumProfits / getPerformance().getInitialCapital()) * 100;
+    writeRow(tradeNumber, tradeData.getEntry(), tradeData, cumProfits, cumProfitPercent);
+    writeRow(tradeNumber, tradeData.getExit(), tradeData, cumProfits, cumProfitPercent);
+  }
+
+  private void writeRow(
+      int tradeNumber,
+      OrderData orderData,
+      TradeData tradeData,
+      double cumProfits,
+      double cumProfitPercent) {
+    putAscii(Integer.toString(tradeNumber));
+    putAscii(',');
+    putAscii(orderData.getType().name());
+    putAscii(',');
+    putAscii(orderData.getSignal().name());
+    putAscii(',');
+    putAscii(TIMESTAMP_FORMATTER.format(Instant.ofEpochMilli(orderData.getTimestamp().getTime())));
+    putAscii(',');
+    putAscii(Double.toString(orderData.getPrice()));
+    putAscii(',');
+    putAscii(Double.toString(tradeData.getProfit()));
+    putAscii(',');
+    putAscii(Double.toString(tradeData.getProfitPercent()));
+    putAscii(',');
+    putAscii(Double.toString(cumProfits));
+    putAscii(',');
+    putAscii(Double.toString(cumProfitPercent));
+    putAscii('\n');
+  }
+
+  @Override
+  protected void finish() {
+    putAscii('\n');
+  }
+}
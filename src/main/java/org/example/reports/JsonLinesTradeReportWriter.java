@@ -0,0 +1,49 @@
+package org.example.reports;
+
+import java.nio.file.Path;
+import org.example.models.OrderData;
+import org.example.models.TradeData;
+
+/**
+ * One json object per trade and line, timestamps as epoch millis. NaN and infinite numbers are
+ * written as null since json has no literal for them.
+ */
+public class JsonLinesTradeReportWriter extends TradeReportWriter {
+
+  public JsonLinesTradeReportWriter(Path file) {
+    super(file);
+  }
+
+  @Override
+  protected void writeTrade(int tradeNumber, TradeData tradeData, double previousCumProfits) {
+    putAscii("{\"trade\":");
+    putAscii(Integer.toString(tradeNumber));
+    putAscii(",\"entry\":");
+    writeOrder(tradeData.getEntry());
+    putAscii(",\"exit\":");
+    writeOrder(tradeData.getExit());
+    putAscii(",\"profit\":");
+    putNumber(tradeData.getProfit());
+    putAscii(",\"profitPercent\":");
+    putNumber(tradeData.getProfitPercent());
+    putAscii(",\"cumProfit\":");
+    putNumber(previousCumProfits + tradeData.getProfit());
+    putAscii("}\n");
+  }
+
+  private void writeOrder(OrderData orderData) {
+    putAscii("{\"type\":\"");
+    putAscii(orderData.getType().name());
+    putAscii("\",\"signal\":\"");
+    putAscii(orderData.getSignal().name());
+    putAscii("\",\"timestamp\":");
+    putAscii(Long.toString(orderData.getTimestamp().getTime()));
+    putAscii(",\"price\":");
+    putNumber(orderData.getPrice());
+    putAscii("}");
+  }
+
+  private void putNumber(double value) {
+    putAscii(Double.isFinite(value) ? Double.toString(value) : "null");
+  }
+}
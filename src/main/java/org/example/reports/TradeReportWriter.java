@@ -0,0 +1,127 @@
+package org.example.reports;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.example.analytics.PerformanceTracker;
+import org.example.enums.ReportFormat;
+import org.example.exceptions.ReportException;
+import org.example.models.TradeData;
+
+/**
+ * Streaming trade report. Trades are written one at a time as they complete, encoded into a fixed
+ * size buffer that is flushed to a file channel whenever it fills, so memory stays flat no matter
+ * how many trades a run produces.
+ */
+public abstract class TradeReportWriter implements AutoCloseable {
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private final FileChannel channel;
+  protected final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final PerformanceTracker performance = new PerformanceTracker();
+
+  protected TradeReportWriter(Path file) {
+    try {
+      this.channel =
+          FileChannel.open(
+              file,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.WRITE);
+    } catch (IOException e) {
+      throw new ReportException(e);
+    }
+  }
+
+  public static TradeReportWriter open(Path file, ReportFormat format) {
+    return switch (format) {
+      case CSV -> new CSVTradeReportWriter(file);
+      case JSONL -> new JsonLinesTradeReportWriter(file);
+      case BINARY -> new BinaryTradeReportWriter(file);
+    };
+  }
+
+  public void write(TradeData tradeData) {
+    double previousCumProfits = performance.getNetProfit();
+    performance.add(tradeData);
+    writeTrade(performance.getTotalTrades(), tradeData, previousCumProfits);
+  }
+
+  /**
+   * encodes one completed trade
+   *
+   * @param tradeNumber 1 based position of the trade in the report
+   * @param tradeData completed trade
+   * @param previousCumProfits cumulative profit before this trade
+   */
+  protected abstract void writeTrade(
+      int tradeNumber, TradeData tradeData, double previousCumProfits);
+
+  /** hook to write anything still held back by the format before the file is closed */
+  protected void finish() {}
+
+  public int getTotalTrades() {
+    return performance.getTotalTrades();
+  }
+
+  public int getSuccessTimes() {
+    return performance.getSuccessTimes();
+  }
+
+  public double getCumProfits() {
+    return performance.getNetProfit();
+  }
+
+  /** metrics of the trades written so far */
+  public PerformanceTracker getPerformance() {
+    return performance;
+  }
+
+  /** makes room for at least the given number of bytes in the buffer */
+  protected void ensureCapacity(int bytes) {
+    if (buffer.remaining() < bytes) {
+      flush();
+    }
+  }
+
+  protected void putAscii(CharSequence text) {
+    for (int i = 0; i < text.length(); i++) {
+      if (!buffer.hasRemaining()) {
+        flush();
+      }
+      buffer.put((byte) text.charAt(i));
+    }
+  }
+
+  protected void putAscii(char character) {
+    if (!buffer.hasRemaining()) {
+      flush();
+    }
+    buffer.put((byte) character);
+  }
+
+  protected void flush() {
+    try {
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      buffer.clear();
+    } catch (IOException e) {
+      throw new ReportException(e);
+    }
+  }
+
+  @Override
+  public void close() {
+    try {
+      finish();
+      flush();
+      channel.close();
+    } catch (IOException e) {
+      throw new ReportException(e);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package org.example.strategies;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.ORBData;
+import org.example.utils.IndicatorUtils;
+import org.example.utils.TechnicalIndicatorUtils;
+
+/**
+ * Data shared by all strategies of a run: the series and indicators computed on demand and cached,
+ * so strategies asking for the same indicator reuse one computation.
+ */
+public class BacktestContext {
+  private final OHLCSeries series;
+  private final Map<Integer, double[]> averageTrueRanges = new ConcurrentHashMap<>();
+  private final Map<List<Integer>, ORBData[]> orbData = new ConcurrentHashMap<>();
+
+  public BacktestContext(OHLCSeries series) {
+    this.series = series;
+  }
+
+  public OHLCSeries getSeries() {
+    return series;
+  }
+
+  public double[] getAverageTrueRange(int period) {
+    return averageTrueRanges.computeIfAbsent(
+        period, key -> TechnicalIndicatorUtils.averageTrueRange(series, period));
+  }
+
+  /** ORB of the day for the opening window of the parameters, computed once per window and day */
+  public ORBData getORBData(ORBAdvancedParameters parameters, int day) {
+    List<Integer> window =
+        List.of(
+            parameters.getStartHour(),
+            parameters.getStartMinute(),
+            parameters.getEndHour(),
+            parameters.getEndMinute());
+    ORBData[] dayWiseORBData =
+        orbData.computeIfAbsent(window, key -> new ORBData[series.getDayCount()]);
+    if (dayWiseORBData[day] == null) {
+      dayWiseORBData[day] = IndicatorUtils.getORBDataForDay(series, day, parameters);
+    }
+    return dayWiseORBData[day];
+  }
+}
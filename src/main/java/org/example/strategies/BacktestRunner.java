@@ -0,0 +1,45 @@
+package org.example.strategies;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.example.models.OHLCData;
+import org.example.models.OHLCSeries;
+import org.example.models.TradeData;
+
+/**
+ * Runs any number of strategies over one loaded series in a single pass: each bar is materialised
+ * once and handed to every strategy, and indicators are shared through the {@link
+ * BacktestContext}.
+ */
+public class BacktestRunner {
+
+  public static Map<String, List<TradeData>> run(OHLCSeries series, List<Strategy> strategies) {
+    return run(new BacktestContext(series), strategies);
+  }
+
+  public static Map<String, List<TradeData>> run(
+      BacktestContext context, List<Strategy> strategies) {
+    OHLCSeries series = context.getSeries();
+    OHLCSeries.Cursor cursor = series.cursor();
+    for (int day = 0; day < series.getDayCount(); day++) {
+      for (Strategy strategy : strategies) {
+        strategy.onDayStart(context, day);
+      }
+      for (int i = series.getDayStart(day); i < series.getDayEnd(day); i++) {
+        OHLCData bar = cursor.moveTo(i);
+        for (Strategy strategy : strategies) {
+          strategy.onBar(context, i, bar);
+        }
+      }
+      for (Strategy strategy : strategies) {
+        strategy.onDayEnd(context, day);
+      }
+    }
+    Map<String, List<TradeData>> results = new LinkedHashMap<>();
+    for (Strategy strategy : strategies) {
+      results.put(strategy.getId(), strategy.getTrades());
+    }
+    return results;
+  }
+}
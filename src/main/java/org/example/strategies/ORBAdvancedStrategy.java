@@ -0,0 +1,97 @@
+package org.example.strategies;
+
+import java.util.List;
+import java.util.Objects;
+import org.example.engine.ORBTradeMachine;
+import org.example.enums.OrderSignal;
+import org.example.models.OHLCData;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.ORBData;
+import org.example.models.TradeData;
+import org.example.models.TradeLog;
+import org.example.utils.StrategyUtils;
+
+/**
+ * ORB Advanced on the strategy SPI, trade for trade the same as {@link
+ * StrategyUtils#getListOfTradesForORBAdvancedForDay(OHLCSeries, int, ORBData,
+ * ORBAdvancedParameters)}.
+ */
+public class ORBAdvancedStrategy implements Strategy {
+  public static final String ID = "orb-advanced";
+
+  private final String id;
+  private final ORBAdvancedParameters parameters;
+  private final ORBTradeMachine machine;
+  private double[] averageTrueRange;
+  private int from;
+  private int to;
+  private int exitIndex;
+
+  public ORBAdvancedStrategy() {
+    this(ID, StrategyUtils.getDefaultORBAdvancedParameters());
+  }
+
+  public ORBAdvancedStrategy(String id, ORBAdvancedParameters parameters) {
+    this.id = id;
+    this.parameters = parameters;
+    this.machine = new ORBTradeMachine(parameters, new TradeLog());
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public void onDayStart(BacktestContext context, int day) {
+    OHLCSeries series = context.getSeries();
+    if (!series.isDayUsable(day)) {
+      from = 0;
+      to = 0;
+      return;
+    }
+    ORBData orbData = context.getORBData(parameters, day);
+    machine.startDay(orbData.getUpper(), orbData.getLower());
+    if (parameters.getAtrStopMultiplier() > 0 && Objects.isNull(averageTrueRange)) {
+      averageTrueRange = context.getAverageTrueRange(parameters.getAtrPeriod());
+    }
+    int dayStart = series.getDayStart(day);
+    int limit = StrategyUtils.getExitOffset(series, day, parameters.getMinutesMargin());
+    from =
+        dayStart
+            + StrategyUtils.indexOfTimestamp(series, day, orbData.getEnd().getTime())
+            + 1;
+    to = (int) Math.min(series.getDayEnd(day), (long) from + limit);
+    exitIndex = dayStart + limit;
+  }
+
+  @Override
+  public void onBar(BacktestContext context, int index, OHLCData bar) {
+    if (index < from || index >= to) {
+      return;
+    }
+    if (Objects.nonNull(averageTrueRange)) {
+      machine.setStopRisk(averageTrueRange[index] * parameters.getAtrStopMultiplier());
+    }
+    machine.onBar(
+        bar.getTimestamp().getTime(), bar.getOpen(), bar.getHigh(), bar.getLow(), bar.getClose());
+  }
+
+  @Override
+  public void onDayEnd(BacktestContext context, int day) {
+    if (machine.isActive()) {
+      OHLCSeries series = context.getSeries();
+      machine.exit(
+          series.getTimestamp(exitIndex),
+          series.getOpen(exitIndex),
+          series.getClose(exitIndex),
+          OrderSignal.EOD);
+    }
+  }
+
+  @Override
+  public List<TradeData> getTrades() {
+    return machine.getTradeLog().toTradeDataList();
+  }
+}
@@ -0,0 +1,176 @@
+package org.example.strategies;
+
+import java.util.List;
+import java.util.Objects;
+import org.example.enums.OrderSignal;
+import org.example.enums.OrderType;
+import org.example.execution.ExecutionSimulator;
+import org.example.models.OHLCData;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.ORBData;
+import org.example.models.PositionParameters;
+import org.example.models.TradeData;
+import org.example.models.TradeLog;
+import org.example.positions.PositionManager;
+import org.example.utils.StrategyUtils;
+
+/**
+ * Swing variant of ORB Advanced. Entries follow the same breakout and reversal rules inside the
+ * same window of the day, and are watched whenever fewer than the maximum number of positions are
+ * open, so positions pyramid and may run in both directions at once. Positions leave on their book
+ * profits or stop loss; held overnight they are checked from the first bar of the next day, where a
+ * gap through a level fills at the open, otherwise they exit at the end of the day like ORB
+ * Advanced. Positions still open after the last day exit at its last bar. Days with skipped data
+ * issues open no positions but still exit the ones held.
+ */
+public class ORBSwingStrategy implements Strategy {
+  public static final String ID = "orb-swing";
+
+  private final String id;
+  private final ORBAdvancedParameters parameters;
+  private final PositionParameters positionParameters;
+  private final PositionManager positions;
+  private double[] averageTrueRange;
+  private int day;
+  private int from;
+  private int to;
+  private int exitIndex;
+  private double orbUpper;
+  private double orbLower;
+  private boolean hasBreakout;
+  private double breakoutValue;
+
+  public ORBSwingStrategy() {
+    this(
+        ID,
+        StrategyUtils.getDefaultORBAdvancedParameters(),
+        StrategyUtils.getDefaultPositionParameters());
+  }
+
+  public ORBSwingStrategy(
+      String id, ORBAdvancedParameters parameters, PositionParameters positionParameters) {
+    this.id = id;
+    this.parameters = parameters;
+    this.positionParameters = positionParameters;
+    this.positions =
+        new PositionManager(new ExecutionSimulator(parameters.getExecution()), new TradeLog());
+  }
+
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  @Override
+  public void onDayStart(BacktestContext context, int day) {
+    OHLCSeries series = context.getSeries();
+    this.day = day;
+    positions.startDay(day);
+    if (!series.isDayUsable(day)) {
+      // no entries on the day, positions held from earlier days still run into their exits
+      from = series.getDayStart(day);
+      to = from;
+      exitIndex = series.getDayEnd(day) - 1;
+      return;
+    }
+    ORBData orbData = context.getORBData(parameters, day);
+    orbUpper = orbData.getUpper();
+    orbLower = orbData.getLower();
+    hasBreakout = false;
+    if (parameters.getAtrStopMultiplier() > 0 && Objects.isNull(averageTrueRange)) {
+      averageTrueRange = context.getAverageTrueRange(parameters.getAtrPeriod());
+    }
+    int dayStart = series.getDayStart(day);
+    int limit = StrategyUtils.getExitOffset(series, day, parameters.getMinutesMargin());
+    from = dayStart + StrategyUtils.indexOfTimestamp(series, day, orbData.getEnd().getTime()) + 1;
+    to = (int) Math.min(series.getDayEnd(day), (long) from + limit);
+    exitIndex = dayStart + limit;
+  }
+
+  @Override
+  public void onBar(BacktestContext context, int index, OHLCData bar) {
+    if (!positionParameters.isHoldOvernight() && index >= to) {
+      return;
+    }
+    long timestamp = bar.getTimestamp().getTime();
+    double open = bar.getOpen();
+    double high = bar.getHigh();
+    double low = bar.getLow();
+    double close = bar.getClose();
+    int closed = positions.onBar(timestamp, open, high, low, close);
+    // like ORB Advanced with its one trade, the breakout is only watched while there is room
+    // and a bar that closes positions is spent on the exits
+    if (index < from
+        || index >= to
+        || closed > 0
+        || positions.getOpenCount() >= positionParameters.getMaxPositions()) {
+      return;
+    }
+    if (low > orbUpper) {
+      if (!hasBreakout && open > close) {
+        hasBreakout = true;
+        breakoutValue = low;
+      } else if (hasBreakout && close <= breakoutValue) {
+        enter(index, timestamp, high, low, close, OrderType.SHORT, OrderSignal.SHORT);
+      }
+    } else if (high < orbLower) {
+      if (!hasBreakout && open < close) {
+        hasBreakout = true;
+        breakoutValue = high;
+      } else if (hasBreakout && close >= breakoutValue) {
+        enter(index, timestamp, high, low, close, OrderType.LONG, OrderSignal.LONG);
+      }
+    } else {
+      hasBreakout = false;
+    }
+  }
+
+  @Override
+  public void onDayEnd(BacktestContext context, int day) {
+    if (positions.getOpenCount() == 0) {
+      return;
+    }
+    OHLCSeries series = context.getSeries();
+    boolean lastDay = day == series.getDayCount() - 1;
+    if (!positionParameters.isHoldOvernight()) {
+      exit(series, exitIndex, Integer.MAX_VALUE);
+    } else if (lastDay) {
+      exit(series, series.getDayEnd(day) - 1, Integer.MAX_VALUE);
+    } else if (positionParameters.getMaxHoldingDays() > 0) {
+      exit(series, series.getDayEnd(day) - 1, day - positionParameters.getMaxHoldingDays() + 1);
+    }
+  }
+
+  @Override
+  public List<TradeData> getTrades() {
+    return positions.getTradeLog().toTradeDataList();
+  }
+
+  private void enter(
+      int index,
+      long timestamp,
+      double high,
+      double low,
+      double close,
+      OrderType type,
+      OrderSignal signal) {
+    hasBreakout = false;
+    double stopRisk =
+        Objects.nonNull(averageTrueRange)
+            ? averageTrueRange[index] * parameters.getAtrStopMultiplier()
+            : Double.NaN;
+    positions.open(
+        timestamp, high, low, close, type, signal, parameters.getRiskFactor(), stopRisk, day);
+  }
+
+  /** closes the positions entered before the given day at the close of the bar at index */
+  private void exit(OHLCSeries series, int index, int beforeDay) {
+    positions.closeOpenedBefore(
+        beforeDay,
+        series.getTimestamp(index),
+        series.getOpen(index),
+        series.getClose(index),
+        OrderSignal.EOD);
+  }
+}
@@ -0,0 +1,26 @@
+package org.example.strategies;
+
+import java.util.List;
+import org.example.models.OHLCData;
+import org.example.models.TradeData;
+
+/**
+ * A strategy driven bar by bar by the {@link BacktestRunner}. The runner calls {@link
+ * #onDayStart}, then {@link #onBar} for every bar of the day in order, then {@link #onDayEnd}.
+ */
+public interface Strategy {
+  /** unique within a run, used to label the results */
+  String getId();
+
+  void onDayStart(BacktestContext context, int day);
+
+  /**
+   * @param bar shared flyweight for the bar at index, only valid during the call
+   */
+  void onBar(BacktestContext context, int index, OHLCData bar);
+
+  void onDayEnd(BacktestContext context, int day);
+
+  /** trades completed so far, in the order they were closed */
+  List<TradeData> getTrades();
+}
@@ -0,0 +1,9 @@
+package org.example.strategies;
+
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.PositionParameters;
+
+/** creates a strategy for the parameters of one run, e.g. one job of a batch */
+public interface StrategyFactory {
+  Strategy create(ORBAdvancedParameters parameters, PositionParameters positionParameters);
+}
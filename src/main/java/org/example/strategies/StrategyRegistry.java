@@ -0,0 +1,57 @@
+package org.example.strategies;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import org.example.exceptions.TradeException;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.PositionParameters;
+import org.example.utils.StrategyUtils;
+
+/** Strategies available by id, ORB Advanced and ORB Swing are registered out of the box. */
+public class StrategyRegistry {
+  private static final Map<String, StrategyFactory> strategies = new ConcurrentHashMap<>();
+
+  static {
+    registerFactory(
+        ORBAdvancedStrategy.ID,
+        (parameters, positionParameters) ->
+            new ORBAdvancedStrategy(ORBAdvancedStrategy.ID, parameters));
+    registerFactory(
+        ORBSwingStrategy.ID,
+        (parameters, positionParameters) ->
+            new ORBSwingStrategy(ORBSwingStrategy.ID, parameters, positionParameters));
+  }
+
+  /** registers a strategy that takes no parameters, it ignores the ones of a run */
+  public static void register(String id, Supplier<Strategy> factory) {
+    strategies.put(id, (parameters, positionParameters) -> factory.get());
+  }
+
+  public static void registerFactory(String id, StrategyFactory factory) {
+    strategies.put(id, factory);
+  }
+
+  public static Set<String> getIds() {
+    return strategies.keySet();
+  }
+
+  /** creates a fresh instance, strategies hold per run state and are never shared */
+  public static Strategy create(String id) {
+    return create(
+        id,
+        StrategyUtils.getDefaultORBAdvancedParameters(),
+        StrategyUtils.getDefaultPositionParameters());
+  }
+
+  public static Strategy create(
+      String id, ORBAdvancedParameters parameters, PositionParameters positionParameters) {
+    StrategyFactory factory = strategies.get(id);
+    if (Objects.isNull(factory)) {
+      throw new TradeException("unknown strategy: " + id);
+    }
+    return factory.create(parameters, positionParameters);
+  }
+}
@@ -0,0 +1,253 @@
+package org.example.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.TemporalAccessor;
+import java.util.Locale;
+import java.util.Objects;
+import org.example.constants.ExchangeConstants;
+import org.example.exceptions.CSVParsingException;
+
+/**
+ * Streaming OHLC csv reader. The file is read in fixed size chunks and every row is decoded
+ * straight from the bytes, so no String or List is created per line. Timestamps in the fixed
+ * layout go through {@link TimestampParser}, other layouts through a thread safe
+ * DateTimeFormatter, always in an explicit zone.
+ */
+public class CSVUtils {
+  public static final String FIXED_TIMESTAMP_FORMAT = "yyyy-MM-dd HH:mm:ss";
+  private static final int BUFFER_SIZE = 1 << 20;
+  private static final int OHLC_COLUMNS = 5;
+  private static final String[] OHLC_HEADER = {"date", "open", "high", "low", "close"};
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+  private static final double[] POWERS_OF_TEN = {
+    1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+    1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  @FunctionalInterface
+  public interface OHLCRecordConsumer {
+    void accept(long timestamp, double open, double high, double low, double close);
+  }
+
+  /**
+   * reads every row after the header of the given csv and hands the decoded (timestamp, open,
+   * high, low, close) values to the consumer, in file order
+   *
+   * @param path csv file
+   * @param format timestamp format of the first column, null when it already holds epoch millis
+   * @param consumer receiver of the decoded rows
+   * @return number of rows read
+   */
+  public static int readOHLCRecords(Path path, String format, OHLCRecordConsumer consumer)
+      throws IOException {
+    return readOHLCRecords(path, format, ExchangeConstants.EXCHANGE_ZONE_ID, consumer);
+  }
+
+  /**
+   * @param zoneId zone the local timestamps of the csv are in
+   */
+  public static int readOHLCRecords(
+      Path path, String format, ZoneId zoneId, OHLCRecordConsumer consumer) throws IOException {
+    RowDecoder decoder = new RowDecoder(format, zoneId, consumer);
+    byte[] buffer = new byte[BUFFER_SIZE];
+    ByteBuffer byteBuffer = ByteBuffer.wrap(buffer);
+    boolean header = true;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      int filled = 0;
+      while (true) {
+        byteBuffer.clear().position(filled);
+        int read = channel.read(byteBuffer);
+        if (read > 0) {
+          filled += read;
+        }
+        int lineStart = 0;
+        for (int i = 0; i < filled; i++) {
+          if (buffer[i] == '\n') {
+            if (header) {
+              checkOHLCHeader(
+                  path, new String(buffer, lineStart, i - lineStart, StandardCharsets.UTF_8));
+              header = false;
+            } else {
+              decoder.decode(buffer, lineStart, i);
+            }
+            lineStart = i + 1;
+          }
+        }
+        int remaining = filled - lineStart;
+        if (read < 0) {
+          if (remaining > 0 && !header) {
+            decoder.decode(buffer, lineStart, filled);
+          }
+          break;
+        }
+        if (remaining == buffer.length) {
+          throw new CSVParsingException(
+              new IOException("csv line longer than " + BUFFER_SIZE + " bytes"));
+        }
+        System.arraycopy(buffer, lineStart, buffer, 0, remaining);
+        filled = remaining;
+      }
+    }
+    LogUtils.info("CSV PARSED :: records: " + decoder.rows + " from " + path);
+    return decoder.rows;
+  }
+
+  /**
+   * rows are decoded by position, so the header has to start with the date, open, high, low and
+   * close columns in that order; later columns such as volume are ignored
+   *
+   * @param header first line of the csv, null when the file is empty
+   */
+  public static void checkOHLCHeader(Path path, String header) {
+    if (Objects.isNull(header)) {
+      return;
+    }
+    String[] columns = header.replace("\uFEFF", "").strip().split(",");
+    boolean valid = columns.length >= OHLC_HEADER.length;
+    for (int i = 0; valid && i < OHLC_HEADER.length; i++) {
+      valid = OHLC_HEADER[i].equalsIgnoreCase(columns[i].strip());
+    }
+    if (!valid) {
+      throw new CSVParsingException(
+          new IOException(
+              "csv header of "
+                  + path
+                  + " is not "
+                  + String.join(",", OHLC_HEADER)
+                  + ": "
+                  + header.strip()));
+    }
+  }
+
+  private static class RowDecoder {
+    private final String format;
+    private final DateTimeFormatter formatter;
+    private final TimestampParser parser;
+    private final ZoneId zoneId;
+    private final OHLCRecordConsumer consumer;
+    private final double[] values = new double[OHLC_COLUMNS - 1];
+    private int rows;
+
+    private RowDecoder(String format, ZoneId zoneId, OHLCRecordConsumer consumer) {
+      this.format = format;
+      this.formatter =
+          Objects.isNull(format) || FIXED_TIMESTAMP_FORMAT.equals(format)
+              ? null
+              : DateTimeFormatter.ofPattern(format, Locale.ROOT);
+      this.parser = TimestampParser.of(zoneId);
+      this.zoneId = zoneId;
+      this.consumer = consumer;
+    }
+
+    private void decode(byte[] line, int start, int end) {
+      if (end > start && line[end - 1] == '\r') {
+        end--;
+      }
+      if (end == start) {
+        return;
+      }
+      int column = 0;
+      int fieldStart = start;
+      long timestamp = 0;
+      for (int i = start; i <= end && column < OHLC_COLUMNS; i++) {
+        if (i == end || line[i] == ',') {
+          if (column == 0) {
+            timestamp = parseTimestamp(line, fieldStart, i);
+          } else {
+            values[column - 1] = parseDouble(line, fieldStart, i);
+          }
+          column++;
+          fieldStart = i + 1;
+        }
+      }
+      if (column < OHLC_COLUMNS) {
+        throw new CSVParsingException(
+            new ParseException(new String(line, start, end - start, StandardCharsets.UTF_8), 0));
+      }
+      consumer.accept(timestamp, values[0], values[1], values[2], values[3]);
+      rows++;
+    }
+
+    private long parseTimestamp(byte[] line, int start, int end) {
+      if (Objects.isNull(format)) {
+        return parseLong(line, start, end);
+      }
+      if (Objects.isNull(formatter)) {
+        return parser.parseEpochMillis(line, start, end);
+      }
+      String text = new String(line, start, end - start, StandardCharsets.UTF_8);
+      try {
+        TemporalAccessor parsed = formatter.parseBest(text, LocalDateTime::from, LocalDate::from);
+        LocalDateTime local =
+            parsed instanceof LocalDateTime dateTime
+                ? dateTime
+                : ((LocalDate) parsed).atStartOfDay();
+        return local.atZone(zoneId).toInstant().toEpochMilli();
+      } catch (DateTimeParseException e) {
+        throw new CSVParsingException(e);
+      }
+    }
+
+    private static long parseLong(byte[] line, int start, int end) {
+      boolean negative = end > start && line[start] == '-';
+      long value = 0;
+      for (int i = negative ? start + 1 : start; i < end; i++) {
+        int digit = line[i] - '0';
+        if (digit < 0 || digit > 9) {
+          return Long.parseLong(
+              new String(line, start, end - start, StandardCharsets.UTF_8).trim());
+        }
+        value = value * 10 + digit;
+      }
+      return negative ? -value : value;
+    }
+
+    /**
+     * decodes plain decimals as mantissa / 10^scale, which is exact whenever both fit in a double;
+     * anything else falls back to Double.parseDouble
+     */
+    private static double parseDouble(byte[] line, int start, int end) {
+      int i = start;
+      boolean negative = false;
+      if (i < end && (line[i] == '-' || line[i] == '+')) {
+        negative = line[i] == '-';
+        i++;
+      }
+      long mantissa = 0;
+      int scale = -1;
+      int digitCount = 0;
+      for (; i < end; i++) {
+        byte b = line[i];
+        if (b == '.' && scale < 0) {
+          scale = 0;
+          continue;
+        }
+        int digit = b - '0';
+        if (digit < 0 || digit > 9 || mantissa >= MAX_EXACT_MANTISSA / 10) {
+          return Double.parseDouble(new String(line, start, end - start, StandardCharsets.UTF_8));
+        }
+        mantissa = mantissa * 10 + digit;
+        digitCount++;
+        if (scale >= 0) {
+          scale++;
+        }
+      }
+      if (digitCount == 0 || scale >= POWERS_OF_TEN.length) {
+        return Double.parseDouble(new String(line, start, end - start, StandardCharsets.UTF_8));
+      }
+      double value = scale > 0 ? mantissa / POWERS_OF_TEN[scale] : mantissa;
+      return negative ? -value : value;
+    }
+  }
+}
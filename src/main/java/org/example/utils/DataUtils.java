@@ -1,65 +1,189 @@
 package org.example.utils;
 
-import static java.util.stream.Collectors.toList;
-
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.text.SimpleDateFormat;
+import java.time.ZoneId;
 import java.util.*;
-import java.util.stream.Collectors;
-import org.example.enums.CSV;
-import org.example.enums.OrderSignal;
+import org.example.analytics.PerformanceTracker;
+import org.example.catalog.DatasetCatalog;
+import org.example.constants.ExchangeConstants;
+import org.example.engine.BarAggregator;
+import org.example.enums.DataIssue;
+import org.example.enums.MetricStage;
+import org.example.enums.RepairPolicy;
+import org.example.enums.ReportFormat;
+import org.example.enums.Timeframe;
 import org.example.exceptions.CSVParsingException;
+import org.example.models.DayIndex;
+import org.example.models.MonteCarloResult;
 import org.example.models.OHLCData;
-import org.example.models.OrderData;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.OptimizationResult;
 import org.example.models.TradeData;
+import org.example.models.ValidationParameters;
+import org.example.models.WalkForwardWindow;
+import org.example.reports.TradeReportWriter;
+import org.example.validation.DataValidator;
 
 public class DataUtils {
 
-  private static final String DATA_PATH = "data/";
-  private static final double DEFAULT_CAPITAL = 0.0;
-  private static final String OUTPUT_FOLDER = "output/";
+  private static final String DATA_PATH = System.getProperty("orb.data.path", "data/");
+  public static final String DEFAULT_SYMBOL =
+      System.getProperty("orb.symbol", "NIFTY 50 - Minute data");
+  private static DatasetCatalog datasetCatalog;
+  private static final Path OUTPUT_PATH =
+      Paths.get(System.getProperty("orb.output.path", "output"));
+  public static final ReportFormat DEFAULT_REPORT_FORMAT =
+      ReportFormat.valueOf(System.getProperty("orb.report.format", ReportFormat.CSV.name()));
+  public static final Timeframe DEFAULT_TIMEFRAME =
+      Timeframe.valueOf(System.getProperty("orb.timeframe", Timeframe.ONE_MINUTE.name()));
 
+  /**
+   * groups a time sorted bar list into trading days, in chronological order. Each value is a view
+   * of the input list, no bar is copied
+   */
   public static Map<Date, List<OHLCData>> getDayWiseOHLCData(List<OHLCData> ohlcDataList) {
-    return ohlcDataList.stream()
-        .collect(
-            Collectors.groupingBy(
-                (ohlcData -> {
-                  Calendar cal = Calendar.getInstance();
-                  cal.setTime(ohlcData.getTimestamp());
-                  cal.set(Calendar.HOUR_OF_DAY, 0);
-                  cal.set(Calendar.MINUTE, 0);
-                  cal.set(Calendar.SECOND, 0);
-                  cal.set(Calendar.MILLISECOND, 0);
-                  return cal.getTime();
-                }),
-                toList()));
-  }
-
-  public static List<OHLCData> readOHLCCsv(CSV csvFile) {
+    long start = MetricsUtils.startStage();
+    long allocated = MetricsUtils.allocatedBytes();
+    DayIndex dayIndex = getDayIndex(ohlcDataList);
+    Map<Date, List<OHLCData>> dayWiseOHLCData = new LinkedHashMap<>();
+    for (int day = 0; day < dayIndex.getDayCount(); day++) {
+      dayWiseOHLCData.put(
+          new Date(dayIndex.getDayStartTimestamp(day)),
+          ohlcDataList.subList(dayIndex.getDayStart(day), dayIndex.getDayEnd(day)));
+    }
+    MetricsUtils.endStage(MetricStage.GROUP, start, allocated);
+    return dayWiseOHLCData;
+  }
+
+  public static DayIndex getDayIndex(List<OHLCData> ohlcDataList) {
+    DayIndex dayIndex = new DayIndex(ExchangeConstants.EXCHANGE_ZONE_ID);
+    for (OHLCData ohlcData : ohlcDataList) {
+      dayIndex.add(ohlcData.getTimestamp().getTime());
+    }
+    dayIndex.trim();
+    return dayIndex;
+  }
+
+  /** folder of the per day result cache */
+  public static Path getResultCachePath() {
+    return Paths.get(DATA_PATH, "cache", "results");
+  }
+
+  /** catalog of the data folder, discovered on first use */
+  public static synchronized DatasetCatalog getDatasetCatalog() {
+    if (Objects.isNull(datasetCatalog)) {
+      datasetCatalog = new DatasetCatalog(Paths.get(DATA_PATH));
+    }
+    return datasetCatalog;
+  }
+
+  public static List<OHLCData> readOHLCCsv(String symbol) {
+    return readOHLCSeries(symbol).toOHLCDataList();
+  }
+
+  public static OHLCSeries readOHLCSeries(String symbol) {
+    return getDatasetCatalog().getSeries(symbol);
+  }
+
+  /** minute series of the symbol resampled to the timeframe, see -Dorb.timeframe */
+  public static OHLCSeries readOHLCSeries(String symbol, Timeframe timeframe) {
+    OHLCSeries series = readOHLCSeries(symbol);
+    if (timeframe == Timeframe.ONE_MINUTE) {
+      return series;
+    }
+    return BarAggregator.resample(series, timeframe).get(timeframe);
+  }
+
+  public static OHLCSeries readOHLCSeries(Path source, String format) {
+    return readOHLCSeries(source, format, ExchangeConstants.EXCHANGE_ZONE_ID);
+  }
+
+  public static OHLCSeries readOHLCSeries(Path source, String format, ZoneId zoneId) {
+    return readOHLCSeries(source, format, zoneId, getDefaultValidationParameters());
+  }
+
+  /**
+   * loads the series from the binary cache when it is fresh, otherwise parses and validates the
+   * csv; days with any of the skipped issues are marked unusable on the returned series
+   */
+  public static OHLCSeries readOHLCSeries(
+      Path source, String format, ZoneId zoneId, ValidationParameters validation) {
+    long start = MetricsUtils.startStage();
+    long allocated = MetricsUtils.allocatedBytes();
+    OHLCSeries series = SeriesCacheUtils.readCachedSeries(source, zoneId, validation);
+    if (Objects.isNull(series)) {
+      series = parseOHLCSeries(source, format, zoneId, validation);
+      SeriesCacheUtils.writeCachedSeries(source, series, validation);
+    }
+    series.setSkippedIssues(validation.getSkippedIssues());
+    MetricsUtils.endStage(MetricStage.LOAD, start, allocated);
+    return series;
+  }
+
+  public static OHLCSeries parseOHLCSeries(Path source, String format) {
+    return parseOHLCSeries(source, format, ExchangeConstants.EXCHANGE_ZONE_ID);
+  }
+
+  public static OHLCSeries parseOHLCSeries(Path source, String format, ZoneId zoneId) {
+    return parseOHLCSeries(source, format, zoneId, getDefaultValidationParameters());
+  }
+
+  public static OHLCSeries parseOHLCSeries(
+      Path source, String format, ZoneId zoneId, ValidationParameters validation) {
     try {
-      List<List<String>> records = getRecordsForCSV(csvFile);
-      convertTimestampForFormatter(records, csvFile.getFormat());
-      return convertRecordsToData(records);
+      long start = MetricsUtils.startStage();
+      long allocated = MetricsUtils.allocatedBytes();
+      OHLCSeries series = new OHLCSeries(zoneId);
+      DataValidator validator = new DataValidator(series, validation);
+      CSVUtils.readOHLCRecords(source, format, zoneId, validator);
+      validator.finish();
+      series.trim();
+      series.setSkippedIssues(validation.getSkippedIssues());
+      MetricsUtils.endStage(MetricStage.PARSE, start, allocated);
+      LogUtils.info(
+          "OHLC series loaded :: bars: " + series.size() + " days: " + series.getDayCount());
+      return series;
     } catch (Exception e) {
       throw new CSVParsingException(e);
     }
   }
 
-  private static List<OHLCData> convertRecordsToData(List<List<String>> records) {
-    List<OHLCData> ohlcDataList = new ArrayList<>();
-    for (List<String> record : records) {
-      OHLCData ohlcData = new OHLCData();
-      ohlcData.setTimestamp(new Date(Long.parseLong(record.get(0))));
-      ohlcData.setOpen(Double.parseDouble(record.get(1)));
-      ohlcData.setHigh(Double.parseDouble(record.get(2)));
-      ohlcData.setLow(Double.parseDouble(record.get(3)));
-      ohlcData.setClose(Double.parseDouble(record.get(4)));
-      ohlcDataList.add(ohlcData);
+  /** validation settings from the orb.validation.* system properties */
+  public static ValidationParameters getDefaultValidationParameters() {
+    ValidationParameters parameters = new ValidationParameters();
+    parameters.setPolicy(
+        RepairPolicy.valueOf(
+            System.getProperty("orb.validation.policy", parameters.getPolicy().name())));
+    parameters.setSessionStartMinute(
+        parseMinuteOfDay(
+            System.getProperty("orb.validation.sessionStart"), parameters.getSessionStartMinute()));
+    parameters.setSessionEndMinute(
+        parseMinuteOfDay(
+            System.getProperty("orb.validation.sessionEnd"), parameters.getSessionEndMinute()));
+    parameters.setHalfDayMinutes(
+        Integer.getInteger("orb.validation.halfDayMinutes", parameters.getHalfDayMinutes()));
+    parameters.setSpikePercent(
+        Double.parseDouble(
+            System.getProperty(
+                "orb.validation.spikePercent", String.valueOf(parameters.getSpikePercent()))));
+    String skip = System.getProperty("orb.validation.skip");
+    if (Objects.nonNull(skip)) {
+      parameters.setSkippedIssues(DataIssue.getMask(skip));
+    }
+    return parameters;
+  }
+
+  /** minutes from midnight of an HH:mm time, the default when it is not set */
+  private static int parseMinuteOfDay(String time, int defaultMinute) {
+    if (Objects.isNull(time)) {
+      return defaultMinute;
     }
-    return ohlcDataList;
+    String[] parts = time.strip().split(":");
+    return Integer.parseInt(parts[0]) * 60 + Integer.parseInt(parts[1]);
   }
 
   public static void makeOHLCListConsistent(List<OHLCData> ohlcDataList) {
@@ -68,105 +192,201 @@ public class DataUtils {
     }
   }
 
-  private static List<List<String>> getRecordsForCSV(CSV csvFile) {
-    try {
-      List<List<String>> records =
-          Files.readAllLines(Paths.get(DATA_PATH + csvFile.getValue())).stream()
-              .map(line -> Arrays.asList(line.split(",")))
-              .toList();
-      LogUtils.info("CSV PARSED :: records: " + records.getFirst() + " " + records.getLast());
-      records = records.stream().skip(1).toList();
-      return records;
+  public static void writeTradeDataToCSV(List<TradeData> tradeDataList) {
+    writeTradeDataToCSV(tradeDataList, getTradeReportPath(ReportFormat.CSV));
+  }
 
+  public static void writeTradeDataToCSV(List<TradeData> tradeDataList, Path file) {
+    writeTradeData(tradeDataList, file, ReportFormat.CSV);
+  }
+
+  public static void writeTradeData(List<TradeData> tradeDataList, Path file, ReportFormat format) {
+    long start = MetricsUtils.startStage();
+    long allocated = MetricsUtils.allocatedBytes();
+    try (TradeReportWriter writer = TradeReportWriter.open(file, format)) {
+      for (TradeData tradeData : tradeDataList) {
+        writer.write(tradeData);
+      }
+      logTradeReportSummary(writer);
     } catch (Exception e) {
       throw new CSVParsingException(e);
     }
+    MetricsUtils.endStage(MetricStage.REPORT, start, allocated);
   }
 
-  private static void convertTimestampForFormatter(List<List<String>> records, String format) {
-    LogUtils.info("Converting timestamp for format: " + format);
-    if (Objects.isNull(format)) {
-      return;
-    }
-    SimpleDateFormat formatter = new SimpleDateFormat(format);
+  /** folder of the reports, orb.output.path */
+  public static Path getOutputPath() {
+    return OUTPUT_PATH;
+  }
+
+  public static Path getTradeReportPath(ReportFormat format) {
+    return OUTPUT_PATH.resolve("Trade-Output " + new Date() + format.getExtension());
+  }
+
+  /** report path for one strategy or symbol of a multi strategy or multi symbol run */
+  public static Path getTradeReportPath(String name, ReportFormat format) {
+    return getTradeReportPath(OUTPUT_PATH, name, format);
+  }
+
+  public static Path getTradeReportPath(Path folder, String name, ReportFormat format) {
+    return folder.resolve("Trade-Output " + name + " " + new Date() + format.getExtension());
+  }
+
+  public static void logTradeReportSummary(TradeReportWriter writer) {
+    LogUtils.info("Strategy Success times :: " + writer.getSuccessTimes());
+    LogUtils.info("Strategy total trades :: " + writer.getTotalTrades());
+    logPerformanceSummary(writer.getPerformance());
+  }
+
+  public static void logPerformanceSummary(PerformanceTracker performance) {
+    LogUtils.info(
+        () ->
+            "Performance :: net profit: "
+                + performance.getNetProfit()
+                + " ("
+                + performance.getNetProfitPercent()
+                + "%) win rate: "
+                + performance.getWinRate()
+                + "% profit factor: "
+                + performance.getProfitFactor()
+                + " expectancy: "
+                + performance.getExpectancy()
+                + " max drawdown: "
+                + performance.getMaxDrawdown()
+                + " ("
+                + performance.getMaxDrawdownPercent()
+                + "%) sharpe: "
+                + performance.getSharpeRatio()
+                + " sortino: "
+                + performance.getSortinoRatio()
+                + " avg MAE: "
+                + performance.getAverageAdverseExcursion()
+                + " avg MFE: "
+                + performance.getAverageFavourableExcursion());
+    performance
+        .getMonthlyBreakdown()
+        .forEach((month, bucket) -> LogUtils.info(() -> "Performance " + month + " :: " + bucket));
+    performance
+        .getWeekdayBreakdown()
+        .forEach(
+            (dayOfWeek, bucket) ->
+                LogUtils.info(() -> "Performance " + dayOfWeek + " :: " + bucket));
+  }
+
+  public static void writeOptimizationResultsToCSV(List<OptimizationResult> results) {
     try {
-      for (List<String> record : records) {
-        record.set(0, String.valueOf(formatter.parse(record.get(0)).getTime()));
+      StringBuilder csvBuilder = new StringBuilder();
+      csvBuilder.append(
+          "Rank,Start,End,Risk Factor,Minutes Margin,Trades,Success Times,Win Rate %,Profit INR,"
+              + "Max Drawdown INR,Profit Factor,Expectancy INR,Sharpe,Sortino\n");
+      for (int i = 0; i < results.size(); i++) {
+        OptimizationResult result = results.get(i);
+        ORBAdvancedParameters parameters = result.getParameters();
+        csvBuilder
+            .append(i + 1)
+            .append(',')
+            .append(formatHourAndMinute(parameters.getStartHour(), parameters.getStartMinute()))
+            .append(',')
+            .append(formatHourAndMinute(parameters.getEndHour(), parameters.getEndMinute()))
+            .append(',')
+            .append(parameters.getRiskFactor())
+            .append(',')
+            .append(parameters.getMinutesMargin())
+            .append(',')
+            .append(result.getTotalTrades())
+            .append(',')
+            .append(result.getSuccessTimes())
+            .append(',')
+            .append(result.getWinRate())
+            .append(',')
+            .append(result.getProfit())
+            .append(',')
+            .append(result.getMaxDrawdown())
+            .append(',')
+            .append(result.getProfitFactor())
+            .append(',')
+            .append(result.getExpectancy())
+            .append(',')
+            .append(result.getSharpeRatio())
+            .append(',')
+            .append(result.getSortinoRatio())
+            .append('\n');
       }
+      Path fileName = OUTPUT_PATH.resolve("Optimizer-Output " + new Date() + ".csv");
+      PrintWriter writer = new PrintWriter(fileName.toFile(), StandardCharsets.UTF_8);
+      writer.print(csvBuilder);
+      writer.close();
     } catch (Exception e) {
       throw new CSVParsingException(e);
     }
   }
 
-  public static void writeTradeDataToCSV(List<TradeData> tradeDataList) {
+  public static void writeWalkForwardResultsToCSV(List<WalkForwardWindow> windows) {
     try {
-      double cumProfits = 0.0;
       StringBuilder csvBuilder = new StringBuilder();
-      csvBuilder.append("Trade #,Type,Signal,Timestamp,Price INR,Profit INR,Profit %,Cum. Profit INR,Cum. Profit %\n");
-      int successTimes = 0;
-      for (int i = 0; i < tradeDataList.size(); i++) {
-        csvBuilder.append(getCSVRowForTradeData(i + 1, tradeDataList.get(i), cumProfits));
-        cumProfits += tradeDataList.get(i).getProfit();
-        if(OrderSignal.BP.equals(tradeDataList.get(i).getExit().getSignal())) {
-          successTimes++;
-        }
+      csvBuilder.append(
+          "Window,Train Start Day,Train End Day,Test End Day,Start,End,Risk Factor,Minutes Margin,"
+              + "Train Profit INR,Test Profit INR,Test Trades\n");
+      for (int i = 0; i < windows.size(); i++) {
+        WalkForwardWindow window = windows.get(i);
+        ORBAdvancedParameters parameters = window.getParameters();
+        csvBuilder
+            .append(i + 1)
+            .append(',')
+            .append(window.getTrainStartDay())
+            .append(',')
+            .append(window.getTrainEndDay())
+            .append(',')
+            .append(window.getTestEndDay())
+            .append(',')
+            .append(formatHourAndMinute(parameters.getStartHour(), parameters.getStartMinute()))
+            .append(',')
+            .append(formatHourAndMinute(parameters.getEndHour(), parameters.getEndMinute()))
+            .append(',')
+            .append(parameters.getRiskFactor())
+            .append(',')
+            .append(parameters.getMinutesMargin())
+            .append(',')
+            .append(window.getTrainProfit())
+            .append(',')
+            .append(window.getTestProfit())
+            .append(',')
+            .append(window.getTestTrades().size())
+            .append('\n');
       }
-      LogUtils.info("Strategy Success times :: " + successTimes);
-      LogUtils.info("Strategy total trades :: " + tradeDataList.size());
-      String fileName = OUTPUT_FOLDER + "Trade-Output " + new Date() + ".csv";
-      PrintWriter writer = new PrintWriter(fileName, StandardCharsets.UTF_8);
-      writer.println(csvBuilder);
+      Path fileName = OUTPUT_PATH.resolve("WalkForward-Output " + new Date() + ".csv");
+      PrintWriter writer = new PrintWriter(fileName.toFile(), StandardCharsets.UTF_8);
+      writer.print(csvBuilder);
       writer.close();
     } catch (Exception e) {
       throw new CSVParsingException(e);
     }
   }
 
-  private static String getCSVRowForTradeData(
-      int tradeNumber, TradeData tradeData, double cumProfits) {
-    double cumProfitPercent =
-        (Math.abs(tradeData.getProfit()) / (DEFAULT_CAPITAL + Math.abs(cumProfits))) * 100;
-    cumProfits += tradeData.getProfit();
-    OrderData entryData = tradeData.getEntry();
-    String entryRow =
-        tradeNumber
-            + ","
-            + entryData.getType()
-            + ","
-            + entryData.getSignal()
-            + ","
-            + entryData.getTimestamp()
-            + ","
-            + entryData.getPrice()
-            + ","
-            + tradeData.getProfit()
-            + ","
-            + tradeData.getProfitPercent()
-            + ","
-            + cumProfits
-            + ","
-            + cumProfitPercent
-            + "\n";
-    OrderData exitData = tradeData.getExit();
-    String exitRow =
-        tradeNumber
-            + ","
-            + exitData.getType()
-            + ","
-            + exitData.getSignal()
-            + ","
-            + exitData.getTimestamp()
-            + ","
-            + exitData.getPrice()
-            + ","
-            + tradeData.getProfit()
-            + ","
-            + tradeData.getProfitPercent()
-            + ","
-            + cumProfits
-            + ","
-            + cumProfitPercent
-            + "\n";
-    return entryRow + exitRow;
+  public static void logMonteCarloSummary(MonteCarloResult result) {
+    LogUtils.info(
+        () ->
+            "Monte Carlo "
+                + result.getMode()
+                + " :: iterations: "
+                + result.getIterations()
+                + " profit p5/p50/p95: "
+                + MonteCarloUtils.percentile(result.getFinalProfits(), 5)
+                + " / "
+                + MonteCarloUtils.percentile(result.getFinalProfits(), 50)
+                + " / "
+                + MonteCarloUtils.percentile(result.getFinalProfits(), 95)
+                + " max drawdown p50/p95/p99: "
+                + MonteCarloUtils.percentile(result.getMaxDrawdowns(), 50)
+                + " / "
+                + MonteCarloUtils.percentile(result.getMaxDrawdowns(), 95)
+                + " / "
+                + MonteCarloUtils.percentile(result.getMaxDrawdowns(), 99)
+                + " probability of loss: "
+                + result.getProbabilityOfLoss());
+  }
+
+  private static String formatHourAndMinute(int hour, int minute) {
+    return String.format("%02d:%02d", hour, minute);
   }
 }
@@ -1,17 +1,20 @@
 package org.example.utils;
 
 import java.util.*;
+import org.example.enums.MetricStage;
 import org.example.models.OHLCData;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
 import org.example.models.ORBData;
 
 public class IndicatorUtils {
-  private static final int DEFAULT_START_HOUR = 9;
-  private static final int DEFAULT_START_MINUTE = 15;
-  private static final int DEFAULT_END_HOUR = 9;
-  private static final int DEFAULT_END_MINUTE = 29;
+  public static final int DEFAULT_START_HOUR = 9;
+  public static final int DEFAULT_START_MINUTE = 15;
+  public static final int DEFAULT_END_HOUR = 9;
+  public static final int DEFAULT_END_MINUTE = 29;
 
   public static Map<Date, ORBData> getDayWiseORBData(Map<Date, List<OHLCData>> dayWiseOHLCData) {
-    Map<Date, ORBData> orbDataMap = new HashMap<>();
+    Map<Date, ORBData> orbDataMap = new LinkedHashMap<>();
     for (Map.Entry<Date, List<OHLCData>> entry : dayWiseOHLCData.entrySet()) {
       ORBData orbData = getORBDataForDay(entry.getValue());
       orbDataMap.put(entry.getKey(), orbData);
@@ -19,6 +22,64 @@ public class IndicatorUtils {
     return orbDataMap;
   }
 
+  public static List<ORBData> getDayWiseORBData(OHLCSeries series) {
+    List<ORBData> orbDataList = new ArrayList<>(series.getDayCount());
+    for (int day = 0; day < series.getDayCount(); day++) {
+      orbDataList.add(getORBDataForDay(series, day));
+    }
+    return orbDataList;
+  }
+
+  public static ORBData getORBDataForDay(OHLCSeries series, int day) {
+    return getORBDataForDay(
+        series,
+        day,
+        DEFAULT_START_HOUR,
+        DEFAULT_START_MINUTE,
+        DEFAULT_END_HOUR,
+        DEFAULT_END_MINUTE);
+  }
+
+  public static ORBData getORBDataForDay(
+      OHLCSeries series, int day, ORBAdvancedParameters parameters) {
+    return getORBDataForDay(
+        series,
+        day,
+        parameters.getStartHour(),
+        parameters.getStartMinute(),
+        parameters.getEndHour(),
+        parameters.getEndMinute());
+  }
+
+  /**
+   * column based variant of {@link #getORBDataForDay(List, int, int, int, int)}, scans only the
+   * bars of the given day of the series. Bars are labelled with their start, so the window runs
+   * from the first bar starting at or after the start minute to the last bar starting at or before
+   * the end minute, which is the 09:29 bar on minute bars and the 09:25 bar on 5 minute bars
+   */
+  public static ORBData getORBDataForDay(
+      OHLCSeries series, int day, int startHour, int startMinute, int endHour, int endMinute) {
+    long start = MetricsUtils.startStage();
+    long allocated = MetricsUtils.allocatedBytes();
+    ORBData orbData = new ORBData();
+    int startIndex = getFirstIndexAtOrAfter(series, day, startHour * 60L + startMinute);
+    int endIndex =
+        Math.max(getLastIndexAtOrBefore(series, day, endHour * 60L + endMinute), startIndex);
+    double upper = Double.MIN_VALUE;
+    double lower = Double.MAX_VALUE;
+    for (int i = startIndex; i <= endIndex; i++) {
+      upper = Math.max(series.getHigh(i), upper);
+      lower = Math.min(series.getLow(i), lower);
+    }
+    orbData.setStart(new Date(series.getTimestamp(startIndex)));
+    orbData.setEnd(new Date(series.getTimestamp(endIndex)));
+    orbData.setUpper(upper);
+    orbData.setLower(lower);
+    LogUtils.debug(() -> "ORB Calculated: " + orbData);
+    MetricsUtils.endStage(MetricStage.ORB, start, allocated);
+    return orbData;
+  }
+
   public static ORBData getORBDataForDay(List<OHLCData> dayOHLCData) {
     return getORBDataForDay(
         dayOHLCData,
@@ -60,20 +121,39 @@ public class IndicatorUtils {
     orbData.setEnd(dayOHLCData.get(endIndex).getTimestamp());
     orbData.setUpper(upper);
     orbData.setLower(lower);
-    LogUtils.info("ORB Calculated: " + orbData);
+    LogUtils.debug(() -> "ORB Calculated: " + orbData);
     return orbData;
   }
 
+  /** minute of day lookups run in the exchange zone, whatever the zone of the host */
   private static Date getDateForHourAndMinute(List<OHLCData> dayOHLCData, int hour, int minute) {
-    Calendar cal = Calendar.getInstance();
+    TimestampParser parser = TimestampParser.exchange();
+    int minuteOfDay = hour * 60 + minute;
     return dayOHLCData.stream()
         .map(OHLCData::getTimestamp)
-        .filter(
-            date -> {
-              cal.setTime(date);
-              return cal.get(Calendar.HOUR_OF_DAY) == hour && cal.get(Calendar.MINUTE) == minute;
-            })
+        .filter(date -> parser.getMinuteOfDay(date.getTime()) == minuteOfDay)
         .findFirst()
         .orElse(dayOHLCData.getFirst().getTimestamp());
   }
+
+  /** first bar of the day starting at or after the minute of day, the first bar when none does */
+  private static int getFirstIndexAtOrAfter(OHLCSeries series, int day, long minuteOfDay) {
+    long timestamp = series.getDayStartTimestamp(day) + minuteOfDay * 60_000L;
+    for (int i = series.getDayStart(day); i < series.getDayEnd(day); i++) {
+      if (series.getTimestamp(i) >= timestamp) {
+        return i;
+      }
+    }
+    return series.getDayStart(day);
+  }
+
+  /** last bar of the day starting at or before the minute of day, the first bar when none does */
+  private static int getLastIndexAtOrBefore(OHLCSeries series, int day, long minuteOfDay) {
+    long timestamp = series.getDayStartTimestamp(day) + minuteOfDay * 60_000L;
+    int index = series.getDayStart(day);
+    for (int i = index; i < series.getDayEnd(day) && series.getTimestamp(i) <= timestamp; i++) {
+      index = i;
+    }
+    return index;
+  }
 }
@@ -0,0 +1,76 @@
+package org.example.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed size log linear histogram of nanosecond latencies in the spirit of HdrHistogram: values
+ * below {@link #SUB_BUCKETS} are counted exactly, larger ones are bucketed by their power of two
+ * and then linearly into {@link #SUB_BUCKETS} sub buckets, so a reported percentile is at most 1 /
+ * {@link #SUB_BUCKETS} above the recorded value. Recording is a couple of bit operations and one
+ * atomic add, it never allocates and is safe from any number of threads.
+ */
+class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAGNITUDES = 63 - SUB_BUCKET_BITS;
+
+  private final AtomicLongArray counts = new AtomicLongArray((MAGNITUDES + 1) * SUB_BUCKETS);
+  private final AtomicLong totalCount = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  void record(long value) {
+    long clamped = Math.max(value, 0);
+    counts.incrementAndGet(indexOf(clamped));
+    totalCount.incrementAndGet();
+    long currentMax = max.get();
+    while (clamped > currentMax && !max.compareAndSet(currentMax, clamped)) {
+      currentMax = max.get();
+    }
+  }
+
+  long getTotalCount() {
+    return totalCount.get();
+  }
+
+  long getMax() {
+    return max.get();
+  }
+
+  /** upper bound of the bucket holding the given percentile, 0 when nothing was recorded */
+  long getValueAtPercentile(double percentile) {
+    long total = totalCount.get();
+    if (total == 0) {
+      return 0;
+    }
+    long target = Math.max((long) Math.ceil((percentile / 100) * total), 1);
+    long seen = 0;
+    for (int i = 0; i < counts.length(); i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(highestValueOf(i), max.get());
+      }
+    }
+    return max.get();
+  }
+
+  private static int indexOf(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    // shift so that exactly SUB_BUCKET_BITS + 1 bits remain, i.e. a value in [SUB_BUCKETS, 2 *
+    // SUB_BUCKETS), whose low SUB_BUCKET_BITS bits pick the sub bucket
+    int magnitude = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS - 1;
+    int subBucket = (int) (value >>> magnitude) - SUB_BUCKETS;
+    return (magnitude + 1) * SUB_BUCKETS + subBucket;
+  }
+
+  private static long highestValueOf(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int magnitude = index / SUB_BUCKETS - 1;
+    long subBucket = index % SUB_BUCKETS + SUB_BUCKETS;
+    return ((subBucket + 1) << magnitude) - 1;
+  }
+}
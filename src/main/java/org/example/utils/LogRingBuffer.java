@@ -0,0 +1,76 @@
+package org.example.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import org.example.enums.LogLevel;
+
+/**
+ * Bounded lock free multi producer, single consumer ring of log entries. Each slot carries a
+ * sequence number that tells producers whether it is free and the consumer whether it is published
+ * (Vyukov's bounded queue), so neither side ever takes a lock.
+ */
+class LogRingBuffer {
+  private final int mask;
+  private final AtomicLongArray sequences;
+  private final long[] timestamps;
+  private final LogLevel[] levels;
+  private final String[] messages;
+  private final AtomicLong enqueuePosition = new AtomicLong();
+  private long dequeuePosition;
+
+  LogRingBuffer(int capacity) {
+    int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+    this.mask = size - 1;
+    this.sequences = new AtomicLongArray(size);
+    this.timestamps = new long[size];
+    this.levels = new LogLevel[size];
+    this.messages = new String[size];
+    for (int i = 0; i < size; i++) {
+      sequences.set(i, i);
+    }
+  }
+
+  /** returns false when the ring is full */
+  boolean offer(LogLevel level, long timestamp, String message) {
+    while (true) {
+      long position = enqueuePosition.get();
+      int slot = (int) (position & mask);
+      long difference = sequences.get(slot) - position;
+      if (difference == 0) {
+        if (enqueuePosition.compareAndSet(position, position + 1)) {
+          timestamps[slot] = timestamp;
+          levels[slot] = level;
+          messages[slot] = message;
+          // a full volatile write, so the producer's following read of the writer state cannot be
+          // reordered before the entry is visible to the consumer
+          sequences.set(slot, position + 1);
+          return true;
+        }
+      } else if (difference < 0) {
+        return false;
+      }
+    }
+  }
+
+  /** hands the oldest published entry to the consumer, only called from the writer thread */
+  boolean poll(LogEntryConsumer consumer) {
+    int slot = (int) (dequeuePosition & mask);
+    if (sequences.get(slot) != dequeuePosition + 1) {
+      return false;
+    }
+    consumer.accept(levels[slot], timestamps[slot], messages[slot]);
+    messages[slot] = null;
+    sequences.lazySet(slot, dequeuePosition + mask + 1);
+    dequeuePosition++;
+    return true;
+  }
+
+  boolean isEmpty() {
+    return sequences.get((int) (dequeuePosition & mask)) != dequeuePosition + 1;
+  }
+
+  @FunctionalInterface
+  interface LogEntryConsumer {
+    void accept(LogLevel level, long timestamp, String message);
+  }
+}
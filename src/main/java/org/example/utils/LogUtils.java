@@ -1,38 +1,190 @@
 package org.example.utils;
 
-import java.io.PrintWriter;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+import org.example.enums.LogLevel;
 
+/**
+ * Asynchronous logger. Callers only format a message when its level is enabled and publish it to a
+ * bounded lock free ring, a background thread drains the ring into rolling files under logs/, or
+ * orb.log.path. When the ring is full callers wait for the writer instead of growing memory.
+ */
 public class LogUtils {
-  private static final StringBuilder log = new StringBuilder();
-  private static final String LOG_FOLDER = "logs/";
+  private static final String LOG_FOLDER = System.getProperty("orb.log.path", "logs");
+  private static final int BUFFER_CAPACITY = Integer.getInteger("orb.log.buffer", 1 << 16);
+  private static final long MAX_FILE_BYTES =
+      Long.getLong("orb.log.maxFileBytes", 64L * 1024 * 1024);
+  private static final int MAX_FILES = Integer.getInteger("orb.log.maxFiles", 10);
+  private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private static final LogRingBuffer buffer = new LogRingBuffer(BUFFER_CAPACITY);
+  private static volatile LogLevel level =
+      LogLevel.valueOf(System.getProperty("orb.log.level", LogLevel.INFO.name()));
+  private static volatile Thread writerThread;
+  private static RollingLogWriter logWriter;
+  private static volatile boolean running;
+
+  public static LogLevel getLevel() {
+    return level;
+  }
+
+  public static void setLevel(LogLevel logLevel) {
+    level = logLevel;
+  }
+
+  public static boolean isEnabled(LogLevel logLevel) {
+    return logLevel.ordinal() >= level.ordinal();
+  }
+
+  public static void debug(Supplier<String> inputLog) {
+    if (isEnabled(LogLevel.DEBUG)) {
+      publish(LogLevel.DEBUG, inputLog.get());
+    }
+  }
+
+  public static void info(Supplier<String> inputLog) {
+    if (isEnabled(LogLevel.INFO)) {
+      publish(LogLevel.INFO, inputLog.get());
+    }
+  }
 
   public static void info(String inputLog) {
-    log.append("[INFO] :: Timestamp: ")
-        .append(new Date().toInstant())
-        .append(" :: ")
-        .append(inputLog)
-        .append("\n");
+    if (isEnabled(LogLevel.INFO)) {
+      publish(LogLevel.INFO, inputLog);
+    }
+  }
+
+  public static void warn(String inputLog) {
+    if (isEnabled(LogLevel.WARN)) {
+      publish(LogLevel.WARN, inputLog);
+    }
   }
 
   public static void error(String inputLog) {
-    log.append("[ERROR] :: Timestamp: ")
-        .append(new Date().toInstant())
-        .append(" :: ")
-        .append(inputLog)
-        .append("\n");
+    if (isEnabled(LogLevel.ERROR)) {
+      publish(LogLevel.ERROR, inputLog);
+    }
   }
 
-  public static void dumpLogFile() {
+  /** drains everything logged so far to disk and stops the writer, a later log starts a new file */
+  public static synchronized void dumpLogFile() {
+    Thread thread = writerThread;
+    if (thread == null) {
+      return;
+    }
+    running = false;
+    LockSupport.unpark(thread);
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    // entries published while the writer was stopping, the writer thread is gone so this thread
+    // is the only consumer
+    LogRingBuffer.LogEntryConsumer consumer = getLineConsumer(logWriter);
     try {
-      String fileName = LOG_FOLDER + "LOGFILE " + new Date() + ".txt";
-      PrintWriter writer = new PrintWriter(fileName, StandardCharsets.UTF_8);
-      writer.println(log);
-      writer.close();
+      while (buffer.poll(consumer)) {}
+      logWriter.close();
     } catch (Exception e) {
       e.printStackTrace();
       System.out.println("Cannot print the logfile");
     }
+    writerThread = null;
+    logWriter = null;
+  }
+
+  /**
+   * a producer that finds the writer stopped, before or after its offer, starts a new one, so no
+   * entry is left in the ring without a writer and a full ring never waits on a missing one
+   */
+  private static void publish(LogLevel logLevel, String message) {
+    long timestamp = System.currentTimeMillis();
+    while (!buffer.offer(logLevel, timestamp, message)) {
+      Thread thread = writerThread;
+      if (!running || thread == null) {
+        startWriter();
+      } else {
+        LockSupport.unpark(thread);
+      }
+      Thread.onSpinWait();
+    }
+    if (!running) {
+      startWriter();
+    }
+  }
+
+  private static synchronized void startWriter() {
+    if (running) {
+      return;
+    }
+    RollingLogWriter writer =
+        new RollingLogWriter(
+            Paths.get(LOG_FOLDER), "LOGFILE " + new Date(), MAX_FILE_BYTES, MAX_FILES);
+    Thread thread = new Thread(() -> drain(writer), "log-writer");
+    thread.setDaemon(true);
+    logWriter = writer;
+    writerThread = thread;
+    running = true;
+    thread.start();
+  }
+
+  private static LogRingBuffer.LogEntryConsumer getLineConsumer(RollingLogWriter writer) {
+    StringBuilder line = new StringBuilder();
+    return (logLevel, timestamp, message) -> {
+      line.setLength(0);
+      line.append('[')
+          .append(logLevel)
+          .append("] :: Timestamp: ")
+          .append(Instant.ofEpochMilli(timestamp))
+          .append(" :: ")
+          .append(message);
+      try {
+        writer.writeLine(line.toString());
+      } catch (Exception e) {
+        System.out.println("Cannot write the logfile :: " + e);
+      }
+    };
+  }
+
+  /**
+   * runs on the writer thread until stopped, the file is closed by {@link #dumpLogFile}; a failed
+   * write or flush is reported and the ring keeps draining, so producers never wait on a writer
+   * that has died
+   */
+  private static void drain(RollingLogWriter writer) {
+    LogRingBuffer.LogEntryConsumer consumer = getLineConsumer(writer);
+    boolean written = false;
+    try {
+      while (running || !buffer.isEmpty()) {
+        if (buffer.poll(consumer)) {
+          written = true;
+        } else {
+          if (written) {
+            written = false;
+            try {
+              writer.flush();
+            } catch (IOException e) {
+              System.out.println("Cannot flush the logfile :: " + e);
+            }
+          }
+          LockSupport.parkNanos(IDLE_PARK_NANOS);
+        }
+      }
+    } catch (RuntimeException e) {
+      // the next publish sees the writer stopped and starts a new one
+      running = false;
+      e.printStackTrace();
+      System.out.println("Cannot print the logfile");
+      try {
+        writer.close();
+      } catch (IOException closeException) {
+        System.out.println("Cannot close the logfile :: " + closeException);
+      }
+    }
   }
 }
@@ -0,0 +1,12 @@
+package org.example.utils;
+
+/** JMX view of {@link MetricsUtils}, registered as org.example:type=Metrics. */
+public interface MetricsMXBean {
+  long getBarsProcessed();
+
+  long getTradesOpened();
+
+  long getTradesClosed();
+
+  String getSummaryJson();
+}
@@ -0,0 +1,274 @@
+package org.example.utils;
+
+import com.sun.management.ThreadMXBean;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+import org.example.enums.MetricStage;
+import org.example.enums.OrderSignal;
+
+/**
+ * Pipeline instrumentation: wall time, calls and allocated bytes per stage, bar and trade
+ * counters, and the latency distribution of streamed bars. Everything is kept in striped adders
+ * and fixed arrays indexed by enum ordinal, so recording never allocates or contends; with
+ * orb.metrics=false the checks fold away and the hot loops pay nothing.
+ *
+ * <p>The summary is written as json next to the reports and can also be served over http on
+ * orb.metrics.port or through JMX with orb.metrics.jmx=true.
+ */
+public class MetricsUtils {
+  public static final boolean ENABLED =
+      Boolean.parseBoolean(System.getProperty("orb.metrics", "true"));
+  private static final String HTTP_PATH = "/metrics";
+
+  private static final ThreadMXBean threadBean = getThreadBean();
+  private static final LongAdder[] stageNanos = newAdders(MetricStage.values().length);
+  private static final LongAdder[] stageCalls = newAdders(MetricStage.values().length);
+  private static final LongAdder[] stageAllocatedBytes = newAdders(MetricStage.values().length);
+  private static final LongAdder barsProcessed = new LongAdder();
+  private static final LongAdder[] tradesOpened = newAdders(OrderSignal.values().length);
+  private static final LongAdder[] tradesClosed = newAdders(OrderSignal.values().length);
+  private static final LatencyHistogram barLatency = new LatencyHistogram();
+  private static HttpServer httpServer;
+
+  private static ThreadMXBean getThreadBean() {
+    if (ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean
+        && bean.isThreadAllocatedMemorySupported()) {
+      bean.setThreadAllocatedMemoryEnabled(true);
+      return bean;
+    }
+    return null;
+  }
+
+  private static LongAdder[] newAdders(int count) {
+    LongAdder[] adders = new LongAdder[count];
+    for (int i = 0; i < count; i++) {
+      adders[i] = new LongAdder();
+    }
+    return adders;
+  }
+
+  /** start time of a stage, pass it back to {@link #endStage} */
+  public static long startStage() {
+    return ENABLED ? System.nanoTime() : 0L;
+  }
+
+  /** bytes allocated so far by the calling thread, pass it back to {@link #endStage} */
+  public static long allocatedBytes() {
+    return ENABLED && Objects.nonNull(threadBean)
+        ? threadBean.getCurrentThreadAllocatedBytes()
+        : 0L;
+  }
+
+  /** must be called on the thread that started the stage for the allocation count to be right */
+  public static void endStage(MetricStage stage, long startNanos, long startAllocatedBytes) {
+    if (!ENABLED) {
+      return;
+    }
+    stageNanos[stage.ordinal()].add(System.nanoTime() - startNanos);
+    stageCalls[stage.ordinal()].increment();
+    if (Objects.nonNull(threadBean)) {
+      stageAllocatedBytes[stage.ordinal()].add(
+          threadBean.getCurrentThreadAllocatedBytes() - startAllocatedBytes);
+    }
+  }
+
+  /** counts bars handed to a strategy, batch callers add a whole day at once */
+  public static void addBarsProcessed(long bars) {
+    if (ENABLED) {
+      barsProcessed.add(bars);
+    }
+  }
+
+  public static void recordTradeOpened(OrderSignal signal) {
+    if (ENABLED) {
+      tradesOpened[signal.ordinal()].increment();
+    }
+  }
+
+  public static void recordTradeClosed(OrderSignal signal) {
+    if (ENABLED) {
+      tradesClosed[signal.ordinal()].increment();
+    }
+  }
+
+  /** processing time of one streamed bar, in nanoseconds */
+  public static void recordBarLatency(long nanos) {
+    if (ENABLED) {
+      barLatency.record(nanos);
+    }
+  }
+
+  public static long getBarsProcessed() {
+    return barsProcessed.sum();
+  }
+
+  public static long getTradesOpened() {
+    return sum(tradesOpened);
+  }
+
+  public static long getTradesClosed() {
+    return sum(tradesClosed);
+  }
+
+  private static long sum(LongAdder[] adders) {
+    long total = 0;
+    for (LongAdder adder : adders) {
+      total += adder.sum();
+    }
+    return total;
+  }
+
+  public static String getSummaryJson() {
+    StringBuilder json = new StringBuilder();
+    json.append("{\"stages\":{");
+    for (MetricStage stage : MetricStage.values()) {
+      if (stage.ordinal() > 0) {
+        json.append(',');
+      }
+      json.append('"')
+          .append(stage.name().toLowerCase())
+          .append("\":{\"calls\":")
+          .append(stageCalls[stage.ordinal()].sum())
+          .append(",\"totalMillis\":")
+          .append(stageNanos[stage.ordinal()].sum() / 1_000_000.0)
+          .append(",\"allocatedBytes\":")
+          .append(stageAllocatedBytes[stage.ordinal()].sum())
+          .append('}');
+    }
+    json.append("},\"barsProcessed\":").append(barsProcessed.sum());
+    appendSignalCounts(json.append(",\"tradesOpened\":"), tradesOpened);
+    appendSignalCounts(json.append(",\"tradesClosed\":"), tradesClosed);
+    json.append(",\"barLatencyNanos\":{\"count\":")
+        .append(barLatency.getTotalCount())
+        .append(",\"p50\":")
+        .append(barLatency.getValueAtPercentile(50))
+        .append(",\"p90\":")
+        .append(barLatency.getValueAtPercentile(90))
+        .append(",\"p99\":")
+        .append(barLatency.getValueAtPercentile(99))
+        .append(",\"p999\":")
+        .append(barLatency.getValueAtPercentile(99.9))
+        .append(",\"max\":")
+        .append(barLatency.getMax())
+        .append("}}");
+    return json.toString();
+  }
+
+  private static void appendSignalCounts(StringBuilder json, LongAdder[] counts) {
+    json.append('{');
+    boolean first = true;
+    for (OrderSignal signal : OrderSignal.values()) {
+      long count = counts[signal.ordinal()].sum();
+      if (count > 0) {
+        json.append(first ? "" : ",").append('"').append(signal.name()).append("\":").append(count);
+        first = false;
+      }
+    }
+    json.append('}');
+  }
+
+  /** writes the summary next to the reports, failures are logged and never abort a run */
+  public static void writeSummary() {
+    if (!ENABLED) {
+      return;
+    }
+    Path file = DataUtils.getOutputPath().resolve("Metrics " + new Date() + ".json");
+    try {
+      Files.writeString(file, getSummaryJson(), StandardCharsets.UTF_8);
+      LogUtils.info("Metrics written :: " + file);
+    } catch (IOException e) {
+      LogUtils.error("Cannot write metrics " + file + " :: " + e);
+    }
+  }
+
+  /** stops the http endpoint, its dispatcher thread would otherwise keep the jvm alive */
+  public static synchronized void stopEndpoints() {
+    if (Objects.nonNull(httpServer)) {
+      httpServer.stop(0);
+      httpServer = null;
+    }
+  }
+
+  /**
+   * publishes the summary on http://localhost:port/metrics when orb.metrics.port is set and as an
+   * MXBean when orb.metrics.jmx is true; call {@link #stopEndpoints()} when done
+   */
+  public static synchronized void startEndpoints() {
+    if (!ENABLED) {
+      return;
+    }
+    Integer port = Integer.getInteger("orb.metrics.port");
+    if (Objects.nonNull(port) && Objects.isNull(httpServer)) {
+      try {
+        httpServer =
+            HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        httpServer.createContext(
+            HTTP_PATH,
+            exchange -> {
+              byte[] body = getSummaryJson().getBytes(StandardCharsets.UTF_8);
+              exchange.getResponseHeaders().set("Content-Type", "application/json");
+              exchange.sendResponseHeaders(200, body.length);
+              try (OutputStream output = exchange.getResponseBody()) {
+                output.write(body);
+              }
+            });
+        httpServer.setExecutor(
+            Executors.newSingleThreadExecutor(
+                runnable -> {
+                  Thread thread = new Thread(runnable, "metrics-http");
+                  thread.setDaemon(true);
+                  return thread;
+                }));
+        httpServer.start();
+        LogUtils.info("Metrics endpoint :: http://localhost:" + port + HTTP_PATH);
+      } catch (IOException e) {
+        LogUtils.error("Cannot start metrics endpoint :: " + e);
+      }
+    }
+    if (Boolean.getBoolean("orb.metrics.jmx")) {
+      try {
+        ObjectName name = new ObjectName("org.example:type=Metrics");
+        if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+          ManagementFactory.getPlatformMBeanServer()
+              .registerMBean(
+                  new MetricsMXBean() {
+                    @Override
+                    public long getBarsProcessed() {
+                      return MetricsUtils.getBarsProcessed();
+                    }
+
+                    @Override
+                    public long getTradesOpened() {
+                      return MetricsUtils.getTradesOpened();
+                    }
+
+                    @Override
+                    public long getTradesClosed() {
+                      return MetricsUtils.getTradesClosed();
+                    }
+
+                    @Override
+                    public String getSummaryJson() {
+                      return MetricsUtils.getSummaryJson();
+                    }
+                  },
+                  name);
+        }
+      } catch (Exception e) {
+        LogUtils.error("Cannot register metrics MXBean :: " + e);
+      }
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package org.example.utils;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import org.example.enums.MonteCarloMode;
+import org.example.models.MonteCarloResult;
+import org.example.models.TradeData;
+
+/**
+ * Monte Carlo resampling of a completed trade sequence. Only the trade profits are resampled, the
+ * strategy is never re-run. Iterations are split into chunks that run in parallel, each chunk
+ * reuses one scratch array, and every iteration has its own random stream derived from the seed so
+ * the result does not depend on the parallelism.
+ */
+public class MonteCarloUtils {
+  private static final int CHUNK_SIZE = 64;
+
+  public static MonteCarloResult simulate(
+      List<TradeData> tradeDataList,
+      MonteCarloMode mode,
+      int iterations,
+      long seed,
+      int parallelism) {
+    double[] profits = new double[tradeDataList.size()];
+    for (int i = 0; i < profits.length; i++) {
+      profits[i] = tradeDataList.get(i).getProfit();
+    }
+    double[] finalProfits = new double[iterations];
+    double[] maxDrawdowns = new double[iterations];
+    int chunks = (iterations + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    OptimizerUtils.runInPool(
+        parallelism,
+        () -> {
+          IntStream.range(0, chunks)
+              .parallel()
+              .forEach(
+                  chunk -> {
+                    double[] path = new double[profits.length];
+                    int end = Math.min((chunk + 1) * CHUNK_SIZE, iterations);
+                    for (int iteration = chunk * CHUNK_SIZE; iteration < end; iteration++) {
+                      resample(profits, path, mode, new SplittableRandom(seed + iteration));
+                      simulatePath(path, iteration, finalProfits, maxDrawdowns);
+                    }
+                  });
+          return null;
+        });
+    int losses = 0;
+    for (double finalProfit : finalProfits) {
+      if (finalProfit < 0) {
+        losses++;
+      }
+    }
+    Arrays.sort(finalProfits);
+    Arrays.sort(maxDrawdowns);
+    MonteCarloResult result = new MonteCarloResult();
+    result.setMode(mode);
+    result.setIterations(iterations);
+    result.setFinalProfits(finalProfits);
+    result.setMaxDrawdowns(maxDrawdowns);
+    result.setProbabilityOfLoss(iterations == 0 ? 0.0 : (double) losses / iterations);
+    return result;
+  }
+
+  /** value below which the given percent of a sorted distribution falls, nearest rank */
+  public static double percentile(double[] sortedValues, double percent) {
+    if (sortedValues.length == 0) {
+      return 0.0;
+    }
+    int rank = (int) Math.ceil((percent / 100) * sortedValues.length);
+    return sortedValues[Math.min(Math.max(rank - 1, 0), sortedValues.length - 1)];
+  }
+
+  private static void resample(
+      double[] profits, double[] path, MonteCarloMode mode, SplittableRandom random) {
+    switch (mode) {
+      case BOOTSTRAP -> {
+        for (int i = 0; i < path.length; i++) {
+          path[i] = profits[random.nextInt(profits.length)];
+        }
+      }
+      case PERMUTATION -> {
+        System.arraycopy(profits, 0, path, 0, profits.length);
+        for (int i = path.length - 1; i > 0; i--) {
+          int j = random.nextInt(i + 1);
+          double swap = path[i];
+          path[i] = path[j];
+          path[j] = swap;
+        }
+      }
+    }
+  }
+
+  private static void simulatePath(
+      double[] path, int iteration, double[] finalProfits, double[] maxDrawdowns) {
+    double profit = 0.0;
+    double peak = 0.0;
+    double maxDrawdown = 0.0;
+    for (double tradeProfit : path) {
+      profit += tradeProfit;
+      peak = Math.max(peak, profit);
+      maxDrawdown = Math.max(maxDrawdown, peak - profit);
+    }
+    finalProfits[iteration] = profit;
+    maxDrawdowns[iteration] = maxDrawdown;
+  }
+}
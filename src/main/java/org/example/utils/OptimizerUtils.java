@@ -0,0 +1,239 @@
+package org.example.utils;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.example.analytics.PerformanceTracker;
+import org.example.engine.ORBSweep;
+import org.example.exceptions.TradeException;
+import org.example.models.ExecutionParameters;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.ORBData;
+import org.example.models.OptimizationResult;
+import org.example.models.TradeData;
+import org.example.models.TradeLog;
+
+/**
+ * Grid and random parameter sweeps for ORB Advanced. The series is loaded once and only read by the
+ * workers, ORB values are computed once per distinct window and shared by every parameter set using
+ * that window, and each worker runs its share of the sets over one pass of the bars.
+ */
+public class OptimizerUtils {
+
+  /** every combination of the given values, with the ATR stop and execution of a plain run */
+  public static List<ORBAdvancedParameters> getParameterGrid(
+      List<int[]> orbWindows, List<Double> riskFactors, List<Integer> minutesMargins) {
+    ORBAdvancedParameters defaults = StrategyUtils.getDefaultORBAdvancedParameters();
+    ExecutionParameters execution = defaults.getExecution();
+    List<ORBAdvancedParameters> grid = new ArrayList<>();
+    for (int[] orbWindow : orbWindows) {
+      for (double riskFactor : riskFactors) {
+        for (int minutesMargin : minutesMargins) {
+          ORBAdvancedParameters parameters = new ORBAdvancedParameters();
+          parameters.setStartHour(orbWindow[0]);
+          parameters.setStartMinute(orbWindow[1]);
+          parameters.setEndHour(orbWindow[2]);
+          parameters.setEndMinute(orbWindow[3]);
+          parameters.setRiskFactor(riskFactor);
+          parameters.setMinutesMargin(minutesMargin);
+          parameters.setAtrPeriod(defaults.getAtrPeriod());
+          parameters.setAtrStopMultiplier(defaults.getAtrStopMultiplier());
+          parameters.setExecution(execution);
+          grid.add(StrategyUtils.checkATRStop(parameters));
+        }
+      }
+    }
+    return grid;
+  }
+
+  /** draws count distinct parameter sets from the grid, reproducible for a given seed */
+  public static List<ORBAdvancedParameters> getRandomParameters(
+      List<ORBAdvancedParameters> grid, int count, long seed) {
+    List<ORBAdvancedParameters> shuffled = new ArrayList<>(grid);
+    Collections.shuffle(shuffled, new Random(seed));
+    return shuffled.subList(0, Math.min(count, shuffled.size()));
+  }
+
+  /**
+   * backtests every parameter set over the whole series and returns the results ranked by profit,
+   * best first
+   */
+  public static List<OptimizationResult> optimize(
+      OHLCSeries series, List<ORBAdvancedParameters> parameterList, int parallelism) {
+    int[][] dayEnds = new int[parameterList.size()][];
+    List<TradeLog> tradeLogs = sweep(series, parameterList, parallelism, dayEnds);
+    List<OptimizationResult> results = new ArrayList<>(parameterList.size());
+    for (int set = 0; set < parameterList.size(); set++) {
+      results.add(evaluate(series, tradeLogs.get(set), parameterList.get(set)));
+    }
+    results.sort(Comparator.comparingDouble(OptimizationResult::getProfit).reversed());
+    return results;
+  }
+
+  /**
+   * trades of every parameter set for every day, indexed [parameter set][day]; computed once so
+   * walk forward windows and resampling can reuse them instead of re-running the strategy
+   */
+  public static List<List<List<TradeData>>> getDayWiseTrades(
+      OHLCSeries series, List<ORBAdvancedParameters> parameterList, int parallelism) {
+    int[][] dayEnds = new int[parameterList.size()][];
+    List<TradeLog> tradeLogs = sweep(series, parameterList, parallelism, dayEnds);
+    List<List<List<TradeData>>> dayWiseTrades = new ArrayList<>(parameterList.size());
+    for (int set = 0; set < parameterList.size(); set++) {
+      List<List<TradeData>> setTrades = new ArrayList<>(series.getDayCount());
+      for (int day = 0; day < series.getDayCount(); day++) {
+        int first = day == 0 ? 0 : dayEnds[set][day - 1];
+        setTrades.add(tradeLogs.get(set).toTradeDataList(first, dayEnds[set][day]));
+      }
+      dayWiseTrades.add(setTrades);
+    }
+    return dayWiseTrades;
+  }
+
+  /**
+   * runs the parameter sets as one {@link ORBSweep} per worker, each walks the bars once for all of
+   * its sets. Returns the trade log of every set and fills dayEnds[set][day] with the size of that
+   * log after the day
+   */
+  private static List<TradeLog> sweep(
+      OHLCSeries series,
+      List<ORBAdvancedParameters> parameterList,
+      int parallelism,
+      int[][] dayEnds) {
+    Map<List<Integer>, List<ORBData>> orbDataCache = getORBDataCache(series, parameterList);
+    Map<Integer, double[]> atrCache = getATRCache(series, parameterList);
+    int workers = Math.max(Math.min(parallelism, parameterList.size()), 1);
+    int chunkSize = (parameterList.size() + workers - 1) / workers;
+    return runInPool(
+        parallelism,
+        () ->
+            IntStream.range(0, workers)
+                .parallel()
+                .mapToObj(
+                    worker -> {
+                      int first = Math.min(worker * chunkSize, parameterList.size());
+                      int last = Math.min(first + chunkSize, parameterList.size());
+                      List<ORBAdvancedParameters> chunk = parameterList.subList(first, last);
+                      ORBSweep sweep =
+                          new ORBSweep(
+                              series,
+                              chunk,
+                              chunk.stream()
+                                  .map(parameters -> orbDataCache.get(getORBWindow(parameters)))
+                                  .toList(),
+                              chunk.stream()
+                                  .map(parameters -> getATR(atrCache, parameters))
+                                  .toList());
+                      for (int set = 0; set < sweep.size(); set++) {
+                        dayEnds[first + set] = new int[series.getDayCount()];
+                      }
+                      List<TradeLog> tradeLogs = new ArrayList<>(sweep.size());
+                      for (int day = 0; day < series.getDayCount(); day++) {
+                        sweep.runDay(day);
+                        for (int set = 0; set < sweep.size(); set++) {
+                          dayEnds[first + set][day] = sweep.getTradeLog(set).size();
+                        }
+                      }
+                      for (int set = 0; set < sweep.size(); set++) {
+                        tradeLogs.add(sweep.getTradeLog(set));
+                      }
+                      return tradeLogs;
+                    })
+                .flatMap(List::stream)
+                .toList());
+  }
+
+  /** runs the task on a dedicated pool of the given size, its parallel streams stay on it */
+  static <T> T runInPool(int parallelism, Callable<T> task) {
+    ForkJoinPool pool = new ForkJoinPool(Math.max(parallelism, 1));
+    try {
+      return pool.submit(task).get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new TradeException(e.getCause().getMessage(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TradeException(e.getMessage(), e);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /** ORB values once per distinct window, shared by every parameter set using that window */
+  private static Map<List<Integer>, List<ORBData>> getORBDataCache(
+      OHLCSeries series, List<ORBAdvancedParameters> parameterList) {
+    Map<List<Integer>, List<ORBData>> orbDataCache = new HashMap<>();
+    for (ORBAdvancedParameters parameters : parameterList) {
+      orbDataCache.computeIfAbsent(
+          getORBWindow(parameters), window -> getDayWiseORBData(series, parameters));
+    }
+    return orbDataCache;
+  }
+
+  /** ATR columns of the parameter sets using the ATR scaled stop, once per period */
+  private static Map<Integer, double[]> getATRCache(
+      OHLCSeries series, List<ORBAdvancedParameters> parameterList) {
+    Map<Integer, double[]> atrCache = new HashMap<>();
+    for (ORBAdvancedParameters parameters : parameterList) {
+      if (parameters.getAtrStopMultiplier() > 0) {
+        atrCache.computeIfAbsent(
+            parameters.getAtrPeriod(),
+            period -> StrategyUtils.getATRForStopLoss(series, parameters));
+      }
+    }
+    return atrCache;
+  }
+
+  private static double[] getATR(
+      Map<Integer, double[]> atrCache, ORBAdvancedParameters parameters) {
+    return parameters.getAtrStopMultiplier() > 0 ? atrCache.get(parameters.getAtrPeriod()) : null;
+  }
+
+  private static List<Integer> getORBWindow(ORBAdvancedParameters parameters) {
+    return List.of(
+        parameters.getStartHour(),
+        parameters.getStartMinute(),
+        parameters.getEndHour(),
+        parameters.getEndMinute());
+  }
+
+  private static List<ORBData> getDayWiseORBData(
+      OHLCSeries series, ORBAdvancedParameters parameters) {
+    List<ORBData> orbDataList = new ArrayList<>(series.getDayCount());
+    for (int day = 0; day < series.getDayCount(); day++) {
+      orbDataList.add(IndicatorUtils.getORBDataForDay(series, day, parameters));
+    }
+    return orbDataList;
+  }
+
+  private static OptimizationResult evaluate(
+      OHLCSeries series, TradeLog tradeLog, ORBAdvancedParameters parameters) {
+    PerformanceTracker performance =
+        new PerformanceTracker(PerformanceTracker.DEFAULT_CAPITAL, series.getZoneId(), false);
+    for (int i = 0; i < tradeLog.size(); i++) {
+      performance.add(
+          tradeLog.getExitTimestamp(i),
+          tradeLog.getExitSignal(i),
+          tradeLog.getProfit(i),
+          tradeLog.getMaxAdverseExcursion(i),
+          tradeLog.getMaxFavourableExcursion(i));
+    }
+    OptimizationResult result = new OptimizationResult();
+    result.setParameters(parameters);
+    result.setTotalTrades(performance.getTotalTrades());
+    result.setSuccessTimes(performance.getSuccessTimes());
+    result.setProfit(performance.getNetProfit());
+    result.setWinRate(performance.getWinRate());
+    result.setMaxDrawdown(performance.getMaxDrawdown());
+    result.setProfitFactor(performance.getProfitFactor());
+    result.setExpectancy(performance.getExpectancy());
+    result.setSharpeRatio(performance.getSharpeRatio());
+    result.setSortinoRatio(performance.getSortinoRatio());
+    return result;
+  }
+}
@@ -0,0 +1,72 @@
+package org.example.utils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Appends log lines to numbered part files, starting a new part once the current one reaches the
+ * size limit and deleting parts older than the retention count.
+ */
+class RollingLogWriter {
+  private final Path folder;
+  private final String baseName;
+  private final long maxFileBytes;
+  private final int maxFiles;
+  private BufferedWriter writer;
+  private long writtenBytes;
+  private int part;
+
+  RollingLogWriter(Path folder, String baseName, long maxFileBytes, int maxFiles) {
+    this.folder = folder;
+    this.baseName = baseName;
+    this.maxFileBytes = maxFileBytes;
+    this.maxFiles = Math.max(maxFiles, 1);
+  }
+
+  void writeLine(String line) throws IOException {
+    if (writer == null || writtenBytes >= maxFileBytes) {
+      roll();
+    }
+    writer.write(line);
+    writer.newLine();
+    writtenBytes += line.length() + 1;
+  }
+
+  void flush() throws IOException {
+    if (writer != null) {
+      writer.flush();
+    }
+  }
+
+  void close() throws IOException {
+    if (writer != null) {
+      writer.close();
+      writer = null;
+    }
+  }
+
+  private void roll() throws IOException {
+    close();
+    Files.createDirectories(folder);
+    part++;
+    // appends, a writer started again within the same second reuses the file name
+    writer =
+        Files.newBufferedWriter(
+            getPartPath(part),
+            StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.APPEND);
+    writtenBytes = 0;
+    if (part > maxFiles) {
+      Files.deleteIfExists(getPartPath(part - maxFiles));
+    }
+  }
+
+  private Path getPartPath(int part) {
+    return folder.resolve(part == 1 ? baseName + ".txt" : baseName + " part-" + part + ".txt");
+  }
+}
@@ -0,0 +1,220 @@
+package org.example.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.zip.CRC32C;
+import org.example.models.DayIndex;
+import org.example.models.OHLCSeries;
+import org.example.models.ValidationParameters;
+
+/**
+ * Binary column snapshot of a parsed and validated OHLC series. The snapshot sits next to the
+ * source csv and carries the source size, modification time and a checksum of its head and tail,
+ * so any change to the csv makes it stale and it is rebuilt on the next load. It also carries the
+ * day quality bitmap and a key of the validation settings that shaped the repaired bars.
+ */
+public class SeriesCacheUtils {
+  private static final String CACHE_FOLDER = "cache";
+  private static final String CACHE_EXTENSION = ".ohlc";
+  private static final int MAGIC = 0x4F484C43;
+  private static final int VERSION = 3;
+  private static final int FINGERPRINT_CHUNK = 1 << 20;
+  private static final int MAX_ZONE_ID_BYTES = 64;
+  private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 4 + MAX_ZONE_ID_BYTES + 4 + 4 + 4;
+
+  public static Path getCachePath(Path source) {
+    Path folder = source.toAbsolutePath().getParent().resolve(CACHE_FOLDER);
+    return folder.resolve(source.getFileName() + CACHE_EXTENSION);
+  }
+
+  /**
+   * returns the cached series for the source csv, or null when there is no snapshot or it no
+   * longer matches the source
+   */
+  public static OHLCSeries readCachedSeries(
+      Path source, ZoneId zoneId, ValidationParameters validation) {
+    Path cachePath = getCachePath(source);
+    if (!Files.exists(cachePath)) {
+      return null;
+    }
+    try (FileChannel channel = FileChannel.open(cachePath, StandardOpenOption.READ)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      buffer.order(ByteOrder.LITTLE_ENDIAN);
+      if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+        LogUtils.info("Series cache format mismatch :: " + cachePath);
+        return null;
+      }
+      BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+      long size = buffer.getLong();
+      long modified = buffer.getLong();
+      long checksum = buffer.getLong();
+      String cachedZone = readZoneId(buffer);
+      int validationKey = buffer.getInt();
+      if (size != attributes.size()
+          || modified != attributes.lastModifiedTime().toMillis()
+          || checksum != fingerprint(source, size)
+          || !zoneId.getId().equals(cachedZone)
+          || validationKey != getValidationKey(validation)) {
+        LogUtils.info("Series cache stale :: " + cachePath);
+        return null;
+      }
+      int bars = buffer.getInt();
+      int days = buffer.getInt();
+      long[] timestamps = new long[bars];
+      double[] open = new double[bars];
+      double[] high = new double[bars];
+      double[] low = new double[bars];
+      double[] close = new double[bars];
+      long[] dayStartTimestamps = new long[days];
+      int[] dayOffsets = new int[days + 1];
+      byte[] dayQuality = new byte[days];
+      buffer.asLongBuffer().get(timestamps);
+      buffer.position(buffer.position() + bars * Long.BYTES);
+      readColumn(buffer, open);
+      readColumn(buffer, high);
+      readColumn(buffer, low);
+      readColumn(buffer, close);
+      buffer.asLongBuffer().get(dayStartTimestamps);
+      buffer.position(buffer.position() + days * Long.BYTES);
+      buffer.asIntBuffer().get(dayOffsets);
+      buffer.position(buffer.position() + (days + 1) * Integer.BYTES);
+      buffer.get(dayQuality);
+      LogUtils.info("Series cache hit :: " + cachePath + " bars: " + bars);
+      DayIndex dayIndex = new DayIndex(zoneId, dayStartTimestamps, dayOffsets, dayQuality);
+      return new OHLCSeries(dayIndex, timestamps, open, high, low, close);
+    } catch (Exception e) {
+      LogUtils.error("Cannot read series cache " + cachePath + " :: " + e);
+      return null;
+    }
+  }
+
+  /** writes the snapshot for the source csv, failures are logged and never abort a run */
+  public static void writeCachedSeries(
+      Path source, OHLCSeries series, ValidationParameters validation) {
+    Path cachePath = getCachePath(source);
+    try {
+      Files.createDirectories(cachePath.getParent());
+      BasicFileAttributes attributes = Files.readAttributes(source, BasicFileAttributes.class);
+      int bars = series.size();
+      int days = series.getDayCount();
+      long length =
+          HEADER_SIZE
+              + (long) bars * (Long.BYTES + 4 * Double.BYTES)
+              + (long) days * Long.BYTES
+              + (long) (days + 1) * Integer.BYTES
+              + days;
+      Path temporary = cachePath.resolveSibling(cachePath.getFileName() + ".tmp");
+      try (FileChannel channel =
+          FileChannel.open(
+              temporary,
+              StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING,
+              StandardOpenOption.READ,
+              StandardOpenOption.WRITE)) {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION);
+        buffer.putLong(attributes.size());
+        buffer.putLong(attributes.lastModifiedTime().toMillis());
+        buffer.putLong(fingerprint(source, attributes.size()));
+        writeZoneId(buffer, series.getZoneId());
+        buffer.putInt(getValidationKey(validation));
+        buffer.putInt(bars).putInt(days);
+        for (int i = 0; i < bars; i++) {
+          buffer.putLong(series.getTimestamp(i));
+        }
+        for (int i = 0; i < bars; i++) {
+          buffer.putDouble(series.getOpen(i));
+        }
+        for (int i = 0; i < bars; i++) {
+          buffer.putDouble(series.getHigh(i));
+        }
+        for (int i = 0; i < bars; i++) {
+          buffer.putDouble(series.getLow(i));
+        }
+        for (int i = 0; i < bars; i++) {
+          buffer.putDouble(series.getClose(i));
+        }
+        for (int day = 0; day < days; day++) {
+          buffer.putLong(series.getDayStartTimestamp(day));
+        }
+        for (int day = 0; day < days; day++) {
+          buffer.putInt(series.getDayStart(day));
+        }
+        buffer.putInt(days == 0 ? 0 : series.getDayEnd(days - 1));
+        for (int day = 0; day < days; day++) {
+          buffer.put((byte) series.getDayQuality(day));
+        }
+        buffer.force();
+      }
+      Files.move(
+          temporary,
+          cachePath,
+          StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      LogUtils.info("Series cache written :: " + cachePath);
+    } catch (Exception e) {
+      LogUtils.error("Cannot write series cache " + cachePath + " :: " + e);
+    }
+  }
+
+  /**
+   * the settings that change the stored bars or their quality, the skipped issues do not; the
+   * policy goes in by name since enum hash codes differ between runs
+   */
+  private static int getValidationKey(ValidationParameters validation) {
+    return Objects.hash(
+        validation.getPolicy().name(),
+        validation.getSessionStartMinute(),
+        validation.getSessionEndMinute(),
+        validation.getHalfDayMinutes(),
+        validation.getSpikePercent());
+  }
+
+  private static void readColumn(ByteBuffer buffer, double[] column) {
+    buffer.asDoubleBuffer().get(column);
+    buffer.position(buffer.position() + column.length * Double.BYTES);
+  }
+
+  private static void writeZoneId(ByteBuffer buffer, ZoneId zoneId) {
+    byte[] zone = zoneId.getId().getBytes(StandardCharsets.UTF_8);
+    int length = Math.min(zone.length, MAX_ZONE_ID_BYTES);
+    buffer.putInt(length);
+    buffer.put(zone, 0, length);
+    buffer.position(buffer.position() + MAX_ZONE_ID_BYTES - length);
+  }
+
+  private static String readZoneId(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    byte[] zone = new byte[MAX_ZONE_ID_BYTES];
+    buffer.get(zone);
+    return new String(zone, 0, Math.min(length, MAX_ZONE_ID_BYTES), StandardCharsets.UTF_8);
+  }
+
+  /** checksum over the first and last chunk of the source, cheap even for very large files */
+  private static long fingerprint(Path source, long size) throws IOException {
+    CRC32C crc = new CRC32C();
+    try (FileChannel channel = FileChannel.open(source, StandardOpenOption.READ)) {
+      ByteBuffer chunk = ByteBuffer.allocate(FINGERPRINT_CHUNK);
+      channel.read(chunk, 0);
+      crc.update(chunk.flip());
+      if (size > FINGERPRINT_CHUNK) {
+        chunk.clear();
+        channel.read(chunk, Math.max(size - FINGERPRINT_CHUNK, FINGERPRINT_CHUNK));
+        crc.update(chunk.flip());
+      }
+    }
+    return crc.getValue();
+  }
+}
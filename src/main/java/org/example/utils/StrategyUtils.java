@@ -3,16 +3,71 @@ package org.example.utils;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.IntStream;
+import org.example.cache.DayResultCache;
+import org.example.engine.ORBTradeMachine;
+import org.example.enums.MetricStage;
 import org.example.enums.OrderSignal;
 import org.example.enums.OrderType;
+import org.example.exceptions.TradeException;
+import org.example.execution.ExecutionSimulator;
 import org.example.models.OHLCData;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
 import org.example.models.ORBAdvancedStrategyData;
 import org.example.models.ORBData;
+import org.example.models.PositionParameters;
 import org.example.models.TradeData;
+import org.example.models.TradeLog;
 
 public class StrategyUtils {
-  private static final int DEFAULT_STRATEGY_MINUTES_MARGIN = 5;
+  public static final int DEFAULT_STRATEGY_MINUTES_MARGIN = 5;
+  public static final int DEFAULT_ATR_PERIOD = 14;
+  public static final int DEFAULT_PARALLELISM =
+      Integer.getInteger("orb.parallelism", Runtime.getRuntime().availableProcessors());
+
+  public static ORBAdvancedParameters getDefaultORBAdvancedParameters() {
+    ORBAdvancedParameters parameters = new ORBAdvancedParameters();
+    parameters.setStartHour(IndicatorUtils.DEFAULT_START_HOUR);
+    parameters.setStartMinute(IndicatorUtils.DEFAULT_START_MINUTE);
+    parameters.setEndHour(IndicatorUtils.DEFAULT_END_HOUR);
+    parameters.setEndMinute(IndicatorUtils.DEFAULT_END_MINUTE);
+    parameters.setRiskFactor(TradeUtils.RISK_FACTOR_DEFAULT);
+    parameters.setMinutesMargin(DEFAULT_STRATEGY_MINUTES_MARGIN);
+    parameters.setAtrPeriod(Integer.getInteger("orb.atr.period", DEFAULT_ATR_PERIOD));
+    parameters.setAtrStopMultiplier(
+        Double.parseDouble(System.getProperty("orb.atr.stopMultiplier", "0")));
+    parameters.setExecution(TradeUtils.getDefaultExecutionParameters());
+    return checkATRStop(parameters);
+  }
+
+  /**
+   * rejects an ATR scaled stop without a positive ATR period, where the parameters are built
+   * rather than deep inside a backtest
+   */
+  public static ORBAdvancedParameters checkATRStop(ORBAdvancedParameters parameters) {
+    if (parameters.getAtrStopMultiplier() > 0) {
+      TechnicalIndicatorUtils.checkPeriod(parameters.getAtrPeriod());
+    }
+    return parameters;
+  }
+
+  /** position book of the swing strategies from the orb.positions.* system properties */
+  public static PositionParameters getDefaultPositionParameters() {
+    PositionParameters parameters = new PositionParameters();
+    parameters.setMaxPositions(
+        Integer.getInteger("orb.positions.max", parameters.getMaxPositions()));
+    parameters.setHoldOvernight(
+        Boolean.parseBoolean(
+            System.getProperty(
+                "orb.positions.overnight", String.valueOf(parameters.isHoldOvernight()))));
+    parameters.setMaxHoldingDays(
+        Integer.getInteger("orb.positions.maxHoldingDays", parameters.getMaxHoldingDays()));
+    return parameters;
+  }
 
   public static boolean crossOver(OHLCData ohlcData, double value) {
     return Objects.nonNull(ohlcData) && ohlcData.getOpen() < value && ohlcData.getClose() > value;
@@ -82,7 +137,13 @@ public class StrategyUtils {
         .limit(ohlcDataList.size() - DEFAULT_STRATEGY_MINUTES_MARGIN)
         .forEach(
             ohlcData -> {
-              processSingleTradeDataPoint(orbData, ohlcData, tradeDataReference, tradeDataList, strategyData);
+              processSingleTradeDataPoint(
+                  orbData,
+                  ohlcData,
+                  tradeDataReference,
+                  tradeDataList,
+                  strategyData,
+                  TradeUtils.RISK_FACTOR_DEFAULT);
             });
     if (TradeUtils.isTradeActive(tradeDataReference.get())) {
       exitTradeAccordingToSignal(
@@ -94,14 +155,240 @@ public class StrategyUtils {
     return tradeDataList;
   }
 
-  private static void processSingleTradeDataPoint(ORBData orbData, OHLCData ohlcData, AtomicReference<TradeData> tradeDataReference, List<TradeData> tradeDataList, ORBAdvancedStrategyData strategyData) {
+  public static List<TradeData> getListOfTradesForORBAdvanced(OHLCSeries series) {
+    List<ORBData> dayWiseORBData = IndicatorUtils.getDayWiseORBData(series);
+    List<TradeData> tradeDataList = new ArrayList<>();
+    for (int day = 0; day < series.getDayCount(); day++) {
+      tradeDataList.addAll(
+          getListOfTradesForORBAdvancedForDay(series, day, dayWiseORBData.get(day)));
+    }
+    return tradeDataList;
+  }
+
+  /**
+   * runs the days of the series concurrently on a dedicated pool of the given parallelism. Days
+   * share no state, and the results are merged in day order, so the output is identical to the
+   * serial run
+   */
+  public static List<TradeData> getListOfTradesForORBAdvanced(OHLCSeries series, int parallelism) {
+    if (parallelism <= 1) {
+      return getListOfTradesForORBAdvanced(series);
+    }
+    ForkJoinPool pool = new ForkJoinPool(parallelism);
+    try {
+      List<List<TradeData>> dayWiseTrades =
+          pool.submit(
+                  () ->
+                      IntStream.range(0, series.getDayCount())
+                          .parallel()
+                          .mapToObj(
+                              day ->
+                                  getListOfTradesForORBAdvancedForDay(
+                                      series, day, IndicatorUtils.getORBDataForDay(series, day)))
+                          .toList())
+              .get();
+      List<TradeData> tradeDataList = new ArrayList<>();
+      dayWiseTrades.forEach(tradeDataList::addAll);
+      return tradeDataList;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      }
+      throw new TradeException(e.getCause().getMessage(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new TradeException(e.getMessage(), e);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * parallel run that serves every day whose bars were already backtested with the same parameters
+   * from the result cache and only computes the remaining days; the cache is not closed
+   */
+  public static List<TradeData> getListOfTradesForORBAdvanced(
+      OHLCSeries series, ORBAdvancedParameters parameters, int parallelism, DayResultCache cache) {
+    double[] averageTrueRange = getATRForStopLoss(series, parameters);
+    List<List<TradeData>> dayWiseTrades =
+        OptimizerUtils.runInPool(
+            parallelism,
+            () ->
+                IntStream.range(0, series.getDayCount())
+                    .parallel()
+                    .mapToObj(
+                        day -> {
+                          if (!series.isDayUsable(day)) {
+                            return List.<TradeData>of();
+                          }
+                          long dayStart = series.getDayStartTimestamp(day);
+                          long barsKey = DayResultCache.getDayKey(series, day, null);
+                          long tradesKey =
+                              Objects.isNull(averageTrueRange)
+                                  ? barsKey
+                                  : DayResultCache.getDayKey(series, day, averageTrueRange);
+                          List<TradeData> tradeDataList = cache.getTrades(tradesKey, dayStart);
+                          if (Objects.nonNull(tradeDataList)) {
+                            return tradeDataList;
+                          }
+                          ORBData orbData = cache.getORBData(barsKey, dayStart);
+                          if (Objects.isNull(orbData)) {
+                            orbData = IndicatorUtils.getORBDataForDay(series, day, parameters);
+                            cache.putORBData(barsKey, dayStart, orbData);
+                          }
+                          tradeDataList =
+                              getListOfTradesForORBAdvancedForDay(
+                                  series, day, orbData, parameters, averageTrueRange);
+                          cache.putTrades(tradesKey, dayStart, tradeDataList);
+                          return tradeDataList;
+                        })
+                    .toList());
+    List<TradeData> tradeDataList = new ArrayList<>();
+    dayWiseTrades.forEach(tradeDataList::addAll);
+    return tradeDataList;
+  }
+
+  /**
+   * column based variant of {@link #getListOfTradesForORBAdvancedForDay(List, ORBData)}, walks the
+   * bars of the given day through a cursor instead of materialising OHLCData objects
+   */
+  public static List<TradeData> getListOfTradesForORBAdvancedForDay(
+      OHLCSeries series, int day, ORBData orbData) {
+    return getListOfTradesForORBAdvancedForDay(
+        series, day, orbData, getDefaultORBAdvancedParameters());
+  }
+
+  /**
+   * when the parameters enable an ATR scaled stop, the ATR is computed over the whole series;
+   * callers running many days should compute it once and use the overload taking it
+   */
+  public static List<TradeData> getListOfTradesForORBAdvancedForDay(
+      OHLCSeries series, int day, ORBData orbData, ORBAdvancedParameters parameters) {
+    return getListOfTradesForORBAdvancedForDay(
+        series, day, orbData, parameters, getATRForStopLoss(series, parameters));
+  }
+
+  /** ATR column for the ATR scaled stop loss, or null when the parameters do not use it */
+  public static double[] getATRForStopLoss(OHLCSeries series, ORBAdvancedParameters parameters) {
+    return parameters.getAtrStopMultiplier() > 0
+        ? TechnicalIndicatorUtils.averageTrueRange(series, parameters.getAtrPeriod())
+        : null;
+  }
+
+  public static List<TradeData> getListOfTradesForORBAdvancedForDay(
+      OHLCSeries series,
+      int day,
+      ORBData orbData,
+      ORBAdvancedParameters parameters,
+      double[] averageTrueRange) {
+    ORBTradeMachine machine = new ORBTradeMachine(parameters, new TradeLog(4));
+    appendTradesForORBAdvancedForDay(series, day, orbData, parameters, averageTrueRange, machine);
+    return machine.getTradeLog().toTradeDataList();
+  }
+
+  /**
+   * runs the day through the primitive state machine and appends its completed trades to the
+   * machine's trade log; nothing is allocated per bar, so callers sweeping many days or parameter
+   * sets should reuse one machine per thread. Days flagged unusable at load time add no trades
+   */
+  public static void appendTradesForORBAdvancedForDay(
+      OHLCSeries series,
+      int day,
+      ORBData orbData,
+      ORBAdvancedParameters parameters,
+      double[] averageTrueRange,
+      ORBTradeMachine machine) {
+    if (!series.isDayUsable(day)) {
+      return;
+    }
+    long start = MetricsUtils.startStage();
+    long allocated = MetricsUtils.allocatedBytes();
+    long[] timestamps = series.getTimestampColumn();
+    double[] open = series.getOpenColumn();
+    double[] high = series.getHighColumn();
+    double[] low = series.getLowColumn();
+    double[] close = series.getCloseColumn();
+    double atrStopMultiplier = parameters.getAtrStopMultiplier();
+    int dayStart = series.getDayStart(day);
+    int limit = getExitOffset(series, day, parameters.getMinutesMargin());
+    int from = dayStart + indexOfTimestamp(series, day, orbData.getEnd().getTime()) + 1;
+    int to = (int) Math.min(series.getDayEnd(day), (long) from + limit);
+    machine.startDay(orbData.getUpper(), orbData.getLower());
+    for (int i = from; i < to; i++) {
+      if (Objects.nonNull(averageTrueRange)) {
+        machine.setStopRisk(averageTrueRange[i] * atrStopMultiplier);
+      }
+      machine.onBar(timestamps[i], open[i], high[i], low[i], close[i]);
+    }
+    if (machine.isActive()) {
+      int exit = dayStart + limit;
+      machine.exit(timestamps[exit], open[exit], close[exit], OrderSignal.EOD);
+    }
+    MetricsUtils.addBarsProcessed(Math.max(to - from, 0));
+    MetricsUtils.endStage(MetricStage.STRATEGY, start, allocated);
+  }
+
+  /**
+   * offset of the end of day exit bar: the last bar of the day starting at least minutesMargin
+   * before the close of the day's last bar, the first bar when the margin covers the whole day. On
+   * minute bars without gaps this is the day size minus the margin
+   */
+  public static int getExitOffset(OHLCSeries series, int day, int minutesMargin) {
+    int dayStart = series.getDayStart(day);
+    int index = series.getDayEnd(day) - 1;
+    long cutoff =
+        series.getTimestamp(index) + (series.getBarMinutes() - (long) minutesMargin) * 60_000L;
+    while (index > dayStart && series.getTimestamp(index) > cutoff) {
+      index--;
+    }
+    return index - dayStart;
+  }
+
+  /** offset of the first bar of the day with the given timestamp, -1 when there is none */
+  public static int indexOfTimestamp(OHLCSeries series, int day, long timestamp) {
+    for (int i = series.getDayStart(day); i < series.getDayEnd(day); i++) {
+      if (series.getTimestamp(i) == timestamp) {
+        return i - series.getDayStart(day);
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * advances the ORB Advanced state machine by one bar: checks the exits of the active trade or
+   * looks for a breakout and its reversal to enter a new one
+   */
+  public static void processSingleTradeDataPoint(
+      ORBData orbData,
+      OHLCData ohlcData,
+      AtomicReference<TradeData> tradeDataReference,
+      List<TradeData> tradeDataList,
+      ORBAdvancedStrategyData strategyData,
+      double riskFactor) {
+    processSingleTradeDataPoint(
+        orbData,
+        ohlcData,
+        tradeDataReference,
+        tradeDataList,
+        strategyData,
+        riskFactor,
+        ExecutionSimulator.CLOSE_FILL);
+  }
+
+  public static void processSingleTradeDataPoint(
+      ORBData orbData,
+      OHLCData ohlcData,
+      AtomicReference<TradeData> tradeDataReference,
+      List<TradeData> tradeDataList,
+      ORBAdvancedStrategyData strategyData,
+      double riskFactor,
+      ExecutionSimulator simulator) {
     if (TradeUtils.isTradeActive(tradeDataReference.get())) {
-      if (TradeUtils.isBookProfits(tradeDataReference.get(), ohlcData)) {
-        exitTradeAccordingToSignal(
-                ohlcData, OrderSignal.BP, tradeDataReference, tradeDataList);
-      } else if (TradeUtils.isStopLoss(tradeDataReference.get(), ohlcData)) {
+      TradeUtils.updateExcursions(tradeDataReference.get(), ohlcData);
+      OrderSignal exitSignal = simulator.getExitSignal(tradeDataReference.get(), ohlcData);
+      if (Objects.nonNull(exitSignal)) {
         exitTradeAccordingToSignal(
-                ohlcData, OrderSignal.SL, tradeDataReference, tradeDataList);
+            ohlcData, exitSignal, tradeDataReference, tradeDataList, simulator);
       }
     } else {
       if (isOver(ohlcData, orbData.getUpper())) {
@@ -110,7 +397,13 @@ public class StrategyUtils {
         } else if (Objects.nonNull(strategyData.getBreakoutValue())
             && closedUnder(ohlcData, strategyData.getBreakoutValue())) {
           tradeDataReference.set(
-              TradeUtils.enterTrade(ohlcData, OrderType.SHORT, OrderSignal.SHORT));
+              TradeUtils.enterTrade(
+                  ohlcData,
+                  OrderType.SHORT,
+                  OrderSignal.SHORT,
+                  riskFactor,
+                  strategyData.getStopRisk(),
+                  simulator));
           strategyData.setBreakoutValue(null);
         }
       } else if (isUnder(ohlcData, orbData.getLower())) {
@@ -119,22 +412,38 @@ public class StrategyUtils {
         } else if (Objects.nonNull(strategyData.getBreakoutValue())
             && closedOver(ohlcData, strategyData.getBreakoutValue())) {
           tradeDataReference.set(
-              TradeUtils.enterTrade(ohlcData, OrderType.LONG, OrderSignal.LONG));
+              TradeUtils.enterTrade(
+                  ohlcData,
+                  OrderType.LONG,
+                  OrderSignal.LONG,
+                  riskFactor,
+                  strategyData.getStopRisk(),
+                  simulator));
           strategyData.setBreakoutValue(null);
         }
       } else {
         strategyData.setBreakoutValue(null);
       }
     }
-    LogUtils.info(ohlcData + " " + strategyData + " " + tradeDataReference.get());
+    LogUtils.debug(() -> ohlcData + " " + strategyData + " " + tradeDataReference.get());
   }
 
-  private static void exitTradeAccordingToSignal(
+  public static void exitTradeAccordingToSignal(
       OHLCData ohlcData,
       OrderSignal bp,
       AtomicReference<TradeData> tradeDataReference,
       List<TradeData> tradeDataList) {
-    TradeUtils.exitTrade(ohlcData, bp, tradeDataReference.get());
+    exitTradeAccordingToSignal(
+        ohlcData, bp, tradeDataReference, tradeDataList, ExecutionSimulator.CLOSE_FILL);
+  }
+
+  public static void exitTradeAccordingToSignal(
+      OHLCData ohlcData,
+      OrderSignal bp,
+      AtomicReference<TradeData> tradeDataReference,
+      List<TradeData> tradeDataList,
+      ExecutionSimulator simulator) {
+    TradeUtils.exitTrade(ohlcData, bp, tradeDataReference.get(), simulator);
     tradeDataList.add(tradeDataReference.get());
   }
 }
@@ -0,0 +1,216 @@
+package org.example.utils;
+
+import static org.example.constants.IndicatorExceptionConstants.PERIOD_NOT_POSITIVE;
+
+import java.util.Arrays;
+import java.util.Objects;
+import org.example.exceptions.IndicatorException;
+import org.example.models.DayIndex;
+import org.example.models.OHLCSeries;
+
+/**
+ * Classic indicators over primitive columns, each computed in a single O(n) pass. Outputs have the
+ * length of the input and hold NaN until enough bars are available. Element wise steps (true range,
+ * typical price, band offsets) are plain counted loops without branches so the JIT can vectorize
+ * them; the recursive smoothers (EMA, ATR) are inherently sequential.
+ */
+public class TechnicalIndicatorUtils {
+
+  /** a period below one has no bars to average, callers building parameters check it early */
+  public static void checkPeriod(int period) {
+    if (period <= 0) {
+      throw new IndicatorException(PERIOD_NOT_POSITIVE + period);
+    }
+  }
+
+  public static double[] simpleMovingAverage(double[] values, int size, int period) {
+    checkPeriod(period);
+    double[] result = nanArray(size);
+    double sum = 0.0;
+    for (int i = 0; i < size; i++) {
+      sum += values[i];
+      if (i >= period) {
+        sum -= values[i - period];
+      }
+      if (i >= period - 1) {
+        result[i] = sum / period;
+      }
+    }
+    return result;
+  }
+
+  /** seeded with the simple average of the first period values */
+  public static double[] exponentialMovingAverage(double[] values, int size, int period) {
+    checkPeriod(period);
+    double[] result = nanArray(size);
+    if (size < period) {
+      return result;
+    }
+    double alpha = 2.0 / (period + 1);
+    double sum = 0.0;
+    for (int i = 0; i < period; i++) {
+      sum += values[i];
+    }
+    double ema = sum / period;
+    result[period - 1] = ema;
+    for (int i = period; i < size; i++) {
+      ema += alpha * (values[i] - ema);
+      result[i] = ema;
+    }
+    return result;
+  }
+
+  public static double[] trueRange(double[] high, double[] low, double[] close, int size) {
+    double[] result = new double[size];
+    if (size == 0) {
+      return result;
+    }
+    result[0] = high[0] - low[0];
+    for (int i = 1; i < size; i++) {
+      double previousClose = close[i - 1];
+      result[i] =
+          Math.max(
+              high[i] - low[i],
+              Math.max(Math.abs(high[i] - previousClose), Math.abs(low[i] - previousClose)));
+    }
+    return result;
+  }
+
+  /** Wilder's average true range */
+  public static double[] averageTrueRange(
+      double[] high, double[] low, double[] close, int size, int period) {
+    checkPeriod(period);
+    double[] trueRange = trueRange(high, low, close, size);
+    double[] result = nanArray(size);
+    if (size < period) {
+      return result;
+    }
+    double sum = 0.0;
+    for (int i = 0; i < period; i++) {
+      sum += trueRange[i];
+    }
+    double atr = sum / period;
+    result[period - 1] = atr;
+    for (int i = period; i < size; i++) {
+      atr = (atr * (period - 1) + trueRange[i]) / period;
+      result[i] = atr;
+    }
+    return result;
+  }
+
+  public static double[] averageTrueRange(OHLCSeries series, int period) {
+    return averageTrueRange(
+        series.getHighColumn(),
+        series.getLowColumn(),
+        series.getCloseColumn(),
+        series.size(),
+        period);
+  }
+
+  /**
+   * intraday VWAP of the typical price, restarting every day of the index. Without volume (null,
+   * or a day with zero volume so far) every bar gets the same weight
+   */
+  public static double[] volumeWeightedAveragePrice(
+      double[] high, double[] low, double[] close, double[] volume, DayIndex dayIndex) {
+    int size = dayIndex.getDayCount() == 0 ? 0 : dayIndex.getDayEnd(dayIndex.getDayCount() - 1);
+    double[] typicalPrice = new double[size];
+    for (int i = 0; i < size; i++) {
+      typicalPrice[i] = (high[i] + low[i] + close[i]) / 3.0;
+    }
+    double[] result = new double[size];
+    for (int day = 0; day < dayIndex.getDayCount(); day++) {
+      double weightedSum = 0.0;
+      double volumeSum = 0.0;
+      double priceSum = 0.0;
+      int bars = 0;
+      for (int i = dayIndex.getDayStart(day); i < dayIndex.getDayEnd(day); i++) {
+        double barVolume = Objects.isNull(volume) ? 0.0 : volume[i];
+        weightedSum += typicalPrice[i] * barVolume;
+        volumeSum += barVolume;
+        priceSum += typicalPrice[i];
+        bars++;
+        result[i] = volumeSum > 0 ? weightedSum / volumeSum : priceSum / bars;
+      }
+    }
+    return result;
+  }
+
+  /** highest value of the last period values, using a monotonic deque of indexes */
+  public static double[] rollingHigh(double[] values, int size, int period) {
+    return rollingExtreme(values, size, period, true);
+  }
+
+  /** lowest value of the last period values, using a monotonic deque of indexes */
+  public static double[] rollingLow(double[] values, int size, int period) {
+    return rollingExtreme(values, size, period, false);
+  }
+
+  private static double[] rollingExtreme(double[] values, int size, int period, boolean highest) {
+    checkPeriod(period);
+    double[] result = nanArray(size);
+    int[] deque = new int[period + 1];
+    int head = 0;
+    int tail = 0;
+    int capacity = deque.length;
+    for (int i = 0; i < size; i++) {
+      while (head != tail) {
+        int last = deque[(tail - 1 + capacity) % capacity];
+        boolean dominated = highest ? values[last] <= values[i] : values[last] >= values[i];
+        if (!dominated) {
+          break;
+        }
+        tail = (tail - 1 + capacity) % capacity;
+      }
+      deque[tail] = i;
+      tail = (tail + 1) % capacity;
+      if (deque[head] <= i - period) {
+        head = (head + 1) % capacity;
+      }
+      if (i >= period - 1) {
+        result[i] = values[deque[head]];
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Bollinger bands from a rolling sum and sum of squares
+   *
+   * @return middle, upper and lower band, in that order
+   */
+  public static double[][] bollingerBands(
+      double[] values, int size, int period, double deviations) {
+    checkPeriod(period);
+    double[] middle = nanArray(size);
+    double[] upper = nanArray(size);
+    double[] lower = nanArray(size);
+    double sum = 0.0;
+    double sumOfSquares = 0.0;
+    for (int i = 0; i < size; i++) {
+      sum += values[i];
+      sumOfSquares += values[i] * values[i];
+      if (i >= period) {
+        sum -= values[i - period];
+        sumOfSquares -= values[i - period] * values[i - period];
+      }
+      if (i >= period - 1) {
+        double mean = sum / period;
+        middle[i] = mean;
+        upper[i] = Math.sqrt(Math.max(sumOfSquares / period - mean * mean, 0.0));
+      }
+    }
+    for (int i = 0; i < size; i++) {
+      double offset = deviations * upper[i];
+      upper[i] = middle[i] + offset;
+      lower[i] = middle[i] - offset;
+    }
+    return new double[][] {middle, upper, lower};
+  }
+
+  private static double[] nanArray(int size) {
+    double[] result = new double[size];
+    Arrays.fill(result, Double.NaN);
+    return result;
+  }
+}
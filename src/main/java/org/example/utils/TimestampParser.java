@@ -0,0 +1,214 @@
+package org.example.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import org.example.constants.ExchangeConstants;
+import org.example.exceptions.CSVParsingException;
+
+/**
+ * Parser for fixed layout yyyy-MM-dd HH:mm:ss timestamps in an explicit zone. Digits are decoded
+ * straight into epoch seconds and shifted by the zone offset, which is cached for the whole span
+ * between two transitions of the zone, so a zone without daylight saving such as Asia/Kolkata looks
+ * its rules up once. The minute of the day of an epoch timestamp is served from the same kind of
+ * cache. The caches are immutable spans published through volatile fields, so one parser can be
+ * shared by any number of threads.
+ */
+public class TimestampParser {
+  public static final int LENGTH = CSVUtils.FIXED_TIMESTAMP_FORMAT.length();
+  private static final long SECONDS_PER_DAY = 86_400L;
+  private static final Map<ZoneId, TimestampParser> parsers = new ConcurrentHashMap<>();
+
+  private final ZoneId zoneId;
+  private final ZoneRules zoneRules;
+  private volatile OffsetSpan localSpan = OffsetSpan.EMPTY;
+  private volatile OffsetSpan instantSpan = OffsetSpan.EMPTY;
+
+  public TimestampParser(ZoneId zoneId) {
+    this.zoneId = zoneId;
+    this.zoneRules = zoneId.getRules();
+  }
+
+  /** shared parser of the given zone */
+  public static TimestampParser of(ZoneId zoneId) {
+    return parsers.computeIfAbsent(zoneId, TimestampParser::new);
+  }
+
+  /** shared parser of the exchange zone */
+  public static TimestampParser exchange() {
+    return of(ExchangeConstants.EXCHANGE_ZONE_ID);
+  }
+
+  public ZoneId getZoneId() {
+    return zoneId;
+  }
+
+  /** epoch millis of the timestamp held by text[start, end) */
+  public long parseEpochMillis(byte[] text, int start, int end) {
+    if (end - start != LENGTH) {
+      throw invalid(new String(text, start, end - start, StandardCharsets.UTF_8));
+    }
+    return toEpochMillis(
+        digits(text, start, 4),
+        digits(text, start + 5, 2),
+        digits(text, start + 8, 2),
+        digits(text, start + 11, 2),
+        digits(text, start + 14, 2),
+        digits(text, start + 17, 2));
+  }
+
+  public long parseEpochMillis(CharSequence text) {
+    if (text.length() != LENGTH) {
+      throw invalid(text.toString());
+    }
+    return toEpochMillis(
+        digits(text, 0, 4),
+        digits(text, 5, 2),
+        digits(text, 8, 2),
+        digits(text, 11, 2),
+        digits(text, 14, 2),
+        digits(text, 17, 2));
+  }
+
+  /** epoch millis of a local date and time of the zone, gaps and overlaps resolve like ZoneRules */
+  public long toEpochMillis(int year, int month, int day, int hour, int minute, int second) {
+    long localSeconds =
+        epochDay(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+    OffsetSpan span = localSpan;
+    if (localSeconds < span.from || localSeconds >= span.to) {
+      span = getLocalSpan(localSeconds);
+      localSpan = span;
+    }
+    return (localSeconds - span.offsetSeconds) * 1000L;
+  }
+
+  /** minutes since local midnight of the epoch timestamp */
+  public int getMinuteOfDay(long epochMillis) {
+    long localSeconds = Math.floorDiv(epochMillis, 1000L) + getOffsetSeconds(epochMillis);
+    return (int) (Math.floorMod(localSeconds, SECONDS_PER_DAY) / 60);
+  }
+
+  /** epoch millis of the local midnight starting the day of the timestamp */
+  public long getDayStart(long epochMillis) {
+    long epochSeconds = Math.floorDiv(epochMillis, 1000L);
+    long localSeconds = epochSeconds + getOffsetSeconds(epochMillis);
+    long midnight = localSeconds - Math.floorMod(localSeconds, SECONDS_PER_DAY);
+    LocalDateTime localMidnight = LocalDateTime.ofEpochSecond(midnight, 0, ZoneOffset.UTC);
+    return localMidnight.atZone(zoneId).toInstant().toEpochMilli();
+  }
+
+  private long getOffsetSeconds(long epochMillis) {
+    long epochSeconds = Math.floorDiv(epochMillis, 1000L);
+    OffsetSpan span = instantSpan;
+    if (epochSeconds < span.from || epochSeconds >= span.to) {
+      span = getInstantSpan(epochSeconds);
+      instantSpan = span;
+    }
+    return span.offsetSeconds;
+  }
+
+  /** span of epoch seconds around the instant with a single offset */
+  private OffsetSpan getInstantSpan(long epochSeconds) {
+    Instant instant = Instant.ofEpochSecond(epochSeconds);
+    ZoneOffsetTransition previous = zoneRules.previousTransition(instant.plusSeconds(1));
+    ZoneOffsetTransition next = zoneRules.nextTransition(instant);
+    return new OffsetSpan(
+        Objects.isNull(previous) ? Long.MIN_VALUE : previous.toEpochSecond(),
+        Objects.isNull(next) ? Long.MAX_VALUE : next.toEpochSecond(),
+        zoneRules.getOffset(instant).getTotalSeconds());
+  }
+
+  /**
+   * span of local seconds around the given one in which every local time has exactly one offset;
+   * a local time inside a gap or an overlap gets a span of its own second
+   */
+  private OffsetSpan getLocalSpan(long localSeconds) {
+    LocalDateTime local = LocalDateTime.ofEpochSecond(localSeconds, 0, ZoneOffset.UTC);
+    ZoneOffset offset = zoneRules.getOffset(local);
+    if (zoneRules.getValidOffsets(local).size() != 1) {
+      return new OffsetSpan(localSeconds, localSeconds + 1, offset.getTotalSeconds());
+    }
+    Instant instant = local.toInstant(offset);
+    ZoneOffsetTransition previous = zoneRules.previousTransition(instant.plusSeconds(1));
+    ZoneOffsetTransition next = zoneRules.nextTransition(instant);
+    // local times between the before and after wall clock of a transition are ambiguous or absent
+    long from = Long.MIN_VALUE;
+    if (Objects.nonNull(previous)) {
+      long before = localSeconds(previous.getDateTimeBefore());
+      from = Math.max(before, localSeconds(previous.getDateTimeAfter()));
+    }
+    long to = Long.MAX_VALUE;
+    if (Objects.nonNull(next)) {
+      to = Math.min(localSeconds(next.getDateTimeBefore()), localSeconds(next.getDateTimeAfter()));
+    }
+    if (localSeconds < from || localSeconds >= to) {
+      return new OffsetSpan(localSeconds, localSeconds + 1, offset.getTotalSeconds());
+    }
+    return new OffsetSpan(from, to, offset.getTotalSeconds());
+  }
+
+  private static long localSeconds(LocalDateTime local) {
+    return local.toEpochSecond(ZoneOffset.UTC);
+  }
+
+  private static int digits(byte[] text, int start, int count) {
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      int digit = text[i] - '0';
+      if (digit < 0 || digit > 9) {
+        throw invalid(new String(text, start, count, StandardCharsets.UTF_8));
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static int digits(CharSequence text, int start, int count) {
+    int value = 0;
+    for (int i = start; i < start + count; i++) {
+      int digit = text.charAt(i) - '0';
+      if (digit < 0 || digit > 9) {
+        throw invalid(text.subSequence(start, start + count).toString());
+      }
+      value = value * 10 + digit;
+    }
+    return value;
+  }
+
+  private static CSVParsingException invalid(String text) {
+    return new CSVParsingException(new ParseException(text, 0));
+  }
+
+  private static long epochDay(int year, int month, int day) {
+    // days from civil, shifted so that the year starts in March
+    int y = month <= 2 ? year - 1 : year;
+    int era = Math.floorDiv(y, 400);
+    int yearOfEra = y - era * 400;
+    int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+    int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+    return era * 146097L + dayOfEra - 719468L;
+  }
+
+  /** seconds [from, to) sharing one offset */
+  private static class OffsetSpan {
+    private static final OffsetSpan EMPTY = new OffsetSpan(0, 0, 0);
+
+    private final long from;
+    private final long to;
+    private final int offsetSeconds;
+
+    private OffsetSpan(long from, long to, int offsetSeconds) {
+      this.from = from;
+      this.to = to;
+      this.offsetSeconds = offsetSeconds;
+    }
+  }
+}
@@ -3,22 +3,47 @@ package org.example.utils;
 import static org.example.constants.TradeExceptionConstants.TRADE_INCOMPLETE;
 
 import java.util.Date;
+import org.example.enums.IntraBarPath;
 import org.example.enums.OrderSignal;
 import org.example.enums.OrderType;
+import org.example.enums.SlippageModel;
 import org.example.enums.TradeStatus;
 import org.example.exceptions.TradeException;
+import org.example.execution.ExecutionSimulator;
+import org.example.models.ExecutionParameters;
 import org.example.models.OHLCData;
 import org.example.models.OrderData;
 import org.example.models.TradeData;
 
 public class TradeUtils {
 
-  private static final double RISK_FACTOR_DEFAULT = 2;
+  public static final double RISK_FACTOR_DEFAULT = 2;
+
+  /** execution settings from the orb.execution.* system properties, original fills when unset */
+  public static ExecutionParameters getDefaultExecutionParameters() {
+    ExecutionParameters parameters = new ExecutionParameters();
+    parameters.setIntraBarPath(
+        IntraBarPath.valueOf(
+            System.getProperty("orb.execution.path", parameters.getIntraBarPath().name())));
+    parameters.setSlippageModel(
+        SlippageModel.valueOf(
+            System.getProperty("orb.execution.slippageModel", SlippageModel.NONE.name())));
+    parameters.setSlippage(Double.parseDouble(System.getProperty("orb.execution.slippage", "0")));
+    parameters.setLotSize(Integer.getInteger("orb.execution.lotSize", 1));
+    parameters.setLots(Integer.getInteger("orb.execution.lots", 1));
+    parameters.setBrokeragePerOrder(
+        Double.parseDouble(System.getProperty("orb.execution.brokerage", "0")));
+    parameters.setBrokeragePercent(
+        Double.parseDouble(System.getProperty("orb.execution.brokeragePercent", "0")));
+    parameters.setTransactionTaxPercent(
+        Double.parseDouble(System.getProperty("orb.execution.taxPercent", "0")));
+    return parameters;
+  }
 
   public static OrderData createOrder(
       Date timestamp, double price, OrderType type, OrderSignal signal) {
     OrderData orderData = new OrderData();
-    orderData.setTimestamp(timestamp);
+    orderData.setTimestamp(new Date(timestamp.getTime()));
     orderData.setPrice(price);
     orderData.setType(type);
     orderData.setSignal(signal);
@@ -26,16 +51,58 @@ public class TradeUtils {
   }
 
   public static TradeData enterTrade(OHLCData ohlcData, OrderType type, OrderSignal signal) {
+    return enterTrade(ohlcData, type, signal, RISK_FACTOR_DEFAULT);
+  }
+
+  public static TradeData enterTrade(
+      OHLCData ohlcData, OrderType type, OrderSignal signal, double riskFactor) {
+    return enterTrade(ohlcData, type, signal, riskFactor, Double.NaN);
+  }
+
+  /**
+   * @param risk distance of the stop loss from the entry, NaN to take it from the entry candle
+   */
+  public static TradeData enterTrade(
+      OHLCData ohlcData, OrderType type, OrderSignal signal, double riskFactor, double risk) {
+    return enterTrade(ohlcData, type, signal, riskFactor, risk, ExecutionSimulator.CLOSE_FILL);
+  }
+
+  /** book profits and stop loss stay anchored to the close the decision was taken on */
+  public static TradeData enterTrade(
+      OHLCData ohlcData,
+      OrderType type,
+      OrderSignal signal,
+      double riskFactor,
+      double risk,
+      ExecutionSimulator simulator) {
     TradeData tradeData = new TradeData();
-    tradeData.setEntry(createOrder(ohlcData.getTimestamp(), ohlcData.getClose(), type, signal));
-    putBPAndSL(tradeData, ohlcData, type);
+    tradeData.setEntry(
+        createOrder(
+            ohlcData.getTimestamp(), simulator.getEntryPrice(ohlcData, type), type, signal));
+    tradeData.setQuantity(simulator.getQuantity());
+    putBPAndSL(tradeData, ohlcData, type, riskFactor, risk);
     tradeData.setStatus(TradeStatus.ACTIVE);
+    MetricsUtils.recordTradeOpened(signal);
     return tradeData;
   }
 
   public static void putBPAndSL(TradeData tradeData, OHLCData ohlcData, OrderType orderType) {
-    double risk = getRiskForOrderType(ohlcData, orderType);
-    tradeData.setBookProfits(getBPForOrderType(ohlcData, orderType, risk));
+    putBPAndSL(tradeData, ohlcData, orderType, RISK_FACTOR_DEFAULT);
+  }
+
+  public static void putBPAndSL(
+      TradeData tradeData, OHLCData ohlcData, OrderType orderType, double riskFactor) {
+    putBPAndSL(tradeData, ohlcData, orderType, riskFactor, Double.NaN);
+  }
+
+  public static void putBPAndSL(
+      TradeData tradeData,
+      OHLCData ohlcData,
+      OrderType orderType,
+      double riskFactor,
+      double stopRisk) {
+    double risk = Double.isNaN(stopRisk) ? getRiskForOrderType(ohlcData, orderType) : stopRisk;
+    tradeData.setBookProfits(getBPForOrderType(ohlcData, orderType, risk, riskFactor));
     tradeData.setStopLoss(getSLForOrderType(ohlcData, orderType, risk));
   }
 
@@ -48,9 +115,14 @@ public class TradeUtils {
   }
 
   public static double getBPForOrderType(OHLCData ohlcData, OrderType orderType, double risk) {
+    return getBPForOrderType(ohlcData, orderType, risk, RISK_FACTOR_DEFAULT);
+  }
+
+  public static double getBPForOrderType(
+      OHLCData ohlcData, OrderType orderType, double risk, double riskFactor) {
     return switch (orderType) {
-      case SHORT -> ohlcData.getClose() - (RISK_FACTOR_DEFAULT * risk);
-      case LONG -> ohlcData.getClose() + (RISK_FACTOR_DEFAULT * risk);
+      case SHORT -> ohlcData.getClose() - (riskFactor * risk);
+      case LONG -> ohlcData.getClose() + (riskFactor * risk);
       default -> 0.0;
     };
   }
@@ -63,15 +135,41 @@ public class TradeUtils {
     };
   }
 
+  /**
+   * widens the maximum adverse and favourable excursion of the active trade to the given bar,
+   * both kept as positive price distances from the entry
+   */
+  public static void updateExcursions(TradeData tradeData, OHLCData ohlcData) {
+    updateExcursions(tradeData, ohlcData.getLow(), ohlcData.getHigh());
+  }
+
+  private static void updateExcursions(TradeData tradeData, double low, double high) {
+    double entryPrice = tradeData.getEntry().getPrice();
+    boolean isShort = OrderType.SHORT.equals(tradeData.getEntry().getType());
+    double adverse = isShort ? high - entryPrice : entryPrice - low;
+    double favourable = isShort ? entryPrice - low : high - entryPrice;
+    if (adverse > tradeData.getMaxAdverseExcursion()) {
+      tradeData.setMaxAdverseExcursion(adverse);
+    }
+    if (favourable > tradeData.getMaxFavourableExcursion()) {
+      tradeData.setMaxFavourableExcursion(favourable);
+    }
+  }
+
   public static void exitTrade(OHLCData ohlcData, OrderSignal signal, TradeData tradeData) {
-    tradeData.setExit(
-        createOrder(
-            ohlcData.getTimestamp(),
-            ohlcData.getClose(),
-            tradeData.getEntry().getType().getNext(),
-            signal));
+    exitTrade(ohlcData, signal, tradeData, ExecutionSimulator.CLOSE_FILL);
+  }
+
+  public static void exitTrade(
+      OHLCData ohlcData, OrderSignal signal, TradeData tradeData, ExecutionSimulator simulator) {
+    double price = simulator.getExitPrice(tradeData, ohlcData, signal);
+    updateExcursions(tradeData, price, price);
+    OrderType entryType = tradeData.getEntry().getType();
+    tradeData.setExit(createOrder(ohlcData.getTimestamp(), price, entryType.getNext(), signal));
+    tradeData.setCosts(simulator.getCosts(entryType, tradeData.getEntry().getPrice(), price));
     tradeData.setStatus(TradeStatus.COMPLETED);
     calculateTradeProfits(tradeData);
+    MetricsUtils.recordTradeClosed(signal);
   }
 
   public static void calculateTradeProfits(TradeData tradeData) {
@@ -87,8 +185,8 @@ public class TradeUtils {
   private static void calculateShortTradeProfits(TradeData tradeData) {
     double entryPrice = tradeData.getEntry().getPrice();
     double exitPrice = tradeData.getExit().getPrice();
-    double profit = entryPrice - exitPrice;
-    double profitPercentage = (profit / entryPrice) * 100;
+    double profit = (entryPrice - exitPrice) * tradeData.getQuantity() - tradeData.getCosts();
+    double profitPercentage = (profit / (entryPrice * tradeData.getQuantity())) * 100;
     tradeData.setProfit(profit);
     tradeData.setProfitPercent(profitPercentage);
   }
@@ -96,8 +194,8 @@ public class TradeUtils {
   private static void calculateLongTradeProfits(TradeData tradeData) {
     double entryPrice = tradeData.getEntry().getPrice();
     double exitPrice = tradeData.getExit().getPrice();
-    double profit = exitPrice - entryPrice;
-    double profitPercentage = (profit / entryPrice) * 100;
+    double profit = (exitPrice - entryPrice) * tradeData.getQuantity() - tradeData.getCosts();
+    double profitPercentage = (profit / (entryPrice * tradeData.getQuantity())) * 100;
     tradeData.setProfit(profit);
     tradeData.setProfitPercent(profitPercentage);
   }
@@ -0,0 +1,95 @@
+package org.example.utils;
+
+import static org.example.constants.TradeExceptionConstants.WALK_FORWARD_DAYS_NOT_POSITIVE;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.example.exceptions.TradeException;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.TradeData;
+import org.example.models.WalkForwardWindow;
+
+/**
+ * Rolling walk forward over the day index of a series: on every train window the best parameter
+ * set by profit is picked and then traded on the following, unseen test window. Trades for every
+ * parameter set and day are computed once, in parallel, and each window only adds up per day
+ * profits from prefix sums.
+ */
+public class WalkForwardUtils {
+
+  /**
+   * @param trainDays days the parameters are selected on
+   * @param testDays days traded out of sample after each train window, also the roll step
+   * @throws TradeException when either window is not positive, a zero step would never roll
+   */
+  public static List<WalkForwardWindow> walkForward(
+      OHLCSeries series,
+      List<ORBAdvancedParameters> parameterList,
+      int trainDays,
+      int testDays,
+      int parallelism) {
+    if (trainDays <= 0 || testDays <= 0) {
+      throw new TradeException(WALK_FORWARD_DAYS_NOT_POSITIVE + trainDays + ", " + testDays);
+    }
+    List<List<List<TradeData>>> dayWiseTrades =
+        OptimizerUtils.getDayWiseTrades(series, parameterList, parallelism);
+    double[][] profitPrefixSums = new double[parameterList.size()][];
+    for (int i = 0; i < parameterList.size(); i++) {
+      profitPrefixSums[i] = getProfitPrefixSums(dayWiseTrades.get(i));
+    }
+    List<WalkForwardWindow> windows = new ArrayList<>();
+    int dayCount = series.getDayCount();
+    for (int trainStart = 0; trainStart + trainDays < dayCount; trainStart += testDays) {
+      int trainEnd = trainStart + trainDays;
+      int testEnd = Math.min(trainEnd + testDays, dayCount);
+      int best = 0;
+      for (int i = 1; i < parameterList.size(); i++) {
+        if (getProfit(profitPrefixSums[i], trainStart, trainEnd)
+            > getProfit(profitPrefixSums[best], trainStart, trainEnd)) {
+          best = i;
+        }
+      }
+      List<TradeData> testTrades = new ArrayList<>();
+      for (int day = trainEnd; day < testEnd; day++) {
+        testTrades.addAll(dayWiseTrades.get(best).get(day));
+      }
+      WalkForwardWindow window = new WalkForwardWindow();
+      window.setTrainStartDay(trainStart);
+      window.setTrainEndDay(trainEnd);
+      window.setTestStartDay(trainEnd);
+      window.setTestEndDay(testEnd);
+      window.setParameters(parameterList.get(best));
+      window.setTrainProfit(getProfit(profitPrefixSums[best], trainStart, trainEnd));
+      window.setTestProfit(getProfit(profitPrefixSums[best], trainEnd, testEnd));
+      window.setTestTrades(testTrades);
+      windows.add(window);
+    }
+    return windows;
+  }
+
+  /** out of sample trades of all windows, in order */
+  public static List<TradeData> getOutOfSampleTrades(List<WalkForwardWindow> windows) {
+    List<TradeData> tradeDataList = new ArrayList<>();
+    for (WalkForwardWindow window : windows) {
+      tradeDataList.addAll(window.getTestTrades());
+    }
+    return tradeDataList;
+  }
+
+  private static double[] getProfitPrefixSums(List<List<TradeData>> dayWiseTrades) {
+    double[] prefixSums = new double[dayWiseTrades.size() + 1];
+    for (int day = 0; day < dayWiseTrades.size(); day++) {
+      double profit = 0.0;
+      for (TradeData tradeData : dayWiseTrades.get(day)) {
+        profit += tradeData.getProfit();
+      }
+      prefixSums[day + 1] = prefixSums[day] + profit;
+    }
+    return prefixSums;
+  }
+
+  private static double getProfit(double[] prefixSums, int fromDay, int toDay) {
+    return prefixSums[toDay] - prefixSums[fromDay];
+  }
+}
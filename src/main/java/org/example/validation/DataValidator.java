@@ -0,0 +1,353 @@
+package org.example.validation;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import org.example.enums.DataIssue;
+import org.example.enums.MetricStage;
+import org.example.enums.RepairPolicy;
+import org.example.models.OHLCSeries;
+import org.example.models.ValidationParameters;
+import org.example.utils.CSVUtils;
+import org.example.utils.LogUtils;
+import org.example.utils.MetricsUtils;
+
+/**
+ * Streaming validation stage between the csv reader and the series. Rows are buffered one trading
+ * day at a time; when the day is complete it is checked for out of order and duplicate rows,
+ * invalid bars, bad ticks, missing minutes, a late open and an early close, repaired according to
+ * the policy and appended to the series together with its quality bitmap. Holidays and weekends
+ * have no rows at all and are never filled.
+ *
+ * <p>A row older than the day being buffered belongs to a day that was already written, it is
+ * dropped and the current day is flagged out of order.
+ */
+public class DataValidator implements CSVUtils.OHLCRecordConsumer {
+  private static final long MINUTE_MILLIS = 60_000L;
+  private static final int DAY_CAPACITY = 1 << 9;
+
+  private final OHLCSeries series;
+  private final ValidationParameters parameters;
+  private final boolean repair;
+  private final ZoneId zoneId;
+
+  private long[] timestamps = new long[DAY_CAPACITY];
+  private double[] open = new double[DAY_CAPACITY];
+  private double[] high = new double[DAY_CAPACITY];
+  private double[] low = new double[DAY_CAPACITY];
+  private double[] close = new double[DAY_CAPACITY];
+  private int size;
+  private long dayStart = Long.MAX_VALUE;
+  private long nextDayStart = Long.MIN_VALUE;
+  private int dayQuality;
+  private double previousDayClose = Double.NaN;
+
+  private final int[] issueDays = new int[DataIssue.values().length];
+  private int days;
+  private int droppedRows;
+  private int repairedBars;
+  private int filledBars;
+
+  public DataValidator(OHLCSeries series, ValidationParameters parameters) {
+    this.series = series;
+    this.parameters = parameters;
+    this.repair = RepairPolicy.REPAIR.equals(parameters.getPolicy());
+    this.zoneId = series.getZoneId();
+  }
+
+  @Override
+  public void accept(long timestamp, double open, double high, double low, double close) {
+    if (timestamp < dayStart || timestamp >= nextDayStart) {
+      if (size > 0 && timestamp < dayStart) {
+        dayQuality |= DataIssue.OUT_OF_ORDER.getMask();
+        droppedRows++;
+        return;
+      }
+      flushDay();
+      startDay(timestamp);
+    }
+    if (size > 0 && timestamp < timestamps[size - 1]) {
+      dayQuality |= DataIssue.OUT_OF_ORDER.getMask();
+    }
+    if (size == timestamps.length) {
+      grow();
+    }
+    this.timestamps[size] = timestamp;
+    this.open[size] = open;
+    this.high[size] = high;
+    this.low[size] = low;
+    this.close[size] = close;
+    size++;
+  }
+
+  /** writes the last buffered day, call once after the last row */
+  public void finish() {
+    flushDay();
+    LogUtils.info(
+        () ->
+            "Data validation :: policy: "
+                + parameters.getPolicy()
+                + " days: "
+                + days
+                + " issues: "
+                + describeIssueDays()
+                + " filled bars: "
+                + filledBars
+                + " repaired bars: "
+                + repairedBars
+                + " dropped rows: "
+                + droppedRows);
+  }
+
+  public int getDroppedRows() {
+    return droppedRows;
+  }
+
+  public int getRepairedBars() {
+    return repairedBars;
+  }
+
+  public int getFilledBars() {
+    return filledBars;
+  }
+
+  /** number of days flagged with the given issue */
+  public int getIssueDays(DataIssue issue) {
+    return issueDays[issue.ordinal()];
+  }
+
+  private void startDay(long timestamp) {
+    LocalDate day = Instant.ofEpochMilli(timestamp).atZone(zoneId).toLocalDate();
+    dayStart = day.atStartOfDay(zoneId).toInstant().toEpochMilli();
+    nextDayStart = day.plusDays(1).atStartOfDay(zoneId).toInstant().toEpochMilli();
+    dayQuality = 0;
+  }
+
+  private void grow() {
+    int capacity = timestamps.length * 2;
+    timestamps = Arrays.copyOf(timestamps, capacity);
+    open = Arrays.copyOf(open, capacity);
+    high = Arrays.copyOf(high, capacity);
+    low = Arrays.copyOf(low, capacity);
+    close = Arrays.copyOf(close, capacity);
+  }
+
+  private void flushDay() {
+    if (size == 0) {
+      return;
+    }
+    long start = MetricsUtils.startStage();
+    long allocated = MetricsUtils.allocatedBytes();
+    int quality = dayQuality;
+    if (repair && (quality & DataIssue.OUT_OF_ORDER.getMask()) != 0) {
+      sortDay();
+    }
+    quality |= checkDuplicates();
+    quality |= checkBars();
+    if (size == 0) {
+      // every bar had a non positive price and was dropped, the day is only counted
+      recordDay(quality);
+      MetricsUtils.endStage(MetricStage.VALIDATE, start, allocated);
+      return;
+    }
+    int firstMinute = (int) ((timestamps[0] - dayStart) / MINUTE_MILLIS);
+    int lastMinute = (int) ((timestamps[size - 1] - dayStart) / MINUTE_MILLIS);
+    if (firstMinute > parameters.getSessionStartMinute()) {
+      quality |= DataIssue.LATE_OPEN.getMask();
+    }
+    if (lastMinute < parameters.getSessionEndMinute() - parameters.getHalfDayMinutes()) {
+      quality |= DataIssue.HALF_DAY.getMask();
+    }
+    quality |= appendDay();
+    series.getDayIndex().setDayQuality(series.getDayCount() - 1, quality);
+    recordDay(quality);
+    previousDayClose = close[size - 1];
+    size = 0;
+    MetricsUtils.endStage(MetricStage.VALIDATE, start, allocated);
+  }
+
+  /** stable insertion sort, cheap for a day with only a few rows out of place */
+  private void sortDay() {
+    for (int i = 1; i < size; i++) {
+      long timestamp = timestamps[i];
+      double o = open[i];
+      double h = high[i];
+      double l = low[i];
+      double c = close[i];
+      int j = i - 1;
+      while (j >= 0 && timestamps[j] > timestamp) {
+        move(j, j + 1);
+        j--;
+      }
+      timestamps[j + 1] = timestamp;
+      open[j + 1] = o;
+      high[j + 1] = h;
+      low[j + 1] = l;
+      close[j + 1] = c;
+    }
+  }
+
+  /** flags repeated timestamps, repairing keeps the last row of each timestamp */
+  private int checkDuplicates() {
+    int quality = 0;
+    int written = size > 0 ? 1 : 0;
+    for (int i = 1; i < size; i++) {
+      if (timestamps[i] == timestamps[written - 1]) {
+        quality = DataIssue.DUPLICATE_TIMESTAMPS.getMask();
+        if (repair) {
+          move(i, written - 1);
+          droppedRows++;
+          continue;
+        }
+      }
+      move(i, written++);
+    }
+    size = written;
+    return quality;
+  }
+
+  /**
+   * flags invalid bars and bad ticks. Repairing widens an inconsistent range, replaces a bar with
+   * a non positive price by a flat bar at the previous close, drops it when there is none, and
+   * clamps a bad tick to its own open and close, or flattens it when those are off as well. The
+   * first bar of a day is checked for a bad tick against the last close of the previous day
+   */
+  private int checkBars() {
+    int quality = 0;
+    int written = 0;
+    for (int i = 0; i < size; i++) {
+      double o = open[i];
+      double h = high[i];
+      double l = low[i];
+      double c = close[i];
+      if (!(o > 0 && h > 0 && l > 0 && c > 0)) {
+        quality |= DataIssue.INVALID_BAR.getMask();
+        if (repair) {
+          if (written == 0) {
+            droppedRows++;
+            continue;
+          }
+          setFlat(i, close[written - 1]);
+          repairedBars++;
+        }
+      } else if (h < l || o > h || o < l || c > h || c < l) {
+        quality |= DataIssue.INVALID_BAR.getMask();
+        if (repair) {
+          high[i] = Math.max(Math.max(o, h), Math.max(l, c));
+          low[i] = Math.min(Math.min(o, h), Math.min(l, c));
+          repairedBars++;
+        }
+      }
+      double previousClose = written > 0 ? close[written - 1] : previousDayClose;
+      if (!Double.isNaN(previousClose) && isSpike(i, previousClose)) {
+        quality |= DataIssue.SPIKE.getMask();
+        if (repair) {
+          repairSpike(i, previousClose);
+          repairedBars++;
+        }
+      }
+      move(i, written++);
+    }
+    size = written;
+    return quality;
+  }
+
+  /** a bar far from the previous close whose next bar is back near it */
+  private boolean isSpike(int index, double previousClose) {
+    if (!isFar(high[index], previousClose)
+        && !isFar(low[index], previousClose)
+        && !isFar(close[index], previousClose)) {
+      return false;
+    }
+    return index == size - 1 || !isFar(close[index + 1], previousClose);
+  }
+
+  private void repairSpike(int index, double previousClose) {
+    if (isFar(open[index], previousClose) || isFar(close[index], previousClose)) {
+      setFlat(index, previousClose);
+      return;
+    }
+    if (isFar(high[index], previousClose)) {
+      high[index] = Math.max(open[index], close[index]);
+    }
+    if (isFar(low[index], previousClose)) {
+      low[index] = Math.min(open[index], close[index]);
+    }
+  }
+
+  private boolean isFar(double price, double reference) {
+    return Math.abs(price - reference) * 100 > parameters.getSpikePercent() * reference;
+  }
+
+  /** appends the day to the series, filling missing minutes with flat bars when repairing */
+  private int appendDay() {
+    int quality = 0;
+    for (int i = 0; i < size; i++) {
+      if (i > 0 && timestamps[i] - timestamps[i - 1] > MINUTE_MILLIS) {
+        quality = DataIssue.MISSING_MINUTES.getMask();
+        if (repair) {
+          double previousClose = close[i - 1];
+          for (long timestamp = timestamps[i - 1] + MINUTE_MILLIS;
+              timestamp < timestamps[i];
+              timestamp += MINUTE_MILLIS) {
+            series.add(timestamp, previousClose, previousClose, previousClose, previousClose);
+            filledBars++;
+          }
+        }
+      }
+      series.add(timestamps[i], open[i], high[i], low[i], close[i]);
+    }
+    return quality;
+  }
+
+  private void recordDay(int quality) {
+    days++;
+    for (DataIssue issue : DataIssue.values()) {
+      if ((quality & issue.getMask()) != 0) {
+        issueDays[issue.ordinal()]++;
+      }
+    }
+    if (quality != 0) {
+      LogUtils.debug(
+          () -> "Data issues :: " + Instant.ofEpochMilli(dayStart) + " " + describe(quality));
+    }
+  }
+
+  private void move(int from, int to) {
+    timestamps[to] = timestamps[from];
+    open[to] = open[from];
+    high[to] = high[from];
+    low[to] = low[from];
+    close[to] = close[from];
+  }
+
+  private void setFlat(int index, double price) {
+    open[index] = price;
+    high[index] = price;
+    low[index] = price;
+    close[index] = price;
+  }
+
+  private String describeIssueDays() {
+    StringBuilder builder = new StringBuilder("{");
+    for (DataIssue issue : DataIssue.values()) {
+      if (builder.length() > 1) {
+        builder.append(", ");
+      }
+      builder.append(issue).append('=').append(issueDays[issue.ordinal()]);
+    }
+    return builder.append('}').toString();
+  }
+
+  /** names of the issues set in the quality bitmap */
+  public static String describe(int quality) {
+    StringBuilder builder = new StringBuilder();
+    for (DataIssue issue : DataIssue.values()) {
+      if ((quality & issue.getMask()) != 0) {
+        builder.append(builder.isEmpty() ? "" : ",").append(issue);
+      }
+    }
+    return builder.toString();
+  }
+}
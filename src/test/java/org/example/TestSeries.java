@@ -0,0 +1,76 @@
+package org.example;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Random;
+import org.example.constants.ExchangeConstants;
+import org.example.models.OHLCSeries;
+import org.example.utils.CSVUtils;
+import org.example.utils.DataUtils;
+
+/** Minute series for tests, sessions run 09:15 - 15:29 on consecutive days from 2024-01-02. */
+public class TestSeries {
+  public static final long MINUTE_MILLIS = 60_000L;
+  public static final int SESSION_START_MINUTE = 9 * 60 + 15;
+  public static final int SESSION_BARS = 375;
+
+  /** four days of NIFTY 50 minute bars with book profit, stop loss and end of day exits */
+  public static final String NIFTY_FIXTURE = "/fixtures/nifty50-minute-4-days.csv";
+
+  /** timestamp of the minute of the day, counted from local midnight */
+  public static long getTimestamp(int day, int minuteOfDay) {
+    return LocalDate.of(2024, 1, 2)
+            .plusDays(day)
+            .atStartOfDay(ExchangeConstants.EXCHANGE_ZONE_ID)
+            .toInstant()
+            .toEpochMilli()
+        + minuteOfDay * MINUTE_MILLIS;
+  }
+
+  /** timestamp of the bar of the session, 0 is 09:15 */
+  public static long getSessionTimestamp(int day, int bar) {
+    return getTimestamp(day, SESSION_START_MINUTE + bar);
+  }
+
+  /** random walk minute bars, every bar opens at the previous close */
+  public static OHLCSeries getRandomSeries(long seed, int days) {
+    return getRandomSeries(seed, days, 0);
+  }
+
+  /**
+   * random walk minute bars
+   *
+   * @param gap standard deviation of the move from the previous close to the open of a bar
+   */
+  public static OHLCSeries getRandomSeries(long seed, int days, double gap) {
+    Random random = new Random(seed);
+    OHLCSeries series = new OHLCSeries(ExchangeConstants.EXCHANGE_ZONE_ID, days * SESSION_BARS);
+    double price = 10_000;
+    for (int day = 0; day < days; day++) {
+      for (int bar = 0; bar < SESSION_BARS; bar++) {
+        double open =
+            gap > 0 ? Math.round((price + random.nextGaussian() * gap) * 20) / 20.0 : price;
+        double close = Math.round((open + random.nextGaussian() * 4) * 20) / 20.0;
+        double high =
+            Math.max(open, close) + Math.round(Math.abs(random.nextGaussian()) * 40) / 20.0;
+        double low =
+            Math.min(open, close) - Math.round(Math.abs(random.nextGaussian()) * 40) / 20.0;
+        series.add(getSessionTimestamp(day, bar), open, high, low, close);
+        price = close;
+      }
+    }
+    series.trim();
+    return series;
+  }
+
+  /** the csv fixture parsed and validated with the default settings */
+  public static OHLCSeries readFixture(String resource) {
+    try {
+      Path source = Path.of(TestSeries.class.getResource(resource).toURI());
+      return DataUtils.parseOHLCSeries(source, CSVUtils.FIXED_TIMESTAMP_FORMAT);
+    } catch (URISyntaxException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
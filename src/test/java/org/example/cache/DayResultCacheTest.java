@@ -0,0 +1,118 @@
+package org.example.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import org.example.TestSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.ORBData;
+import org.example.strategies.ORBAdvancedStrategy;
+import org.example.utils.StrategyUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DayResultCacheTest {
+  private static final ORBAdvancedParameters PARAMETERS =
+      StrategyUtils.getDefaultORBAdvancedParameters();
+  private static final String DATASET = "NIFTY 50-ONE_MINUTE";
+
+  @TempDir Path folder;
+
+  private DayResultCache open(String datasetId) {
+    return new DayResultCache(folder, datasetId, ORBAdvancedStrategy.ID, PARAMETERS);
+  }
+
+  private static long getDayStart(int day) {
+    return TestSeries.getTimestamp(day, 0);
+  }
+
+  private static ORBData getORBData(double upper) {
+    ORBData orbData = new ORBData();
+    orbData.setUpper(upper);
+    orbData.setLower(upper - 1);
+    orbData.setStart(new Date(0));
+    orbData.setEnd(new Date(60_000));
+    return orbData;
+  }
+
+  /**
+   * key of a day is its number plus the offset, another offset as if the bars of the day changed
+   */
+  private static void putDays(DayResultCache cache, int firstDay, int lastDay, long keyOffset) {
+    for (int day = firstDay; day <= lastDay; day++) {
+      cache.putTrades(day + keyOffset, getDayStart(day), List.of());
+      cache.putORBData(day + keyOffset, getDayStart(day), getORBData(100 + day));
+    }
+  }
+
+  @Test
+  void changedDaysInsideTheRunArePruned() {
+    try (DayResultCache cache = open(DATASET)) {
+      putDays(cache, 0, 2, 0);
+    }
+    try (DayResultCache cache = open(DATASET)) {
+      assertNotNull(cache.getTrades(0, getDayStart(0)));
+      assertNotNull(cache.getORBData(0, getDayStart(0)));
+      // the bars of days 1 and 2 changed
+      putDays(cache, 1, 2, 10);
+    }
+    try (DayResultCache cache = open(DATASET)) {
+      assertNull(cache.getTrades(1, getDayStart(1)));
+      assertNull(cache.getORBData(2, getDayStart(2)));
+      assertNotNull(cache.getTrades(11, getDayStart(1)));
+      assertEquals(100, cache.getORBData(0, getDayStart(0)).getUpper());
+    }
+  }
+
+  @Test
+  void runOverPartOfTheDaysKeepsTheOthers() {
+    try (DayResultCache cache = open(DATASET)) {
+      putDays(cache, 0, 4, 0);
+    }
+    try (DayResultCache cache = open(DATASET)) {
+      assertNotNull(cache.getTrades(2, getDayStart(2)));
+      putDays(cache, 3, 3, 10);
+    }
+    try (DayResultCache cache = open(DATASET)) {
+      assertNotNull(cache.getTrades(0, getDayStart(0)));
+      assertNotNull(cache.getTrades(4, getDayStart(4)));
+      assertNotNull(cache.getORBData(4, getDayStart(4)));
+      assertNull(cache.getTrades(3, getDayStart(3)));
+      assertNotNull(cache.getTrades(13, getDayStart(3)));
+    }
+  }
+
+  /** a day served from its trades never asks for its ORB, which must survive the run */
+  @Test
+  void warmRunKeepsTheORBValues() {
+    try (DayResultCache cache = open(DATASET)) {
+      putDays(cache, 0, 2, 0);
+    }
+    try (DayResultCache cache = open(DATASET)) {
+      for (int day = 0; day <= 2; day++) {
+        assertNotNull(cache.getTrades(day, getDayStart(day)));
+      }
+    }
+    try (DayResultCache cache = open(DATASET)) {
+      assertEquals(101, cache.getORBData(1, getDayStart(1)).getUpper());
+    }
+  }
+
+  @Test
+  void datasetsKeepTheirOwnDays() {
+    try (DayResultCache cache = open(DATASET)) {
+      putDays(cache, 0, 2, 0);
+    }
+    try (DayResultCache cache = open("NIFTY BANK-ONE_MINUTE")) {
+      putDays(cache, 0, 2, 10);
+    }
+    try (DayResultCache cache = open(DATASET)) {
+      assertNotNull(cache.getTrades(1, getDayStart(1)));
+      assertNotNull(cache.getORBData(1, getDayStart(1)));
+    }
+  }
+}
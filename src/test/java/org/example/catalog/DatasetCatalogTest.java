@@ -0,0 +1,32 @@
+package org.example.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import org.example.exceptions.CSVParsingException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DatasetCatalogTest {
+  private static final String ROW = "2015-01-09 09:15:00,8200.00,8201.02,8198.53,8198.98,0\n";
+
+  @TempDir Path folder;
+
+  @Test
+  void symbolsAreNamedAfterTheirFiles() throws IOException {
+    Files.writeString(folder.resolve("NIFTY 50.csv"), "date,open,high,low,close,volume\n" + ROW);
+    DatasetCatalog catalog = new DatasetCatalog(folder);
+    assertEquals(Set.of("NIFTY 50"), catalog.getSymbols());
+    assertEquals(1, catalog.getSeries("NIFTY 50").size());
+  }
+
+  @Test
+  void fileWithAnotherColumnOrderIsRejected() throws IOException {
+    Files.writeString(folder.resolve("NIFTY 50.csv"), "date,close,open,high,low,volume\n" + ROW);
+    assertThrows(CSVParsingException.class, () -> new DatasetCatalog(folder));
+  }
+}
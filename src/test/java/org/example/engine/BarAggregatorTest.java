@@ -0,0 +1,72 @@
+package org.example.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Map;
+import org.example.TestSeries;
+import org.example.constants.ExchangeConstants;
+import org.example.enums.Timeframe;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBData;
+import org.example.utils.IndicatorUtils;
+import org.example.utils.StrategyUtils;
+import org.junit.jupiter.api.Test;
+
+class BarAggregatorTest {
+  /** one 09:15 - 15:29 session of minute bars whose price is the minute of the session */
+  private static OHLCSeries getMinuteSeries() {
+    OHLCSeries series = new OHLCSeries(ExchangeConstants.EXCHANGE_ZONE_ID, TestSeries.SESSION_BARS);
+    for (int minute = 0; minute < TestSeries.SESSION_BARS; minute++) {
+      series.add(
+          TestSeries.getSessionTimestamp(0, minute),
+          100 + minute,
+          101 + minute,
+          99 + minute,
+          100.5 + minute);
+    }
+    series.trim();
+    return series;
+  }
+
+  @Test
+  void resamplesIntoBucketsLabelledWithTheirStart() {
+    OHLCSeries series = getMinuteSeries();
+    OHLCSeries fiveMinutes =
+        BarAggregator.resample(series, Timeframe.FIVE_MINUTES).get(Timeframe.FIVE_MINUTES);
+
+    assertEquals(75, fiveMinutes.size());
+    assertEquals(1, fiveMinutes.getDayCount());
+    assertEquals(5, fiveMinutes.getBarMinutes());
+    assertEquals(series.getTimestamp(5), fiveMinutes.getTimestamp(1));
+    assertEquals(105, fiveMinutes.getOpen(1));
+    assertEquals(110, fiveMinutes.getHigh(1));
+    assertEquals(104, fiveMinutes.getLow(1));
+    assertEquals(109.5, fiveMinutes.getClose(1));
+  }
+
+  @Test
+  void orbWindowAndExitBarDoNotDependOnTheTimeframe() {
+    OHLCSeries series = getMinuteSeries();
+    Map<Timeframe, OHLCSeries> resampled =
+        BarAggregator.resample(series, Timeframe.FIVE_MINUTES, Timeframe.FIFTEEN_MINUTES);
+    ORBData minuteORB = IndicatorUtils.getORBDataForDay(series, 0);
+    int minuteExit = StrategyUtils.getExitOffset(series, 0, 5);
+    assertEquals(370, minuteExit);
+
+    OHLCSeries fiveMinutes = resampled.get(Timeframe.FIVE_MINUTES);
+    ORBData fiveMinuteORB = IndicatorUtils.getORBDataForDay(fiveMinutes, 0);
+    assertEquals(minuteORB.getUpper(), fiveMinuteORB.getUpper());
+    assertEquals(minuteORB.getLower(), fiveMinuteORB.getLower());
+    // the 09:25 bar closes the window on 5 minute bars
+    assertEquals(series.getTimestamp(10), fiveMinuteORB.getEnd().getTime());
+    assertEquals(
+        series.getTimestamp(minuteExit),
+        fiveMinutes.getTimestamp(StrategyUtils.getExitOffset(fiveMinutes, 0, 5)));
+
+    // a 15 minute bar is wider than the window, the ORB is the 09:15 bar itself
+    OHLCSeries fifteenMinutes = resampled.get(Timeframe.FIFTEEN_MINUTES);
+    ORBData fifteenMinuteORB = IndicatorUtils.getORBDataForDay(fifteenMinutes, 0);
+    assertEquals(series.getTimestamp(0), fifteenMinuteORB.getEnd().getTime());
+    assertEquals(fifteenMinutes.getHigh(0), fifteenMinuteORB.getUpper());
+  }
+}
@@ -0,0 +1,89 @@
+package org.example.engine;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.example.TestSeries;
+import org.example.enums.IntraBarPath;
+import org.example.models.ExecutionParameters;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.TradeData;
+import org.example.models.TradeLog;
+import org.example.utils.IndicatorUtils;
+import org.example.utils.OptimizerUtils;
+import org.example.utils.StrategyUtils;
+import org.junit.jupiter.api.Test;
+
+class ORBSweepTest {
+  private static List<ORBAdvancedParameters> getGrid() {
+    List<ORBAdvancedParameters> grid =
+        new ArrayList<>(
+            OptimizerUtils.getParameterGrid(
+                List.of(new int[] {9, 15, 9, 29}, new int[] {9, 15, 9, 59}),
+                List.of(1.0, 2.5),
+                List.of(5, 30)));
+    for (ORBAdvancedParameters parameters : List.copyOf(grid)) {
+      ORBAdvancedParameters atr = copy(parameters);
+      atr.setAtrPeriod(14);
+      atr.setAtrStopMultiplier(1.5);
+      grid.add(atr);
+      ORBAdvancedParameters path = copy(parameters);
+      ExecutionParameters execution = new ExecutionParameters();
+      execution.setIntraBarPath(IntraBarPath.OPEN_HIGH_LOW_CLOSE);
+      path.setExecution(execution);
+      grid.add(path);
+    }
+    return grid;
+  }
+
+  private static ORBAdvancedParameters copy(ORBAdvancedParameters parameters) {
+    ORBAdvancedParameters copy = new ORBAdvancedParameters();
+    copy.setStartHour(parameters.getStartHour());
+    copy.setStartMinute(parameters.getStartMinute());
+    copy.setEndHour(parameters.getEndHour());
+    copy.setEndMinute(parameters.getEndMinute());
+    copy.setRiskFactor(parameters.getRiskFactor());
+    copy.setMinutesMargin(parameters.getMinutesMargin());
+    copy.setExecution(parameters.getExecution());
+    return copy;
+  }
+
+  /** every set on its own through the per day batch path, the reference for the sweep */
+  private static List<List<TradeData>> getReferenceTrades(
+      OHLCSeries series, ORBAdvancedParameters parameters) {
+    double[] averageTrueRange = StrategyUtils.getATRForStopLoss(series, parameters);
+    TradeLog tradeLog = new TradeLog();
+    ORBTradeMachine machine = new ORBTradeMachine(parameters, tradeLog);
+    List<List<TradeData>> dayWiseTrades = new ArrayList<>();
+    for (int day = 0; day < series.getDayCount(); day++) {
+      int first = tradeLog.size();
+      StrategyUtils.appendTradesForORBAdvancedForDay(
+          series,
+          day,
+          IndicatorUtils.getORBDataForDay(series, day, parameters),
+          parameters,
+          averageTrueRange,
+          machine);
+      dayWiseTrades.add(tradeLog.toTradeDataList(first, tradeLog.size()));
+    }
+    return dayWiseTrades;
+  }
+
+  @Test
+  void sweepTradesMatchEverySetRunOnItsOwn() {
+    List<ORBAdvancedParameters> grid = getGrid();
+    for (long seed = 1; seed <= 3; seed++) {
+      OHLCSeries series = TestSeries.getRandomSeries(seed, 20);
+      List<List<List<TradeData>>> swept = OptimizerUtils.getDayWiseTrades(series, grid, 3);
+      int trades = 0;
+      for (int set = 0; set < grid.size(); set++) {
+        List<List<TradeData>> reference = getReferenceTrades(series, grid.get(set));
+        assertEquals(reference, swept.get(set), "seed " + seed + " set " + grid.get(set));
+        trades += reference.stream().mapToInt(List::size).sum();
+      }
+      assertEquals(true, trades > 100, "too few trades to be meaningful: " + trades);
+    }
+  }
+}
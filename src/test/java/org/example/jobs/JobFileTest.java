@@ -0,0 +1,54 @@
+package org.example.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Properties;
+import org.example.exceptions.JobException;
+import org.example.models.JobDefinition;
+import org.junit.jupiter.api.Test;
+
+class JobFileTest {
+
+  private static Properties getJob(String key, String value) {
+    Properties properties = new Properties();
+    properties.setProperty("jobs", "orb");
+    properties.setProperty("orb." + key, value);
+    return properties;
+  }
+
+  private static void assertInvalid(String expectedMessage, Properties properties) {
+    assertEquals(
+        expectedMessage,
+        assertThrows(JobException.class, () -> JobFile.parse(properties)).getMessage());
+  }
+
+  @Test
+  void valuesOutOfRangeNameTheJobAndKey() {
+    assertInvalid("job orb: invalid minutesMargin: -1", getJob("minutesMargin", "-1"));
+    assertInvalid("job orb: invalid riskFactor: 0.0", getJob("riskFactor", "0"));
+    assertInvalid("job orb: invalid riskFactor: NaN", getJob("riskFactor", "NaN"));
+    assertInvalid("job orb: invalid atrStopMultiplier: -1.0", getJob("atrStopMultiplier", "-1"));
+    assertInvalid("job orb: invalid maxPositions: 0", getJob("maxPositions", "0"));
+    assertInvalid("job orb: invalid maxHoldingDays: -2", getJob("maxHoldingDays", "-2"));
+  }
+
+  @Test
+  void atrStopNeedsPositivePeriod() {
+    Properties properties = getJob("atrStopMultiplier", "1.5");
+    properties.setProperty("orb.atrPeriod", "0");
+    String message = assertThrows(JobException.class, () -> JobFile.parse(properties)).getMessage();
+    assertTrue(message.startsWith("job orb: invalid atrPeriod: "));
+
+    properties.setProperty("orb.atrStopMultiplier", "0");
+    JobDefinition job = JobFile.parse(properties).get(0);
+    assertEquals(0, job.getParameters().getAtrPeriod());
+  }
+
+  @Test
+  void zeroHoldingDaysHoldsWithoutLimit() {
+    JobDefinition job = JobFile.parse(getJob("maxHoldingDays", "0")).get(0);
+    assertEquals(0, job.getPositionParameters().getMaxHoldingDays());
+  }
+}
@@ -0,0 +1,126 @@
+package org.example.matching;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import org.example.models.OHLCData;
+import org.example.models.TradeData;
+import org.example.utils.TradeUtils;
+import org.junit.jupiter.api.Test;
+
+class TradeExitMatcherTest {
+
+  /** prices on a quarter tick grid, so levels often sit exactly on a high or low */
+  private static double onTick(double price) {
+    return Math.round(price * 4) / 4.0;
+  }
+
+  private static OHLCData nextBar(Random random, double open) {
+    OHLCData bar = new OHLCData();
+    double close = onTick(open + random.nextGaussian());
+    bar.setOpen(open);
+    bar.setClose(close);
+    bar.setHigh(Math.max(open, close) + onTick(Math.abs(random.nextGaussian())));
+    bar.setLow(Math.min(open, close) - onTick(Math.abs(random.nextGaussian())));
+    return bar;
+  }
+
+  private static TradeData newTrade(Random random, double price) {
+    TradeData tradeData = new TradeData();
+    tradeData.setBookProfits(onTick(price + random.nextGaussian() * 5));
+    tradeData.setStopLoss(onTick(price + random.nextGaussian() * 5));
+    return tradeData;
+  }
+
+  /**
+   * random baskets with trades added, removed, updated and removed from within the listener: the
+   * matcher reports the same trades with the same signals in the same order as a scan with {@link
+   * TradeUtils#isBookProfits} and {@link TradeUtils#isStopLoss}
+   */
+  @Test
+  void matchesTheSameTradesAsAScan() {
+    matchBaskets(false);
+  }
+
+  @Test
+  void levelsAddedWithoutABeanMatchTheSameTrades() {
+    matchBaskets(true);
+  }
+
+  /**
+   * @param levelsOnly registers and updates plain levels, the listener finds the trade by handle
+   */
+  private static void matchBaskets(boolean levelsOnly) {
+    long events = 0;
+    for (int seed = 0; seed < 50; seed++) {
+      Random random = new Random(seed);
+      TradeExitMatcher matcher = new TradeExitMatcher();
+      List<TradeData> active = new ArrayList<>();
+      Map<TradeData, Integer> handles = new IdentityHashMap<>();
+      Map<Integer, TradeData> byHandle = new HashMap<>();
+      double price = 100;
+      for (int bar = 0; bar < 2000; bar++) {
+        OHLCData ohlcData = nextBar(random, price);
+        price = ohlcData.getClose();
+
+        List<String> expected = new ArrayList<>();
+        for (TradeData tradeData : active) {
+          if (TradeUtils.isBookProfits(tradeData, ohlcData)) {
+            expected.add(System.identityHashCode(tradeData) + " BP");
+          } else if (TradeUtils.isStopLoss(tradeData, ohlcData)) {
+            expected.add(System.identityHashCode(tradeData) + " SL");
+          }
+        }
+        List<String> matched = new ArrayList<>();
+        boolean removeOnTrigger = random.nextBoolean();
+        matcher.match(
+            ohlcData,
+            (handle, registered, signal) -> {
+              TradeData tradeData = levelsOnly ? byHandle.get(handle) : registered;
+              assertEquals(levelsOnly, Objects.isNull(registered));
+              matched.add(System.identityHashCode(tradeData) + " " + signal);
+              if (removeOnTrigger) {
+                matcher.remove(handle);
+                active.remove(tradeData);
+                handles.remove(tradeData);
+              }
+            });
+        assertEquals(expected, matched, "seed " + seed + " bar " + bar);
+        events += matched.size();
+
+        for (int i = random.nextInt(4); i > 0; i--) {
+          TradeData tradeData = newTrade(random, price);
+          active.add(tradeData);
+          int handle =
+              levelsOnly
+                  ? matcher.add(tradeData.getBookProfits(), tradeData.getStopLoss())
+                  : matcher.add(tradeData);
+          handles.put(tradeData, handle);
+          byHandle.put(handle, tradeData);
+        }
+        if (!active.isEmpty() && random.nextInt(3) == 0) {
+          TradeData tradeData = active.remove(random.nextInt(active.size()));
+          matcher.remove(handles.remove(tradeData));
+        }
+        if (!active.isEmpty() && random.nextInt(3) == 0) {
+          TradeData tradeData = active.get(random.nextInt(active.size()));
+          tradeData.setStopLoss(onTick(price + random.nextGaussian() * 5));
+          if (levelsOnly) {
+            matcher.update(
+                handles.get(tradeData), tradeData.getBookProfits(), tradeData.getStopLoss());
+          } else {
+            matcher.update(handles.get(tradeData));
+          }
+        }
+        assertEquals(active.size(), matcher.size());
+      }
+    }
+    assertEquals(true, events > 10_000, "too few triggers to be meaningful: " + events);
+  }
+}
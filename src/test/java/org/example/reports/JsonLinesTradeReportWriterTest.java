@@ -0,0 +1,57 @@
+package org.example.reports;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import org.example.enums.OrderSignal;
+import org.example.enums.OrderType;
+import org.example.models.OrderData;
+import org.example.models.TradeData;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class JsonLinesTradeReportWriterTest {
+  private static final String ORDERS =
+      "\"entry\":{\"type\":\"LONG\",\"signal\":\"LONG\",\"timestamp\":1000,\"price\":100.5},"
+          + "\"exit\":{\"type\":\"EXIT_LONG\",\"signal\":\"EOD\",\"timestamp\":2000,"
+          + "\"price\":100.5},";
+
+  @TempDir Path folder;
+
+  private static OrderData getOrder(OrderType type, OrderSignal signal, long timestamp) {
+    OrderData orderData = new OrderData();
+    orderData.setType(type);
+    orderData.setSignal(signal);
+    orderData.setTimestamp(new Date(timestamp));
+    orderData.setPrice(100.5);
+    return orderData;
+  }
+
+  @Test
+  void nonFiniteNumbersAreWrittenAsNull() throws IOException {
+    TradeData tradeData = new TradeData();
+    tradeData.setEntry(getOrder(OrderType.LONG, OrderSignal.LONG, 1_000));
+    tradeData.setExit(getOrder(OrderType.EXIT_LONG, OrderSignal.EOD, 2_000));
+    tradeData.setProfit(2.5);
+    tradeData.setProfitPercent(Double.NaN);
+    Path file = folder.resolve("trades.jsonl");
+    try (TradeReportWriter writer = new JsonLinesTradeReportWriter(file)) {
+      writer.write(tradeData);
+      tradeData.setProfit(Double.POSITIVE_INFINITY);
+      tradeData.setProfitPercent(1.25);
+      writer.write(tradeData);
+    }
+
+    assertEquals(
+        List.of(
+            "{\"trade\":1," + ORDERS + "\"profit\":2.5,\"profitPercent\":null,\"cumProfit\":2.5}",
+            "{\"trade\":2,"
+                + ORDERS
+                + "\"profit\":null,\"profitPercent\":1.25,\"cumProfit\":null}"),
+        Files.readAllLines(file));
+  }
+}
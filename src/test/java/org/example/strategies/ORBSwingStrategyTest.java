@@ -0,0 +1,122 @@
+package org.example.strategies;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.example.TestSeries;
+import org.example.constants.ExchangeConstants;
+import org.example.enums.DataIssue;
+import org.example.enums.OrderSignal;
+import org.example.enums.OrderType;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.PositionParameters;
+import org.example.models.TradeData;
+import org.example.utils.StrategyUtils;
+import org.junit.jupiter.api.Test;
+
+class ORBSwingStrategyTest {
+  /**
+   * day 0 opens a short from a breakout above the 99 - 101 range and its reversal, with book
+   * profits near 101 and stop loss near 102.2; day 1 opens at the given price and trades through
+   * the book profits at 10:00; day 2 is flat
+   */
+  private static OHLCSeries getSeries(double dayOneOpen) {
+    OHLCSeries series = new OHLCSeries(ExchangeConstants.EXCHANGE_ZONE_ID, 3 * 375);
+    for (int day = 0; day < 3; day++) {
+      for (int minute = 9 * 60 + 15; minute < 15 * 60 + 30; minute++) {
+        long timestamp = TestSeries.getTimestamp(day, minute);
+        if (day == 0 && minute < 9 * 60 + 30) {
+          series.add(timestamp, 100, 101, 99, 100);
+        } else if (day == 0 && minute == 9 * 60 + 30) {
+          series.add(timestamp, 103, 103.5, 102, 102.5);
+        } else if (day == 0 && minute == 9 * 60 + 31) {
+          series.add(timestamp, 102.1, 102.2, 101.5, 101.8);
+        } else if (day == 1 && minute == 9 * 60 + 15) {
+          series.add(timestamp, dayOneOpen, dayOneOpen + 0.1, dayOneOpen - 0.1, dayOneOpen);
+        } else if (day == 1 && minute == 10 * 60) {
+          series.add(timestamp, 101.6, 101.7, 100.5, 101.2);
+        } else {
+          series.add(timestamp, 101.6, 101.7, 101.5, 101.6);
+        }
+      }
+    }
+    series.trim();
+    return series;
+  }
+
+  private static List<TradeData> run(OHLCSeries series) {
+    Strategy strategy =
+        new ORBSwingStrategy(
+            ORBSwingStrategy.ID,
+            StrategyUtils.getDefaultORBAdvancedParameters(),
+            new PositionParameters());
+    return BacktestRunner.run(series, List.of(strategy)).get(ORBSwingStrategy.ID);
+  }
+
+  @Test
+  void heldPositionExitsOnItsBookProfits() {
+    List<TradeData> trades = run(getSeries(101.6));
+
+    assertEquals(1, trades.size());
+    assertEquals(OrderType.SHORT, trades.getFirst().getEntry().getType());
+    assertEquals(OrderSignal.BP, trades.getFirst().getExit().getSignal());
+    assertEquals(
+        TestSeries.getTimestamp(1, 10 * 60), trades.getFirst().getExit().getTimestamp().getTime());
+  }
+
+  /** the next day opens above the stop loss of the short, it fills at that open */
+  @Test
+  void heldPositionFillsAtAnOpenGappingOverItsStop() {
+    List<TradeData> trades = run(getSeries(103));
+
+    assertEquals(1, trades.size());
+    assertEquals(OrderSignal.SL, trades.getFirst().getExit().getSignal());
+    assertEquals(103, trades.getFirst().getExit().getPrice());
+    assertEquals(
+        TestSeries.getSessionTimestamp(1, 0), trades.getFirst().getExit().getTimestamp().getTime());
+  }
+
+  /** an unusable day opens nothing, but the position held into it still exits there */
+  @Test
+  void heldPositionExitsOnAnUnusableDay() {
+    OHLCSeries series = getSeries(101.6);
+    series.getDayIndex().setDayQuality(1, DataIssue.HALF_DAY.getMask());
+    series.setSkippedIssues(DataIssue.HALF_DAY.getMask());
+
+    List<TradeData> trades = run(series);
+
+    assertEquals(1, trades.size());
+    assertEquals(OrderSignal.BP, trades.getFirst().getExit().getSignal());
+    assertEquals(
+        TestSeries.getTimestamp(1, 10 * 60), trades.getFirst().getExit().getTimestamp().getTime());
+  }
+
+  /**
+   * one position closed at the end of every day is ORB Advanced, also when bars open away from the
+   * previous close and a level lies between the two
+   */
+  @Test
+  void singleIntradayPositionMatchesORBAdvancedOnGappyBars() {
+    ORBAdvancedParameters parameters = StrategyUtils.getDefaultORBAdvancedParameters();
+    PositionParameters positionParameters = new PositionParameters();
+    positionParameters.setMaxPositions(1);
+    positionParameters.setHoldOvernight(false);
+    int trades = 0;
+    for (long seed = 1; seed <= 10; seed++) {
+      OHLCSeries series = TestSeries.getRandomSeries(seed, 10, 3);
+      Map<String, List<TradeData>> results =
+          BacktestRunner.run(
+              series,
+              List.of(
+                  new ORBAdvancedStrategy(ORBAdvancedStrategy.ID, parameters),
+                  new ORBSwingStrategy(ORBSwingStrategy.ID, parameters, positionParameters)));
+      List<TradeData> expected = results.get(ORBAdvancedStrategy.ID);
+      assertEquals(expected, results.get(ORBSwingStrategy.ID), "seed " + seed);
+      trades += expected.size();
+    }
+    assertTrue(trades > 100, "too few trades to be meaningful: " + trades);
+  }
+}
@@ -0,0 +1,44 @@
+package org.example.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.exceptions.CSVParsingException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CSVUtilsTest {
+  private static final String ROW = "2015-01-09 09:15:00,8200.00,8201.02,8198.53,8198.98\n";
+
+  @TempDir Path folder;
+
+  private Path write(String header) throws IOException {
+    return Files.writeString(folder.resolve("bars.csv"), header + "\n" + ROW);
+  }
+
+  @Test
+  void headerIsMatchedIgnoringCaseAndTrailingColumns() throws IOException {
+    List<double[]> rows = new ArrayList<>();
+    CSVUtils.readOHLCRecords(
+        write("Date,Open,High,Low,Close"),
+        CSVUtils.FIXED_TIMESTAMP_FORMAT,
+        (timestamp, open, high, low, close) -> rows.add(new double[] {open, high, low, close}));
+    assertEquals(1, rows.size());
+    assertEquals(8201.02, rows.get(0)[1]);
+  }
+
+  @Test
+  void reorderedColumnsAreRejected() throws IOException {
+    Path file = write("date,open,low,high,close,volume");
+    assertThrows(
+        CSVParsingException.class,
+        () ->
+            CSVUtils.readOHLCRecords(
+                file, CSVUtils.FIXED_TIMESTAMP_FORMAT, (timestamp, open, high, low, close) -> {}));
+  }
+}
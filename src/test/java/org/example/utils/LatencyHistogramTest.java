@@ -0,0 +1,54 @@
+package org.example.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void smallValuesAreExact() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 0; value < 32; value++) {
+      histogram.record(value);
+    }
+    assertEquals(32, histogram.getTotalCount());
+    assertEquals(0, histogram.getValueAtPercentile(1));
+    assertEquals(15, histogram.getValueAtPercentile(50));
+    assertEquals(31, histogram.getValueAtPercentile(100));
+  }
+
+  @Test
+  void percentilesReportTheUpperBoundOfTheBucket() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    histogram.record(32);
+    histogram.record(5000);
+    histogram.record(100_000);
+    histogram.record(100_000);
+
+    assertEquals(32, histogram.getValueAtPercentile(25));
+    // 5000 falls in the sub bucket [4992, 5119] of magnitude 2^7
+    assertEquals(5119, histogram.getValueAtPercentile(50));
+    // the top bucket is capped by the largest recorded value
+    assertEquals(100_000, histogram.getValueAtPercentile(100));
+    assertEquals(100_000, histogram.getMax());
+  }
+
+  @Test
+  void relativeErrorIsBoundedBySubBucketCount() {
+    for (long value = 32; value < 1L << 40; value += 1 + value / 7) {
+      LatencyHistogram histogram = new LatencyHistogram();
+      histogram.record(value);
+      histogram.record(Long.MAX_VALUE);
+      long reported = histogram.getValueAtPercentile(50);
+      assertTrue(reported >= value, "value " + value + " reported as " + reported);
+      assertTrue(reported <= value + value / 32, "value " + value + " reported as " + reported);
+    }
+  }
+
+  @Test
+  void emptyHistogramReportsZero() {
+    assertEquals(0, new LatencyHistogram().getValueAtPercentile(99));
+  }
+}
@@ -0,0 +1,77 @@
+package org.example.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+
+class LogUtilsTest {
+  private static final int PRODUCERS = 4;
+  private static final int MESSAGES = 50_000;
+
+  /** lines of every log file holding the marker */
+  private static long countLines(String marker) throws IOException {
+    Path folder = Paths.get(System.getProperty("orb.log.path", "logs"));
+    long count = 0;
+    try (Stream<Path> files = Files.list(folder)) {
+      for (Path file : files.toList()) {
+        try (Stream<String> lines = Files.lines(file)) {
+          count += lines.filter(line -> line.contains(marker)).count();
+        }
+      }
+    }
+    return count;
+  }
+
+  /**
+   * producers fill the ring past its capacity while the writer is stopped and restarted over and
+   * over, every message still reaches a file and nobody waits on a stopped writer
+   */
+  @Test
+  void noMessageIsLostWhileTheWriterIsStopped() throws IOException {
+    String marker = "log-race-" + UUID.randomUUID();
+    assertTimeoutPreemptively(
+        Duration.ofSeconds(60),
+        () -> {
+          AtomicBoolean producing = new AtomicBoolean(true);
+          Thread dumper =
+              new Thread(
+                  () -> {
+                    while (producing.get()) {
+                      LogUtils.dumpLogFile();
+                    }
+                  });
+          dumper.start();
+          List<Thread> producers = new ArrayList<>();
+          for (int producer = 0; producer < PRODUCERS; producer++) {
+            int id = producer;
+            Thread thread =
+                new Thread(
+                    () -> {
+                      for (int i = 0; i < MESSAGES; i++) {
+                        LogUtils.info(marker + " " + id + " " + i);
+                      }
+                    });
+            producers.add(thread);
+            thread.start();
+          }
+          for (Thread thread : producers) {
+            thread.join();
+          }
+          producing.set(false);
+          dumper.join();
+          LogUtils.dumpLogFile();
+        });
+    assertEquals((long) PRODUCERS * MESSAGES, countLines(marker));
+  }
+}
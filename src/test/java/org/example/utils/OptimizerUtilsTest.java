@@ -0,0 +1,28 @@
+package org.example.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.example.TestSeries;
+import org.example.models.OHLCSeries;
+import org.example.models.OptimizationResult;
+import org.junit.jupiter.api.Test;
+
+class OptimizerUtilsTest {
+
+  /**
+   * the fixture trades 29 times with the default parameters, 8 trades exit at book profits and 9
+   * are profitable, one of them at the end of the day
+   */
+  @Test
+  void winRateIsTheShareOfProfitableTrades() {
+    OHLCSeries series = TestSeries.readFixture(TestSeries.NIFTY_FIXTURE);
+    OptimizationResult result =
+        OptimizerUtils.optimize(series, List.of(StrategyUtils.getDefaultORBAdvancedParameters()), 1)
+            .getFirst();
+
+    assertEquals(29, result.getTotalTrades());
+    assertEquals(8, result.getSuccessTimes());
+    assertEquals(9 * 100.0 / 29, result.getWinRate(), 1e-9);
+  }
+}
@@ -0,0 +1,79 @@
+package org.example.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.example.TestSeries;
+import org.example.cache.DayResultCache;
+import org.example.enums.OrderSignal;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.example.models.TradeData;
+import org.example.strategies.ORBAdvancedStrategy;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * ORB Advanced over four days of NIFTY 50 minute bars, every code path has to produce the same
+ * trades as the original list based day loop
+ */
+class StrategyUtilsTest {
+  private static OHLCSeries series;
+  private static List<TradeData> expected;
+
+  @TempDir Path folder;
+
+  @BeforeAll
+  static void runListBasedDayLoop() {
+    series = TestSeries.readFixture(TestSeries.NIFTY_FIXTURE);
+    expected =
+        StrategyUtils.getListOfTradesForORBAdvanced(
+            DataUtils.getDayWiseOHLCData(series.toOHLCDataList()));
+  }
+
+  @Test
+  void fixtureCoversEveryExit() {
+    assertEquals(4, series.getDayCount());
+    for (OrderSignal signal : List.of(OrderSignal.BP, OrderSignal.SL, OrderSignal.EOD)) {
+      assertTrue(
+          expected.stream().anyMatch(tradeData -> signal.equals(tradeData.getExit().getSignal())),
+          signal.name());
+    }
+  }
+
+  @Test
+  void seriesRunMatchesListRun() {
+    assertEquals(expected, StrategyUtils.getListOfTradesForORBAdvanced(series));
+  }
+
+  @Test
+  void parallelRunMatchesListRun() {
+    assertEquals(expected, StrategyUtils.getListOfTradesForORBAdvanced(series, 4));
+  }
+
+  @Test
+  void sweepMatchesListRun() {
+    List<List<TradeData>> dayWiseTrades =
+        OptimizerUtils.getDayWiseTrades(
+                series, List.of(StrategyUtils.getDefaultORBAdvancedParameters()), 2)
+            .get(0);
+    assertEquals(expected, dayWiseTrades.stream().flatMap(List::stream).toList());
+  }
+
+  @Test
+  void cachedRunMatchesListRunColdAndWarm() {
+    ORBAdvancedParameters parameters = StrategyUtils.getDefaultORBAdvancedParameters();
+    for (int run = 0; run < 2; run++) {
+      try (DayResultCache cache =
+          new DayResultCache(folder, "NIFTY 50", ORBAdvancedStrategy.ID, parameters)) {
+        assertEquals(
+            expected,
+            StrategyUtils.getListOfTradesForORBAdvanced(series, parameters, 4, cache),
+            run == 0 ? "cold" : "warm");
+      }
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package org.example.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.example.exceptions.IndicatorException;
+import org.junit.jupiter.api.Test;
+
+class TechnicalIndicatorUtilsTest {
+  private static final double[] VALUES = {1, 2, 3, 4};
+
+  @Test
+  void nonPositivePeriodsAreRejected() {
+    assertThrows(
+        IndicatorException.class,
+        () -> TechnicalIndicatorUtils.averageTrueRange(VALUES, VALUES, VALUES, 4, 0));
+    assertThrows(
+        IndicatorException.class, () -> TechnicalIndicatorUtils.simpleMovingAverage(VALUES, 4, -1));
+    assertThrows(IndicatorException.class, () -> TechnicalIndicatorUtils.rollingHigh(VALUES, 4, 0));
+    assertEquals(2.5, TechnicalIndicatorUtils.simpleMovingAverage(VALUES, 4, 4)[3]);
+  }
+}
@@ -0,0 +1,22 @@
+package org.example.utils;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.example.constants.ExchangeConstants;
+import org.example.exceptions.TradeException;
+import org.example.models.OHLCSeries;
+import org.example.models.ORBAdvancedParameters;
+import org.junit.jupiter.api.Test;
+
+class WalkForwardUtilsTest {
+
+  @Test
+  void nonPositiveWindowsAreRejected() {
+    OHLCSeries series = new OHLCSeries(ExchangeConstants.EXCHANGE_ZONE_ID, 0);
+    List<ORBAdvancedParameters> grid = List.of(StrategyUtils.getDefaultORBAdvancedParameters());
+    assertThrows(TradeException.class, () -> WalkForwardUtils.walkForward(series, grid, 20, 0, 1));
+    assertThrows(TradeException.class, () -> WalkForwardUtils.walkForward(series, grid, 0, 10, 1));
+    assertThrows(TradeException.class, () -> WalkForwardUtils.walkForward(series, grid, -5, 10, 1));
+  }
+}
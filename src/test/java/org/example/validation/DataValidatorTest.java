@@ -0,0 +1,65 @@
+package org.example.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.example.TestSeries;
+import org.example.constants.ExchangeConstants;
+import org.example.enums.DataIssue;
+import org.example.models.OHLCSeries;
+import org.example.models.ValidationParameters;
+import org.junit.jupiter.api.Test;
+
+class DataValidatorTest {
+  /** one session of flat bars at the price, the first bar has the given high */
+  private static void acceptDay(DataValidator validator, int day, double price, double firstHigh) {
+    for (int bar = 0; bar < TestSeries.SESSION_BARS; bar++) {
+      long timestamp = TestSeries.getSessionTimestamp(day, bar);
+      validator.accept(timestamp, price, bar == 0 ? firstHigh : price, price, price);
+    }
+  }
+
+  /**
+   * two sessions of flat bars at 100 and then at the given price, the first bar of the second day
+   * has the given high
+   */
+  private static OHLCSeries validate(double secondDayPrice, double firstHigh) {
+    OHLCSeries series = new OHLCSeries(ExchangeConstants.EXCHANGE_ZONE_ID, 750);
+    DataValidator validator = new DataValidator(series, new ValidationParameters());
+    acceptDay(validator, 0, 100, 100);
+    acceptDay(validator, 1, secondDayPrice, firstHigh);
+    validator.finish();
+    return series;
+  }
+
+  @Test
+  void firstBarOfTheDayIsCheckedAgainstThePreviousClose() {
+    OHLCSeries series = validate(100, 120);
+
+    assertEquals(0, series.getDayQuality(0));
+    assertEquals(DataIssue.SPIKE.getMask(), series.getDayQuality(1));
+    assertEquals(100, series.getHigh(series.getDayStart(1)));
+  }
+
+  @Test
+  void openingGapThatHoldsIsNotASpike() {
+    OHLCSeries series = validate(110, 110);
+
+    assertEquals(0, series.getDayQuality(1));
+    assertEquals(110, series.getHigh(series.getDayStart(1)));
+  }
+
+  @Test
+  void dayWithoutAnyValidBarIsDroppedWhenRepairing() {
+    OHLCSeries series = new OHLCSeries(ExchangeConstants.EXCHANGE_ZONE_ID, 750);
+    DataValidator validator = new DataValidator(series, new ValidationParameters());
+    acceptDay(validator, 0, 100, 100);
+    acceptDay(validator, 1, 0, 0);
+    acceptDay(validator, 2, 100, 100);
+    validator.finish();
+
+    assertEquals(2, series.getDayCount());
+    assertEquals(TestSeries.getTimestamp(2, 0), series.getDayStartTimestamp(1));
+    assertEquals(375, validator.getDroppedRows());
+    assertEquals(1, validator.getIssueDays(DataIssue.INVALID_BAR));
+  }
+}